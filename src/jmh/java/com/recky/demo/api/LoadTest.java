@@ -0,0 +1,153 @@
+package com.recky.demo.api;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.recky.demo.DemoApplication;
+
+/**
+ * Closed-loop HTTP load test: N concurrent clients, each sending its next request as soon as
+ * the previous one completes. Prints throughput and latency percentiles.
+ *
+ * Without --target the application is started in-process on H2 and seeded, in platform or
+ * virtual thread mode. With --target it runs against an already running server, e.g. one
+ * backed by MySQL.
+ *
+ * mvn -P benchmarks -DskipTests test-compile exec:exec -Dbenchmark.main=com.recky.demo.api.LoadTest \
+ *     -Dbenchmark.args="--threads=virtual --clients=1000 --seconds=30"
+ */
+public class LoadTest {
+
+    private static final String USER_ID = "load-user";
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        String threads = options.getOrDefault("threads", "platform");
+        int clients = Integer.parseInt(options.getOrDefault("clients", "1000"));
+        int seconds = Integer.parseInt(options.getOrDefault("seconds", "30"));
+        int warmupSeconds = Integer.parseInt(options.getOrDefault("warmup", "10"));
+        String path = options.getOrDefault("path", "/api/contacts/user/" + USER_ID + "/seek?size=20");
+
+        String mode = options.containsKey("target") ? "remote" : threads;
+        ConfigurableApplicationContext context = null;
+        String target = options.get("target");
+        if (target == null) {
+            context = startApplication(threads, Integer.parseInt(options.getOrDefault("rows", "10000")));
+            target = "http://localhost:" + ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+        }
+
+        try {
+            URI uri = URI.create(target + path);
+            System.out.printf("Warming up %s for %ds with %d clients...%n", uri, warmupSeconds, clients);
+            run(uri, clients, warmupSeconds);
+            System.out.printf("Measuring for %ds...%n", seconds);
+            Result result = run(uri, clients, seconds);
+
+            Histogram latency = result.latency();
+            System.out.printf("threads=%s clients=%d requests=%d errors=%d throughput=%.1f req/s%n",
+                    mode, clients, latency.getTotalCount(), result.errors(), latency.getTotalCount() / (double) seconds);
+            System.out.printf("latency ms: p50=%.2f p90=%.2f p99=%.2f p99.9=%.2f max=%.2f%n",
+                    latency.getValueAtPercentile(50) / 1e3, latency.getValueAtPercentile(90) / 1e3,
+                    latency.getValueAtPercentile(99) / 1e3, latency.getValueAtPercentile(99.9) / 1e3,
+                    latency.getMaxValue() / 1e3);
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+        }
+    }
+
+    private record Result(Histogram latency, long errors) {
+    }
+
+    private static Result run(URI uri, int clients, int seconds) throws InterruptedException {
+        Recorder recorder = new Recorder(3);
+        LongAdder errors = new LongAdder();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+
+        // Clients are virtual threads regardless of the server mode, so 1k clients cost nothing here
+        try (HttpClient http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+                ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            HttpRequest request = HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(30)).GET().build();
+            List<Runnable> loops = new ArrayList<>();
+            for (int i = 0; i < clients; i++) {
+                loops.add(() -> {
+                    while (System.nanoTime() < deadline) {
+                        long start = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = http.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() >= 400) {
+                                errors.increment();
+                            }
+                        } catch (Exception e) {
+                            if (errors.sum() == 0) {
+                                System.err.println("First request failure: " + e);
+                            }
+                            errors.increment();
+                        }
+                        recorder.recordValue(Math.max(1, (System.nanoTime() - start) / 1000));
+                    }
+                });
+            }
+            loops.forEach(executor::submit);
+            executor.shutdown();
+            executor.awaitTermination(seconds + 60L, TimeUnit.SECONDS);
+        }
+        return new Result(recorder.getIntervalHistogram(), errors.sum());
+    }
+
+    private static ConfigurableApplicationContext startApplication(String threads, int rows) {
+        // DevTools decides whether to restart from a system property, before arguments are read
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(DemoApplication.class)
+                .run("--server.port=0",
+                        "--spring.threads.virtual.enabled=" + "virtual".equals(threads),
+                        "--spring.datasource.url=jdbc:h2:mem:load;MODE=MySQL;DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.driver-class-name=org.h2.Driver",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.root=WARN");
+
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        jdbcTemplate.update("INSERT INTO users (id, username, email) VALUES (?, 'loaduser', 'load@example.com')",
+                USER_ID);
+        jdbcTemplate.update("INSERT INTO contacts (user_id, name, phone, email, created_at, updated_at) "
+                + "SELECT ?, CONCAT('Contact ', X), CAST(X AS VARCHAR), CONCAT('c', X, '@example.com'), "
+                + "DATEADD('SECOND', X, TIMESTAMP '2024-01-01 00:00:00'), NOW() FROM SYSTEM_RANGE(1, ?)",
+                USER_ID, rows);
+        return context;
+    }
+
+    // --name=value pairs
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (arg.startsWith("--") && arg.contains("=")) {
+                options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+            }
+        }
+        return options;
+    }
+}
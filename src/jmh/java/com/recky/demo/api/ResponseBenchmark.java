@@ -0,0 +1,80 @@
+package com.recky.demo.api;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.recky.demo.dto.ContactDTO;
+import com.recky.demo.dto.UserDTO;
+import com.recky.demo.model.User;
+import com.recky.demo.util.ApiResponse;
+
+// User mapping and ApiResponse serialization, configured like Spring Boot's ObjectMapper
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ResponseBenchmark {
+
+    @Param({ "20", "1000" })
+    private int pageSize;
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private UserController userController;
+    private User user;
+    private ApiResponse<UserDTO> userResponse;
+    private ApiResponse<List<ContactDTO>> contactsResponse;
+
+    @Setup
+    public void setUp() {
+        userController = new UserController(null);
+
+        user = new User();
+        user.setId("bench-user");
+        user.setUsername("benchuser");
+        user.setEmail("bench@example.com");
+        user.setCreatedAt(LocalDateTime.now());
+        user.setUpdatedAt(LocalDateTime.now());
+
+        userResponse = new ApiResponse<>(200, "success", "User fetched successfully", userController.toUserDTO(user, 0));
+
+        List<ContactDTO> contacts = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            contacts.add(new ContactDTO((long) i, "bench-user", "Contact " + i, String.valueOf(5550000000L + i),
+                    "contact" + i + "@example.com", i + " Main St", LocalDateTime.now(), LocalDateTime.now()));
+        }
+        contactsResponse = new ApiResponse<>(200, "success", "Contacts fetched successfully", contacts, 10, 0,
+                pageSize * 10);
+    }
+
+    @Benchmark
+    public UserDTO userToDTO() {
+        return userController.toUserDTO(user, 0);
+    }
+
+    @Benchmark
+    public byte[] serializeUserResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(userResponse);
+    }
+
+    @Benchmark
+    public byte[] serializeContactPageResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(contactsResponse);
+    }
+}
@@ -0,0 +1,108 @@
+package com.recky.demo.dao;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.recky.demo.DemoApplication;
+import com.recky.demo.dto.ActivityLogStatsDTO;
+import com.recky.demo.model.ActivityLog;
+
+/**
+ * Activity log stats computed with GROUP BY queries, versus the previous service code that
+ * loaded the rows (findByUserId / findAll) and counted them in a Java stream. All rows belong
+ * to one user, so the per-user and system-wide variants read the same rows.
+ *
+ * Run with -prof gc for allocation per call. The fork gets an 8 GB heap so the baseline
+ * can load 10M entities at all; on a smaller heap it fails there with OutOfMemoryError,
+ * which is the behaviour the GROUP BY queries replace.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class ActivityStatsBenchmark {
+
+    private static final String USER_ID = "bench-user";
+
+    @Param({ "10000", "100000", "1000000", "10000000" })
+    private int rows;
+
+    private ConfigurableApplicationContext context;
+    private ActivityLogRepository activityLogRepository;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Passed as command-line arguments so they override application.properties
+        context = new SpringApplicationBuilder(DemoApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:stats;MODE=MySQL;DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.driver-class-name=org.h2.Driver",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.devtools.restart.enabled=false",
+                        "--logging.level.root=WARN");
+
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        activityLogRepository = context.getBean(ActivityLogRepository.class);
+
+        jdbcTemplate.update("INSERT INTO users (id, username, email, role) VALUES (?, 'benchuser', 'bench@example.com', 'ADMIN')",
+                USER_ID);
+        jdbcTemplate.update("INSERT INTO activity_logs (user_id, action, timestamp, details) "
+                + "SELECT ?, CASEWHEN(MOD(X, 4) = 0, 'GET', CASEWHEN(MOD(X, 4) = 1, 'CREATE', "
+                + "CASEWHEN(MOD(X, 4) = 2, 'UPDATE', 'DELETE'))), "
+                + "DATEADD('SECOND', X, TIMESTAMP '2024-01-01 00:00:00'), CONCAT('Seeded log ', X) "
+                + "FROM SYSTEM_RANGE(1, ?)", USER_ID, rows);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public ActivityLogStatsDTO userStatsGroupBy() {
+        return ActivityLogStatsDTO.fromCounts(activityLogRepository.countByActionForUser(USER_ID, null, null));
+    }
+
+    // The previous getUserLogStats: every log of the user as an entity, grouped on the heap
+    @Benchmark
+    public ActivityLogStatsDTO userStatsFindAndStream() {
+        return countInStream(activityLogRepository.findByUserId(USER_ID));
+    }
+
+    @Benchmark
+    public ActivityLogStatsDTO allStatsGroupBy() {
+        return ActivityLogStatsDTO.fromCounts(activityLogRepository.countByAction(null, null));
+    }
+
+    // The previous getAllLogsStats: the whole table as entities, grouped on the heap
+    @Benchmark
+    public ActivityLogStatsDTO allStatsFindAllAndStream() {
+        return countInStream(activityLogRepository.findAll());
+    }
+
+    private static ActivityLogStatsDTO countInStream(List<ActivityLog> logs) {
+        Map<ActivityLog.Action, Long> actionCounts = logs.stream()
+                .collect(Collectors.groupingBy(ActivityLog::getAction, Collectors.counting()));
+        return ActivityLogStatsDTO.fromCounts(actionCounts);
+    }
+}
@@ -0,0 +1,149 @@
+package com.recky.demo.dao;
+
+import java.sql.Timestamp;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.recky.demo.DemoApplication;
+import com.recky.demo.dto.ActivityLogDTO;
+import com.recky.demo.dto.ContactDTO;
+import com.recky.demo.dto.UserDTO;
+import com.recky.demo.model.User;
+import com.recky.demo.service.ActivityLogService;
+import com.recky.demo.service.ContactService;
+import com.recky.demo.service.UserService;
+import com.recky.demo.util.CursorPage;
+import com.recky.demo.util.SeekCursor;
+
+/**
+ * OFFSET versus keyset paging of contacts, activity logs and users, on page 1 and on page 10,000.
+ * Enough rows are seeded for the deepest page to be full; both modes read the same rows in the
+ * same (timestamp, id) descending order, and the seek cursor is the last row of the page before.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PaginationBenchmark {
+
+    private static final String USER_ID = "bench-user";
+    private static final int PAGE_SIZE = 20;
+    private static final int ROWS = 10_000 * PAGE_SIZE;
+
+    // The seek order of contacts and users, for their OFFSET pages
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("id"));
+
+    // 1-based, as in "page 1 vs page 10,000"
+    @Param({ "1", "10000" })
+    private int page;
+
+    private ConfigurableApplicationContext context;
+    private ContactService contactService;
+    private ActivityLogService activityLogService;
+    private UserService userService;
+
+    private String contactsCursor;
+    private String logsCursor;
+    private String usersCursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Passed as command-line arguments so they override application.properties
+        context = new SpringApplicationBuilder(DemoApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:paging;MODE=MySQL;DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.driver-class-name=org.h2.Driver",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.devtools.restart.enabled=false",
+                        "--logging.level.root=WARN");
+
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        contactService = context.getBean(ContactService.class);
+        activityLogService = context.getBean(ActivityLogService.class);
+        userService = context.getBean(UserService.class);
+
+        jdbcTemplate.update("INSERT INTO users (id, username, email, role) VALUES (?, 'benchuser', 'bench@example.com', 'ADMIN')",
+                USER_ID);
+        jdbcTemplate.update("INSERT INTO users (id, username, email, created_at, updated_at) "
+                + "SELECT CONCAT('user-', X), CONCAT('user', X), CONCAT('u', X, '@example.com'), "
+                + "DATEADD('SECOND', X, TIMESTAMP '2024-01-01 00:00:00'), NOW() FROM SYSTEM_RANGE(1, ?)", ROWS);
+        jdbcTemplate.update("INSERT INTO contacts (user_id, name, phone, email, created_at, updated_at) "
+                + "SELECT ?, CONCAT('Contact ', X), CAST(X AS VARCHAR), CONCAT('c', X, '@example.com'), "
+                + "DATEADD('SECOND', X, TIMESTAMP '2024-01-01 00:00:00'), NOW() FROM SYSTEM_RANGE(1, ?)",
+                USER_ID, ROWS);
+        jdbcTemplate.update("INSERT INTO activity_logs (user_id, action, timestamp, details) "
+                + "SELECT ?, 'GET', DATEADD('SECOND', X, TIMESTAMP '2024-01-01 00:00:00'), CONCAT('Seeded log ', X) "
+                + "FROM SYSTEM_RANGE(1, ?)", USER_ID, ROWS);
+
+        contactsCursor = cursorBefore(jdbcTemplate,
+                "SELECT created_at, id FROM contacts ORDER BY created_at DESC, id DESC LIMIT 1 OFFSET ?");
+        logsCursor = cursorBefore(jdbcTemplate, "SELECT timestamp, id FROM activity_logs WHERE user_id = '"
+                + USER_ID + "' ORDER BY timestamp DESC, id DESC LIMIT 1 OFFSET ?");
+        usersCursor = cursorBefore(jdbcTemplate,
+                "SELECT created_at, id FROM users ORDER BY created_at DESC, id DESC LIMIT 1 OFFSET ?");
+    }
+
+    // The cursor a client holds after reading the previous page; null for page 1
+    private String cursorBefore(JdbcTemplate jdbcTemplate, String sql) {
+        if (page == 1) {
+            return null;
+        }
+        return jdbcTemplate.queryForObject(sql,
+                (rs, rowNum) -> SeekCursor.encode(rs.getObject(1, Timestamp.class).toLocalDateTime(), rs.getObject(2)),
+                (page - 1) * PAGE_SIZE - 1);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Page<ContactDTO> contactsOffset() {
+        return contactService.getAllContactsPaginated(PageRequest.of(page - 1, PAGE_SIZE, NEWEST_FIRST));
+    }
+
+    @Benchmark
+    public CursorPage<ContactDTO> contactsSeek() {
+        return contactService.getAllContactsSeek(contactsCursor, PAGE_SIZE);
+    }
+
+    // Unsorted pages of a user's logs are sorted newest first, like the seek order
+    @Benchmark
+    public Page<ActivityLogDTO> logsOffset() {
+        return activityLogService.getPaginatedLogsByUserId(USER_ID, PageRequest.of(page - 1, PAGE_SIZE));
+    }
+
+    @Benchmark
+    public CursorPage<ActivityLogDTO> logsSeek() {
+        return activityLogService.getLogsByUserIdSeek(USER_ID, logsCursor, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public Page<UserDTO> usersOffset() {
+        return userService.getUserDTOsPage(PageRequest.of(page - 1, PAGE_SIZE, NEWEST_FIRST));
+    }
+
+    @Benchmark
+    public CursorPage<User> usersSeek() {
+        return userService.getUsersSeek(usersCursor, PAGE_SIZE);
+    }
+}
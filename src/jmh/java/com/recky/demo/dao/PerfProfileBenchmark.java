@@ -0,0 +1,126 @@
+package com.recky.demo.dao;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.recky.demo.DemoApplication;
+import com.recky.demo.dto.ActivityLogDTO;
+import com.recky.demo.model.Contact;
+import com.recky.demo.model.User;
+import com.recky.demo.service.ActivityLogService;
+import com.recky.demo.service.ContactService;
+
+/**
+ * The same write paths with and without the "perf" profile, on H2 in MySQL mode as a local
+ * stand-in. H2 ignores the Connector/J statement cache settings, so what shows up here is
+ * the Hibernate side: JDBC batching of updates and the query plan cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class PerfProfileBenchmark {
+
+    private static final String USER_ID = "perf-user";
+    private static final int BULK_SIZE = 100;
+
+    @Param({ "default", "perf" })
+    private String profile;
+
+    private ConfigurableApplicationContext context;
+    private TransactionTemplate transactionTemplate;
+    private ContactService contactService;
+    private ActivityLogService activityLogService;
+    private ContactRepository contactRepository;
+    private UserRepository userRepository;
+
+    private final AtomicLong phones = new AtomicLong(7000000000L);
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // A separate in-memory database per profile, since DB_CLOSE_DELAY keeps it alive
+        context = new SpringApplicationBuilder(DemoApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.profiles.active=" + ("perf".equals(profile) ? "perf" : ""),
+                        "--spring.datasource.url=jdbc:h2:mem:perf_" + profile + ";MODE=MySQL;DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.driver-class-name=org.h2.Driver",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.devtools.restart.enabled=false",
+                        "--logging.level.root=WARN");
+
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        contactService = context.getBean(ContactService.class);
+        activityLogService = context.getBean(ActivityLogService.class);
+        contactRepository = context.getBean(ContactRepository.class);
+        userRepository = context.getBean(UserRepository.class);
+
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        jdbcTemplate.update("INSERT INTO users (id, username, email) VALUES (?, 'perfuser', 'perf@example.com')",
+                USER_ID);
+        jdbcTemplate.update("INSERT INTO contacts (user_id, name, phone, created_at, updated_at) "
+                + "SELECT ?, CONCAT('Contact ', X), CAST(X AS VARCHAR), NOW(), NOW() FROM SYSTEM_RANGE(1, ?)",
+                USER_ID, BULK_SIZE);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    // Bulk create: saveContact for each row inside one transaction
+    @Benchmark
+    @OperationsPerInvocation(BULK_SIZE)
+    public List<Contact> saveContactsInOneTransaction() {
+        return transactionTemplate.execute(status -> {
+            User user = userRepository.getReferenceById(USER_ID);
+            List<Contact> saved = new ArrayList<>(BULK_SIZE);
+            for (int i = 0; i < BULK_SIZE; i++) {
+                Contact contact = new Contact();
+                contact.setUser(user);
+                contact.setName("Bulk " + i);
+                contact.setPhone(Long.toString(phones.incrementAndGet()));
+                saved.add(contactService.saveContact(contact));
+            }
+            return saved;
+        });
+    }
+
+    // Bulk edit: the dirty contacts are flushed as one batch of UPDATEs under the perf profile
+    @Benchmark
+    @OperationsPerInvocation(BULK_SIZE)
+    public int updateContactsInOneTransaction() {
+        return transactionTemplate.execute(status -> {
+            List<Contact> contacts = contactRepository.findByUserId(USER_ID, PageRequest.of(0, BULK_SIZE))
+                    .getContent();
+            long stamp = System.nanoTime();
+            contacts.forEach(contact -> contact.setAddress("Address " + stamp));
+            return contacts.size();
+        });
+    }
+
+    @Benchmark
+    public ActivityLogDTO activityLogInsert() {
+        return activityLogService.logActivity(USER_ID, "GET", "benchmark");
+    }
+}
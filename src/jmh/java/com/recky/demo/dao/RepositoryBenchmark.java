@@ -0,0 +1,190 @@
+package com.recky.demo.dao;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.recky.demo.DemoApplication;
+import com.recky.demo.dto.ActivityLogDTO;
+import com.recky.demo.dto.ContactImportResult;
+import com.recky.demo.dto.UserDTO;
+import com.recky.demo.model.ActivityLog;
+import com.recky.demo.model.User;
+import com.recky.demo.service.ActivityLogService;
+import com.recky.demo.service.ContactImportService;
+import com.recky.demo.service.DataExportService;
+import com.recky.demo.service.UserService;
+
+/**
+ * Repository and service paths against an in-memory H2 database (MySQL mode, schema from the Flyway migrations).
+ * The application context is started once per trial and seeded with {@code rows} contacts
+ * and activity logs for a single user. Stats queries are in ActivityStatsBenchmark.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RepositoryBenchmark {
+
+    private static final String USER_ID = "bench-user";
+
+    @Param({ "10000", "100000" })
+    private int rows;
+
+    private ConfigurableApplicationContext context;
+    private JdbcTemplate jdbcTemplate;
+    private UserRepository userRepository;
+    private ActivityLogRepository activityLogRepository;
+    private UserService userService;
+    private ActivityLogService activityLogService;
+    private ContactImportService contactImportService;
+    private DataExportService dataExportService;
+
+    private int middlePage;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Passed as command-line arguments so they override application.properties
+        context = new SpringApplicationBuilder(DemoApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:bench;MODE=MySQL;DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.driver-class-name=org.h2.Driver",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.devtools.restart.enabled=false",
+                        "--logging.level.root=WARN");
+
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        userRepository = context.getBean(UserRepository.class);
+        activityLogRepository = context.getBean(ActivityLogRepository.class);
+        userService = context.getBean(UserService.class);
+        activityLogService = context.getBean(ActivityLogService.class);
+        contactImportService = context.getBean(ContactImportService.class);
+        dataExportService = context.getBean(DataExportService.class);
+
+        jdbcTemplate.update("INSERT INTO users (id, username, email, role) VALUES (?, 'benchuser', 'bench@example.com', 'ADMIN')",
+                USER_ID);
+        jdbcTemplate.update("INSERT INTO contacts (user_id, name, phone, email, created_at, updated_at) "
+                + "SELECT ?, CONCAT('Contact ', X), CAST(X AS VARCHAR), CONCAT('c', X, '@example.com'), "
+                + "DATEADD('SECOND', X, TIMESTAMP '2024-01-01 00:00:00'), NOW() FROM SYSTEM_RANGE(1, ?)",
+                USER_ID, rows);
+        jdbcTemplate.update("INSERT INTO activity_logs (user_id, action, timestamp, details) "
+                + "SELECT ?, CASEWHEN(MOD(X, 4) = 0, 'GET', CASEWHEN(MOD(X, 4) = 1, 'CREATE', "
+                + "CASEWHEN(MOD(X, 4) = 2, 'UPDATE', 'DELETE'))), "
+                + "DATEADD('SECOND', X, TIMESTAMP '2024-01-01 00:00:00'), CONCAT('Seeded log ', X) "
+                + "FROM SYSTEM_RANGE(1, ?)", USER_ID, rows);
+
+        // A page from the middle of the user's logs; OFFSET versus seek paging is in PaginationBenchmark
+        middlePage = rows / 2 / 20;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    // Entity hydration then mapping, versus selecting straight into the DTO.
+    // Run with -prof gc to compare allocation per call.
+    @Benchmark
+    public Page<ActivityLogDTO> logsPageEntities() {
+        return activityLogRepository.findByUserId(USER_ID, PageRequest.of(middlePage, 20))
+                .map(log -> new ActivityLogDTO(log.getId(), log.getUser().getId(), log.getAction().name(),
+                        log.getTimestamp(), log.getDetails()));
+    }
+
+    @Benchmark
+    public Page<ActivityLogDTO> logsPageProjection() {
+        return activityLogService.getPaginatedLogsByUserId(USER_ID, PageRequest.of(middlePage, 20));
+    }
+
+    @Benchmark
+    public Page<UserDTO> usersPageProjection() {
+        return userService.getUserDTOsPage(0, 20);
+    }
+
+    @Benchmark
+    public Optional<User> userLookupUncached() {
+        return userService.getUserById(USER_ID);
+    }
+
+    @Benchmark
+    public Optional<User> userLookupCached() {
+        return userService.getCachedUserById(USER_ID);
+    }
+
+    // Activity log write through a user reference (one INSERT)
+    @Benchmark
+    public ActivityLogDTO logActivityWithReference() {
+        return activityLogService.logActivity(USER_ID, "GET", "benchmark");
+    }
+
+    // The previous write path: SELECT the user, then INSERT
+    @Benchmark
+    public ActivityLog logActivityWithLookup() {
+        User user = userRepository.findById(USER_ID).orElseThrow();
+        return activityLogRepository.save(new ActivityLog(user, ActivityLog.Action.GET, "benchmark"));
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public long exportContacts() throws IOException {
+        return dataExportService.exportContactsByUserId(USER_ID, DataExportService.Format.NDJSON,
+                OutputStream.nullOutputStream());
+    }
+
+    // Bulk import of a CSV body into a fresh user each invocation
+    @State(Scope.Thread)
+    public static class ImportState {
+        @Param({ "10000" })
+        private int importRows;
+
+        private byte[] csv;
+        private String userId;
+
+        @Setup(Level.Trial)
+        public void buildCsv() {
+            StringBuilder body = new StringBuilder("name,phone,email\n");
+            for (int i = 0; i < importRows; i++) {
+                body.append("Imported ").append(i).append(',').append(7000000000L + i).append(",i").append(i)
+                        .append("@example.com\n");
+            }
+            csv = body.toString().getBytes(StandardCharsets.UTF_8);
+        }
+
+        @Setup(Level.Invocation)
+        public void newUser(RepositoryBenchmark benchmark) {
+            userId = UUID.randomUUID().toString();
+            benchmark.jdbcTemplate.update("INSERT INTO users (id, username, email) VALUES (?, ?, ?)", userId,
+                    userId, userId + "@example.com");
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public ContactImportResult importContacts(ImportState state) throws IOException {
+        return contactImportService.importContacts(state.userId, ContactImportService.Format.CSV,
+                new ByteArrayInputStream(state.csv), OutputStream.nullOutputStream());
+    }
+}
@@ -0,0 +1,85 @@
+package com.recky.demo.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.recky.demo.dto.ContactDTO;
+import com.recky.demo.dto.ContactSuggestionDTO;
+
+// Search and typeahead latency within one user's partition; total contacts across users does not enter into it
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ContactSearchBenchmark {
+
+    private static final String[] FIRST = { "james", "maria", "robert", "linda", "michael", "jose", "david",
+            "sarah", "daniel", "priya", "wei", "fatima", "olga", "kenji", "amara", "lucas" };
+    private static final String[] LAST = { "smith", "garcia", "johnson", "nguyen", "brown", "patel", "kim",
+            "muller", "rossi", "silva", "cohen", "okafor", "ivanova", "tanaka", "dubois", "larsen" };
+    private static final String[] STREETS = { "main", "oak", "pine", "maple", "cedar", "elm", "lake", "hill" };
+
+    @Param({ "1000", "50000" })
+    private int contactsPerUser;
+
+    private ContactSearchPartition partition;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        List<ContactDTO> contacts = new ArrayList<>(contactsPerUser);
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < contactsPerUser; i++) {
+            String first = FIRST[random.nextInt(FIRST.length)];
+            String last = LAST[random.nextInt(LAST.length)] + (i % 97);
+            contacts.add(new ContactDTO((long) i, "bench-user", first + " " + last,
+                    String.valueOf(5550000000L + random.nextInt(9_999_999)), first + "." + last + "@example.com",
+                    (random.nextInt(9000) + 100) + " " + STREETS[random.nextInt(STREETS.length)] + " street",
+                    now, now));
+        }
+        partition = ContactSearchPartition.of(contacts);
+        // Build the typeahead snapshot outside the measurement
+        partition.suggest("a", 1);
+    }
+
+    @Benchmark
+    public List<ContactDTO> exactName() {
+        return partition.search("maria garcia12", 20);
+    }
+
+    @Benchmark
+    public List<ContactDTO> prefix() {
+        return partition.search("mi", 20);
+    }
+
+    @Benchmark
+    public List<ContactDTO> fuzzy() {
+        return partition.search("micheal", 20);
+    }
+
+    @Benchmark
+    public List<ContactDTO> phoneDigits() {
+        return partition.search("555-123", 20);
+    }
+
+    @Benchmark
+    public List<ContactSuggestionDTO> suggestName() {
+        return partition.suggest("mar", 10);
+    }
+
+    @Benchmark
+    public List<ContactSuggestionDTO> suggestPhone() {
+        return partition.suggest("5551", 10);
+    }
+}
@@ -0,0 +1,79 @@
+package com.recky.demo.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import com.recky.demo.dto.ActivityLogDTO;
+import com.recky.demo.dto.ContactDTO;
+import com.recky.demo.model.ActivityLog;
+import com.recky.demo.model.Contact;
+import com.recky.demo.model.User;
+
+// Entity -> DTO mapping used by the activity log and contact endpoints
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MappingBenchmark {
+
+    @Param({ "20", "1000" })
+    private int pageSize;
+
+    private ActivityLogService activityLogService;
+    private ContactService contactService;
+    private ActivityLog activityLog;
+    private Page<Contact> contactPage;
+
+    @Setup
+    public void setUp() {
+        activityLogService = new ActivityLogService(null, null);
+        contactService = new ContactService();
+
+        User user = new User();
+        user.setId("bench-user");
+        user.setUsername("benchuser");
+        user.setEmail("bench@example.com");
+
+        activityLog = new ActivityLog(user, ActivityLog.Action.GET, "Fetched contacts");
+        activityLog.setId(1L);
+
+        List<Contact> contacts = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            Contact contact = new Contact();
+            contact.setId((long) i);
+            contact.setUser(user);
+            contact.setName("Contact " + i);
+            contact.setPhone(String.valueOf(5550000000L + i));
+            contact.setEmail("contact" + i + "@example.com");
+            contact.setAddress(i + " Main St");
+            contact.setCreatedAt(LocalDateTime.now());
+            contact.setUpdatedAt(LocalDateTime.now());
+            contacts.add(contact);
+        }
+        contactPage = new PageImpl<>(contacts, PageRequest.of(0, pageSize), pageSize * 10L);
+    }
+
+    @Benchmark
+    public ActivityLogDTO activityLogMapToDTO() {
+        return activityLogService.mapToDTO(activityLog);
+    }
+
+    // The mapping step of ContactService.getAllContactsPaginated
+    @Benchmark
+    public Page<ContactDTO> contactPageToDTO() {
+        return contactPage.map(contactService::toContactDTO);
+    }
+}
@@ -3,6 +3,7 @@ package com.recky.demo;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 import io.github.cdimascio.dotenv.Dotenv;
 
@@ -11,6 +12,7 @@ import io.github.cdimascio.dotenv.Dotenv;
 
 @EnableJpaRepositories(basePackages = "com.recky.demo.dao") // Specifies the package for JPA repositories
 @SpringBootApplication(scanBasePackages = "com.recky.demo") // Specifies base package scanning
+@EnableScheduling // Runs the activity log rollup flush/reconcile and retention jobs
 public class DemoApplication {
 
 	public static void main(String[] args) {
@@ -1,11 +1,13 @@
 package com.recky.demo.api;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -13,24 +15,30 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.recky.demo.dto.ActivityLogDTO;
 import com.recky.demo.dto.ActivityLogRequest;
 import com.recky.demo.dto.ActivityLogStatsDTO;
 import com.recky.demo.service.ActivityLogService;
+import com.recky.demo.service.DataExportService;
 import com.recky.demo.util.ApiResponse;
+import com.recky.demo.util.CursorPage;
 
 @RestController
 @RequestMapping("/api/activity-logs")
 public class ActivityLogController {
 
     private final ActivityLogService activityLogService;
-    
+
+    private final DataExportService dataExportService;
 
     @Autowired
-    public ActivityLogController(ActivityLogService activityLogService) {
+    public ActivityLogController(ActivityLogService activityLogService, DataExportService dataExportService) {
         this.activityLogService = activityLogService;
+        this.dataExportService = dataExportService;
     }
 
     @PostMapping("/create")
@@ -143,6 +151,53 @@ public class ActivityLogController {
         }
     }
 
+    // Keyset (cursor) pagination, newest first, without the COUNT query of /{userId}/logs
+    @GetMapping("/{userId}/logs/seek")
+    public ResponseEntity<ApiResponse<List<ActivityLogDTO>>> getUserLogsSeek(
+            @PathVariable String userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size) {
+        if (size < 1 || size > CursorPage.MAX_SIZE) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new ApiResponse<>(HttpStatus.BAD_REQUEST.value(), "error",
+                            "size must be between 1 and " + CursorPage.MAX_SIZE, null));
+        }
+        try {
+            CursorPage<ActivityLogDTO> logs = activityLogService.getLogsByUserIdSeek(userId, cursor, size);
+
+            // Log activity for accessing user logs
+            activityLogService.logActivity(userId, "GET", "Accessed activity logs by cursor for user");
+
+            return ResponseEntity.ok(new ApiResponse<>(HttpStatus.OK.value(), "success",
+                    "Logs retrieved successfully", logs.content(), logs.nextCursor()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new ApiResponse<>(HttpStatus.BAD_REQUEST.value(), "error", "Invalid cursor", null));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new ApiResponse<>(HttpStatus.INTERNAL_SERVER_ERROR.value(), "error",
+                            "An error occurred while retrieving logs", null));
+        }
+    }
+
+    // Streams every log of a user as NDJSON (default) or CSV without loading them into memory
+    @GetMapping("/{userId}/logs/export")
+    public ResponseEntity<StreamingResponseBody> exportUserLogs(
+            @PathVariable String userId,
+            @RequestParam(defaultValue = "ndjson") String format) {
+        DataExportService.Format exportFormat;
+        try {
+            exportFormat = DataExportService.Format.fromParam(format);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+
+        activityLogService.logActivity(userId, "GET", "Exported activity logs for user ID: " + userId);
+        return ResponseEntity.ok()
+                .contentType(DataExportService.mediaType(exportFormat))
+                .body(out -> dataExportService.exportLogsByUserId(userId, exportFormat, out));
+    }
+
     @GetMapping("/get-all-logs/{userId}")
     public ResponseEntity<ApiResponse<Page<ActivityLogDTO>>> getAdminLogsPaginated(
             @PathVariable String userId, Pageable pageable) {
@@ -166,8 +221,10 @@ public class ActivityLogController {
 
     @GetMapping("/get-user-logs-stats/{userId}")
     public ResponseEntity<ApiResponse<ActivityLogStatsDTO>> getUserLogStats(
-            @PathVariable String userId) {
-        ActivityLogStatsDTO stats = activityLogService.getUserLogStats(userId);
+            @PathVariable String userId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        ActivityLogStatsDTO stats = activityLogService.getUserLogStats(userId, from, to);
         activityLogService.logActivity(userId, "GET", "Accessed user activity log statistics");
 
         return ResponseEntity.ok(new ApiResponse<>(
@@ -179,8 +236,10 @@ public class ActivityLogController {
 
     @GetMapping("/get-all-logs-stats/{userId}")
     public ResponseEntity<ApiResponse<ActivityLogStatsDTO>> getAllLogsStats(
-            @PathVariable String userId) {
-        ActivityLogStatsDTO stats = activityLogService.getAllLogsStats();
+            @PathVariable String userId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        ActivityLogStatsDTO stats = activityLogService.getAllLogsStats(from, to);
         activityLogService.logActivity(userId, "GET", "Accessed all activity log statistics");
 
         return ResponseEntity.ok(new ApiResponse<>(
@@ -11,6 +11,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -21,15 +22,24 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.recky.demo.dto.ContactDTO;
+import com.recky.demo.dto.ContactSuggestionDTO;
+import com.recky.demo.exception.DuplicatePhoneException;
+import com.recky.demo.exception.InvalidPhoneException;
 import com.recky.demo.exception.UserNotFoundException;
 import com.recky.demo.model.Contact;
 import com.recky.demo.model.User;
 import com.recky.demo.service.ActivityLogService;
+import com.recky.demo.service.ContactImportService;
 import com.recky.demo.service.ContactService;
+import com.recky.demo.service.DataExportService;
 import com.recky.demo.service.UserService;
 import com.recky.demo.util.ApiResponse;
+import com.recky.demo.util.CursorPage;
+
+import jakarta.servlet.http.HttpServletRequest;
 
 @RestController
 @RequestMapping("/api/contacts")
@@ -44,6 +54,12 @@ public class ContactController {
         @Autowired
         private UserService userService; // Inject ActivityLogService
 
+        @Autowired
+        private ContactImportService contactImportService;
+
+        @Autowired
+        private DataExportService dataExportService;
+
         private static final Logger logger = LoggerFactory.getLogger(ContactController.class);
 
         /**
@@ -99,24 +115,14 @@ public class ContactController {
                         @RequestParam String userId) {
                 try {
                         // Log the userId
-                        logger.info("Received userId: {}", userId);
-
-                        // Fetch the user from the database
-                        User user = userService.getUserByIdOrThrow(userId);
-
-                        if (contactService.existsByPhoneAndUserId(contact.getPhone(), userId)) {
-                                return ResponseEntity.status(HttpStatus.CONFLICT)
-                                                .body(new ApiResponse<>(HttpStatus.CONFLICT.value(), "error",
-                                                                "You already have a contact with this phone number",
-                                                                null));
-                        }
+                        logger.debug("Received userId: {}", userId);
 
-                        contact.setUser(user);
-
-                        logger.info("Contact after setUser: {}", contact);
-
-                        // Save the contact
-                        Contact savedContact = contactService.saveContact(contact);
+                        // Save the contact against a user reference instead of loading the user.
+                        // A duplicate phone is rejected by the unique index on the insert itself
+                        Contact savedContact = userService.writeWithUserReference(userId, user -> {
+                                contact.setUser(user);
+                                return contactService.saveContact(contact);
+                        });
 
                         activityLogService.logActivity(userId, "CREATE",
                                         "Created contact with phone: " + contact.getPhone());
@@ -125,6 +131,15 @@ public class ContactController {
                                         .body(new ApiResponse<>(HttpStatus.CREATED.value(), "success",
                                                         "Contact created successfully",
                                                         savedContact));
+                } catch (DuplicatePhoneException e) {
+                        return ResponseEntity.status(HttpStatus.CONFLICT)
+                                        .body(new ApiResponse<>(HttpStatus.CONFLICT.value(), "error",
+                                                        "You already have a contact with this phone number",
+                                                        null));
+                } catch (InvalidPhoneException e) {
+                        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                                        .body(new ApiResponse<>(HttpStatus.BAD_REQUEST.value(), "error", e.getMessage(),
+                                                        null));
                 } catch (UserNotFoundException e) {
                         return ResponseEntity.status(HttpStatus.NOT_FOUND)
                                         .body(new ApiResponse<>(HttpStatus.NOT_FOUND.value(), "error", "User not found",
@@ -136,6 +151,48 @@ public class ContactController {
                 }
         }
 
+        /**
+         * Bulk import contacts from a CSV or NDJSON body, one contact per line.
+         * Rejected rows are streamed back as NDJSON, followed by a summary line.
+         */
+        @PostMapping(value = "/import", consumes = { "text/csv", "application/x-ndjson" },
+                        produces = "application/x-ndjson")
+        public ResponseEntity<StreamingResponseBody> importContacts(@RequestParam String userId,
+                        HttpServletRequest request) {
+                try {
+                        userService.getCachedUserByIdOrThrow(userId);
+                } catch (UserNotFoundException e) {
+                        return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                                        .contentType(MediaType.APPLICATION_NDJSON)
+                                        .body(out -> out.write("{\"status\":\"error\",\"message\":\"User not found\"}\n"
+                                                        .getBytes()));
+                }
+
+                ContactImportService.Format format = ContactImportService.Format.fromContentType(request.getContentType());
+                StreamingResponseBody body = out -> contactImportService.importContacts(userId, format,
+                                request.getInputStream(), out);
+                return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+        }
+
+        /**
+         * Stream all contacts of a user as NDJSON (default) or CSV.
+         */
+        @GetMapping("/user/{userId}/export")
+        public ResponseEntity<StreamingResponseBody> exportContactsByUserId(@PathVariable String userId,
+                        @RequestParam(defaultValue = "ndjson") String format) {
+                DataExportService.Format exportFormat;
+                try {
+                        exportFormat = DataExportService.Format.fromParam(format);
+                } catch (IllegalArgumentException e) {
+                        return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+                }
+
+                activityLogService.logActivity(userId, "GET", "Exported contacts for user ID: " + userId);
+                return ResponseEntity.ok()
+                                .contentType(DataExportService.mediaType(exportFormat))
+                                .body(out -> dataExportService.exportContactsByUserId(userId, exportFormat, out));
+        }
+
         @PutMapping("/update/{userId}/{id}")
 
         public ResponseEntity<ApiResponse<Contact>> updateContact(
@@ -153,18 +210,6 @@ public class ContactController {
                                                                 "Contact not found", null));
                         }
 
-                        // Check if the phone number is already used by another contact
-                        Optional<Contact> conflictContactOpt = contactService.getContactByPhoneAndUserId(contact.getPhone(),
-                                        userId);
-                        if (conflictContactOpt.isPresent() && !conflictContactOpt.get().getId().equals(id)) {
-                                activityLogService.logActivity(userId, "UPDATE",
-                                                "Conflict: Phone number already exists for another contact");
-                                return ResponseEntity.status(HttpStatus.CONFLICT)
-                                                .body(new ApiResponse<>(HttpStatus.CONFLICT.value(), "error",
-                                                                "Another contact with this phone number already exists",
-                                                                null));
-                        }
-
                         // Merge existing and updated data
                         Contact existingContact = existingContactOpt.get();
                         if (contact.getName() != null)
@@ -176,7 +221,7 @@ public class ContactController {
                         if (contact.getAddress() != null)
                                 existingContact.setAddress(contact.getAddress());
 
-                        // Save the updated contact
+                        // Save the updated contact; the unique index rejects a phone used by another contact
                         Contact updatedContact = contactService.saveContact(existingContact);
 
                         // Log activity
@@ -185,6 +230,17 @@ public class ContactController {
                         return ResponseEntity.status(HttpStatus.OK)
                                         .body(new ApiResponse<>(HttpStatus.OK.value(), "success",
                                                         "Contact updated successfully", updatedContact));
+                } catch (DuplicatePhoneException e) {
+                        activityLogService.logActivity(userId, "UPDATE",
+                                        "Conflict: Phone number already exists for another contact");
+                        return ResponseEntity.status(HttpStatus.CONFLICT)
+                                        .body(new ApiResponse<>(HttpStatus.CONFLICT.value(), "error",
+                                                        "Another contact with this phone number already exists",
+                                                        null));
+                } catch (InvalidPhoneException e) {
+                        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                                        .body(new ApiResponse<>(HttpStatus.BAD_REQUEST.value(), "error", e.getMessage(),
+                                                        null));
                 } catch (Exception e) {
                         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                                         .body(new ApiResponse<>(HttpStatus.INTERNAL_SERVER_ERROR.value(), "error",
@@ -196,7 +252,7 @@ public class ContactController {
         public ResponseEntity<ApiResponse<Void>> deleteContact(@PathVariable String userId, @PathVariable Long id) {
                 try {
                         // Log the incoming request details
-                        logger.info("Received delete request for contact ID: {} by user ID: {}", id, userId);
+                        logger.debug("Received delete request for contact ID: {} by user ID: {}", id, userId);
 
                         // Perform the deletion
                         contactService.deleteContact(id, userId);
@@ -252,6 +308,85 @@ public class ContactController {
                                                 (int) contacts.getTotalElements()));
         }
 
+        /**
+         * Get contacts for a user with keyset (cursor) pagination, newest first.
+         * Pass the returned nextCursor back to fetch the following slice.
+         */
+        @GetMapping("/user/{userId}/seek")
+        public ResponseEntity<ApiResponse<List<ContactDTO>>> getContactsSeek(
+                        @PathVariable String userId,
+                        @RequestParam(required = false) String cursor,
+                        @RequestParam(defaultValue = "10") int size) {
+                if (size < 1 || size > CursorPage.MAX_SIZE) {
+                        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                                        .body(new ApiResponse<>(HttpStatus.BAD_REQUEST.value(), "error",
+                                                        "size must be between 1 and " + CursorPage.MAX_SIZE, null));
+                }
+                try {
+                        CursorPage<ContactDTO> contacts = contactService.getContactsByUserIdSeek(userId, cursor, size);
+
+                        // Log activity
+                        activityLogService.logActivity(userId, "GET", "Fetched contacts by cursor for userId: " + userId);
+
+                        return ResponseEntity
+                                        .ok(new ApiResponse<>(HttpStatus.OK.value(), "success",
+                                                        "Contacts fetched successfully", contacts.content(),
+                                                        contacts.nextCursor()));
+                } catch (IllegalArgumentException e) {
+                        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                                        .body(new ApiResponse<>(HttpStatus.BAD_REQUEST.value(), "error",
+                                                        "Invalid cursor", null));
+                }
+        }
+
+        /**
+         * Ranked full-text search over a user's contacts (name, email, phone digits, address).
+         * Matches prefixes and small typos, so it can be called as the user types.
+         */
+        @GetMapping("/user/{userId}/search")
+        public ResponseEntity<ApiResponse<List<ContactDTO>>> searchContacts(
+                        @PathVariable String userId,
+                        @RequestParam String q,
+                        @RequestParam(defaultValue = "20") int limit) {
+                try {
+                        List<ContactDTO> contacts = contactService.searchContacts(userId, q,
+                                        Math.max(1, Math.min(limit, 100)));
+
+                        // Not audited: a search per keystroke would mean an insert per keystroke
+                        return ResponseEntity
+                                        .ok(new ApiResponse<>(HttpStatus.OK.value(), "success",
+                                                        "Contacts fetched successfully", contacts));
+                } catch (IllegalStateException e) {
+                        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                                        .body(new ApiResponse<>(HttpStatus.SERVICE_UNAVAILABLE.value(), "error",
+                                                        "Contact search is disabled", null));
+                }
+        }
+
+        /**
+         * Typeahead for the contact picker: contacts whose name, a later word of the name,
+         * or phone digits start with the prefix.
+         */
+        @GetMapping("/user/{userId}/suggest")
+        public ResponseEntity<ApiResponse<List<ContactSuggestionDTO>>> suggestContacts(
+                        @PathVariable String userId,
+                        @RequestParam String prefix,
+                        @RequestParam(defaultValue = "10") int limit) {
+                try {
+                        List<ContactSuggestionDTO> suggestions = contactService.suggestContacts(userId, prefix,
+                                        Math.max(1, Math.min(limit, 50)));
+
+                        // Not audited, like search: it runs on every keystroke
+                        return ResponseEntity
+                                        .ok(new ApiResponse<>(HttpStatus.OK.value(), "success",
+                                                        "Suggestions fetched successfully", suggestions));
+                } catch (IllegalStateException e) {
+                        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                                        .body(new ApiResponse<>(HttpStatus.SERVICE_UNAVAILABLE.value(), "error",
+                                                        "Contact search is disabled", null));
+                }
+        }
+
         /**
          * Get a contact by user ID and contact ID, with activity logging.
          */
@@ -350,7 +485,7 @@ public class ContactController {
                 @PathVariable String userId, Pageable pageable) {
             try {
                 // Ensure the user has ADMIN role
-                User user = userService.getUserByIdOrThrow(userId);
+                User user = userService.getCachedUserByIdOrThrow(userId);
                 if (!"ADMIN".equalsIgnoreCase(user.getRole().toString())) {
                     return ResponseEntity.status(HttpStatus.FORBIDDEN)
                             .body(new ApiResponse<>(HttpStatus.FORBIDDEN.value(), "error",
@@ -377,4 +512,98 @@ public class ContactController {
             }
         }
 
+        /**
+         * Rebuild the contact search index from the contacts table (for admin users).
+         * Partitions are dropped now and reloaded on each user's next search.
+         */
+        @PostMapping("/get-all-contacts/{userId}/search/rebuild")
+        public ResponseEntity<ApiResponse<Void>> rebuildSearchIndex(@PathVariable String userId) {
+            try {
+                User user = userService.getCachedUserByIdOrThrow(userId);
+                if (!"ADMIN".equalsIgnoreCase(user.getRole().toString())) {
+                    return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                            .body(new ApiResponse<>(HttpStatus.FORBIDDEN.value(), "error",
+                                    "Access denied", null));
+                }
+
+                contactService.rebuildSearchIndex();
+                activityLogService.logActivity(userId, "UPDATE", "Rebuilt contact search index");
+
+                return ResponseEntity.ok(new ApiResponse<>(HttpStatus.OK.value(), "success",
+                        "Contact search index rebuild started", null));
+            } catch (Exception e) {
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                        .body(new ApiResponse<>(HttpStatus.INTERNAL_SERVER_ERROR.value(), "error",
+                                "An error occurred while rebuilding the search index", null));
+            }
+        }
+
+        /**
+         * Stream every contact (for admin users) as NDJSON (default) or CSV.
+         */
+        @GetMapping("/get-all-contacts/{userId}/export")
+        public ResponseEntity<StreamingResponseBody> exportAllContacts(@PathVariable String userId,
+                @RequestParam(defaultValue = "ndjson") String format) {
+            DataExportService.Format exportFormat;
+            try {
+                exportFormat = DataExportService.Format.fromParam(format);
+                // Ensure the user has ADMIN role
+                User user = userService.getCachedUserByIdOrThrow(userId);
+                if (!"ADMIN".equalsIgnoreCase(user.getRole().toString())) {
+                    return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+                }
+            } catch (UserNotFoundException e) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+            }
+
+            activityLogService.logActivity(userId, "GET", "Exported all contacts for admin user ID: " + userId);
+            return ResponseEntity.ok()
+                    .contentType(DataExportService.mediaType(exportFormat))
+                    .body(out -> dataExportService.exportAllContacts(exportFormat, out));
+        }
+
+        /**
+         * Get all contacts for admin users with keyset (cursor) pagination.
+         */
+        @GetMapping("/get-all-contacts/{userId}/seek")
+        public ResponseEntity<ApiResponse<List<ContactDTO>>> getAdminContactsSeek(
+                @PathVariable String userId,
+                @RequestParam(required = false) String cursor,
+                @RequestParam(defaultValue = "10") int size) {
+            if (size < 1 || size > CursorPage.MAX_SIZE) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                        .body(new ApiResponse<>(HttpStatus.BAD_REQUEST.value(), "error",
+                                "size must be between 1 and " + CursorPage.MAX_SIZE, null));
+            }
+            try {
+                // Ensure the user has ADMIN role
+                User user = userService.getCachedUserByIdOrThrow(userId);
+                if (!"ADMIN".equalsIgnoreCase(user.getRole().toString())) {
+                    return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                            .body(new ApiResponse<>(HttpStatus.FORBIDDEN.value(), "error",
+                                    "Access denied", null));
+                }
+
+                CursorPage<ContactDTO> contacts = contactService.getAllContactsSeek(cursor, size);
+
+                // Log the activity
+                activityLogService.logActivity(userId, "GET",
+                        "Fetched all contacts by cursor for admin user ID: " + userId);
+
+                return ResponseEntity
+                        .ok(new ApiResponse<>(HttpStatus.OK.value(), "success",
+                                "Contacts fetched successfully", contacts.content(), contacts.nextCursor()));
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                        .body(new ApiResponse<>(HttpStatus.BAD_REQUEST.value(), "error",
+                                "Invalid cursor", null));
+            } catch (Exception e) {
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                        .body(new ApiResponse<>(HttpStatus.INTERNAL_SERVER_ERROR.value(), "error",
+                                "An error occurred while fetching admin contacts", null));
+            }
+        }
+
 }
\ No newline at end of file
@@ -1,8 +1,9 @@
 package com.recky.demo.api;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.function.Function;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
@@ -23,10 +24,12 @@ import org.springframework.web.bind.annotation.RestController;
 import com.recky.demo.dto.UserDTO;
 import com.recky.demo.dto.UserStatsDTO;
 import com.recky.demo.exception.UserNotFoundException;
+import com.recky.demo.jfr.DtoMappingEvent;
 import com.recky.demo.model.User;
 import com.recky.demo.service.ActivityLogService;
 import com.recky.demo.service.UserService;
 import com.recky.demo.util.ApiResponse;
+import com.recky.demo.util.CursorPage;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -161,11 +164,9 @@ public class UserController {
     @GetMapping("/get-usersByRole/{role}")
     public ResponseEntity<ApiResponse<List<UserDTO>>> getUsersByRole(@PathVariable String role) {
         try {
-            List<UserDTO> users = userService.getAllUsers()
-                    .stream()
-                    .filter(user -> user.getRole().toString().equalsIgnoreCase(role))
-                    .map(this::toUserDTO)
-                    .collect(Collectors.toList());
+            Optional<User.Role> roleEnum = parseRole(role);
+            List<UserDTO> users = roleEnum.isEmpty() ? List.of()
+                    : userService.getUserDTOsByRole(roleEnum.get());
 
             if (users.isEmpty()) {
                 ApiResponse<List<UserDTO>> response = new ApiResponse<>(HttpStatus.NOT_FOUND.value(), "error",
@@ -187,10 +188,7 @@ public class UserController {
     @GetMapping("/get-users")
     public ResponseEntity<ApiResponse<List<UserDTO>>> getAllUsers() {
         try {
-            List<UserDTO> users = userService.getAllUsers()
-                    .stream()
-                    .map(this::toUserDTO)
-                    .collect(Collectors.toList());
+            List<UserDTO> users = userService.getAllUserDTOs();
 
             if (users.isEmpty()) {
                 ApiResponse<List<UserDTO>> response = new ApiResponse<>(HttpStatus.NOT_FOUND.value(), "error",
@@ -235,11 +233,8 @@ public class UserController {
             @RequestParam(value = "size", defaultValue = "10") int size) {
 
         try {
-            Page<User> userPage = userService.getUsersPage(page, size);
-            List<UserDTO> users = userPage.getContent()
-                    .stream()
-                    .map(this::toUserDTO)
-                    .collect(Collectors.toList());
+            Page<UserDTO> userPage = userService.getUserDTOsPage(page, size);
+            List<UserDTO> users = userPage.getContent();
 
             ApiResponse<List<UserDTO>> response = new ApiResponse<>(
                     HttpStatus.OK.value(),
@@ -257,6 +252,39 @@ public class UserController {
         }
     }
 
+    // Get all users with keyset (cursor) pagination, newest first
+    @GetMapping("/get-seekUsers")
+    public ResponseEntity<ApiResponse<List<UserDTO>>> getUsersSeek(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", defaultValue = "10") int size) {
+
+        if (size < 1 || size > CursorPage.MAX_SIZE) {
+            ApiResponse<List<UserDTO>> response = new ApiResponse<>(HttpStatus.BAD_REQUEST.value(), "error",
+                    "size must be between 1 and " + CursorPage.MAX_SIZE, null);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+        }
+        try {
+            CursorPage<User> userSlice = userService.getUsersSeek(cursor, size);
+            CursorPage<UserDTO> users = userSlice.map(withContactCounts(userSlice.content()));
+
+            ApiResponse<List<UserDTO>> response = new ApiResponse<>(
+                    HttpStatus.OK.value(),
+                    "success",
+                    "Users retrieved successfully",
+                    users.content(),
+                    users.nextCursor());
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            ApiResponse<List<UserDTO>> response = new ApiResponse<>(HttpStatus.BAD_REQUEST.value(), "error",
+                    "Invalid cursor", null);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+        } catch (Exception e) {
+            ApiResponse<List<UserDTO>> response = new ApiResponse<>(HttpStatus.INTERNAL_SERVER_ERROR.value(), "error",
+                    "An error occurred while retrieving users", null);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+
     // Get users by role with pagination
     @GetMapping("/get-pageUsersByRole/{role}")
     public ResponseEntity<ApiResponse<List<UserDTO>>> getUsersByRole(
@@ -265,12 +293,15 @@ public class UserController {
             @RequestParam(value = "size", defaultValue = "10") int size) {
 
         try {
-            Page<User> userPage = userService.getUsersPage(page, size);
-            List<UserDTO> users = userPage.getContent()
-                    .stream()
-                    .filter(user -> user.getRole().toString().equalsIgnoreCase(role))
-                    .map(this::toUserDTO)
-                    .collect(Collectors.toList());
+            Optional<User.Role> roleEnum = parseRole(role);
+            if (roleEnum.isEmpty()) {
+                // Unknown role: an empty page rather than an error, as before
+                return ResponseEntity.ok(new ApiResponse<>(HttpStatus.OK.value(), "success",
+                        "Users retrieved successfully", List.of(), 0, page, 0));
+            }
+
+            Page<UserDTO> userPage = userService.getUserDTOsByRolePage(roleEnum.get(), page, size);
+            List<UserDTO> users = userPage.getContent();
 
             ApiResponse<List<UserDTO>> response = new ApiResponse<>(
                     HttpStatus.OK.value(),
@@ -288,9 +319,30 @@ public class UserController {
         }
     }
 
-    // Helper method to map User to UserDTO
+    // Helper method to parse a role name case-insensitively
+    private Optional<User.Role> parseRole(String role) {
+        try {
+            return Optional.of(User.Role.valueOf(role.toUpperCase()));
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+
+    // Helper method to map a single User to UserDTO
     private UserDTO toUserDTO(User user) {
-        return new UserDTO(
+        return toUserDTO(user, userService.getContactCounts(List.of(user)).getOrDefault(user.getId(), 0L));
+    }
+
+    // Map a batch of users; contact counts come from one GROUP BY query, not from user.getContacts()
+    private Function<User, UserDTO> withContactCounts(List<User> users) {
+        Map<String, Long> contactCounts = userService.getContactCounts(users);
+        return user -> toUserDTO(user, contactCounts.getOrDefault(user.getId(), 0L));
+    }
+
+    // Package-private for the JMH benchmarks
+    UserDTO toUserDTO(User user, long contactCount) {
+        DtoMappingEvent mappingEvent = DtoMappingEvent.started();
+        UserDTO dto = new UserDTO(
                 user.getId(),
                 user.getUsername(),
                 user.getEmail(),
@@ -302,7 +354,9 @@ public class UserController {
                 user.getUpdatedAt(),
                 user.getDeactivatedAt(),
                 user.getDeactivatedBy(),
-                user.getContacts() != null ? user.getContacts().size() : 0);
+                (int) contactCount);
+        mappingEvent.finish(UserDTO.class);
+        return dto;
     }
 
     // Some Extra after testing:
@@ -315,14 +369,12 @@ public class UserController {
             // Fetch users with pagination
             // Page<User> userPage = userService.getUsersByUserIdPaginated(userId,
             // pageable);
-            Page<User> userPage = userService.getAllPageUsers(pageable);
+            // Projected straight into DTOs, contact counts included
+            Page<UserDTO> userDTOPage = userService.getUserDTOsPage(pageable);
 
             // Log activity
             activityLogService.logActivity(userId, "GET", "Fetched paginated users for userId: " + userId);
 
-            // Map to DTO
-            Page<UserDTO> userDTOPage = userPage.map(this::toUserDTO);
-
             // Build API response
             ApiResponse<Page<UserDTO>> response = new ApiResponse<>(
                     HttpStatus.OK.value(),
@@ -355,13 +407,13 @@ public class UserController {
             User existingUser = userService.getUserById(id)
                     .orElseThrow(() -> new RuntimeException("User not found"));
 
-            User existingPerformerUser = userService.getUserById(performedId)
+            User existingPerformerUser = userService.getCachedUserById(performedId)
                     .orElseThrow(() -> new RuntimeException("User not found"));
 
             // Update only allowed fields
             if (user.getEmail() != null) {
                 // Check if the email is already used by another user
-                Optional<User> conflictingUser = userService.getUserByEmail(user.getEmail());
+                Optional<User> conflictingUser = userService.getCachedUserByEmail(user.getEmail());
                 if (conflictingUser.isPresent() && !conflictingUser.get().getId().equals(id)) {
                     activityLogService.logActivity(performedId, "UPDATE",
                             "Conflict on " + id + "update : Email " + user.getEmail()
@@ -375,7 +427,7 @@ public class UserController {
 
             if (user.getUsername() != null) {
                 // Check if the username is already used by another user
-                Optional<User> conflictingUser = userService.getUserByUsername(user.getUsername());
+                Optional<User> conflictingUser = userService.getCachedUserByUsername(user.getUsername());
                 if (conflictingUser.isPresent() && !conflictingUser.get().getId().equals(id)) {
                     activityLogService.logActivity(performedId, "UPDATE",
                             "Conflict on " + id + "Username update " + user.getUsername()
@@ -425,7 +477,7 @@ public class UserController {
             @PathVariable String performedId) {
         try {
             // Check if the user performing the action exists
-            User performingUser = userService.getUserById(performedId)
+            User performingUser = userService.getCachedUserById(performedId)
                     .orElseThrow(() -> new RuntimeException("Performing user not found"));
 
             // Check if the user to be deleted exists
@@ -472,13 +524,13 @@ public class UserController {
     public ResponseEntity<ApiResponse<UserStatsDTO>> getUserStatistics(@PathVariable String userId) { 
         try { 
             // Log the incoming request details 
-            logger.info("Fetching user statistics for userId: {}", userId); 
+            logger.debug("Fetching user statistics for userId: {}", userId); 
      
             // Fetch the user 
-            User user = userService.getUserByIdOrThrow(userId); 
+            User user = userService.getCachedUserByIdOrThrow(userId); 
      
             // Log the user's role 
-            logger.info("User role: {}", user.getRole()); 
+            logger.debug("User role: {}", user.getRole()); 
      
             // Check admin role using the enum 
             if (user.getRole() == null || user.getRole() != User.Role.ADMIN) { 
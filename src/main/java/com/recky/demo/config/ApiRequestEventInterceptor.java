@@ -0,0 +1,53 @@
+package com.recky.demo.config;
+
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import com.recky.demo.jfr.ApiRequestEvent;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+// Brackets each API request in a JFR ApiRequestEvent so a recording can be summarized by endpoint
+public class ApiRequestEventInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String EVENT_ATTRIBUTE = ApiRequestEventInterceptor.class.getName() + ".event";
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        ApiRequestEvent event = new ApiRequestEvent();
+        if (event.isEnabled()) {
+            event.begin();
+            request.setAttribute(EVENT_ATTRIBUTE, event);
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+            Exception ex) {
+        commit(request, response);
+    }
+
+    // Streaming responses: the event covers the handler, not the body written afterwards
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+            Object handler) {
+        commit(request, response);
+    }
+
+    private static void commit(HttpServletRequest request, HttpServletResponse response) {
+        if (!(request.getAttribute(EVENT_ATTRIBUTE) instanceof ApiRequestEvent event)) {
+            return;
+        }
+        request.removeAttribute(EVENT_ATTRIBUTE);
+        event.end();
+        if (event.shouldCommit()) {
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            event.method = request.getMethod();
+            event.endpoint = pattern != null ? pattern.toString() : request.getRequestURI();
+            event.status = response.getStatus();
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.recky.demo.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Connection pool sizing.
+ *
+ * Pool metrics (hikaricp.connections.active/idle/pending/max and the acquire and usage
+ * timers) are bound by Spring Boot's Actuator auto-configuration. This class adds sizing
+ * from measured load. When datasource.pool.sizing.peak-throughput is set (see the prod
+ * profile), the pool size is derived with Little's law from that throughput and the mean
+ * connection usage time, and takes effect before the pool opens its first connection.
+ *
+ * In virtual-thread mode (spring.threads.virtual.enabled=true) request concurrency no longer
+ * bounds the number of threads asking for a connection, so the pool gets a fixed size set by
+ * what MySQL can serve and a short connection timeout, so overload surfaces as errors rather
+ * than long queues. Platform-thread mode keeps Hikari's defaults (10 connections, 30s timeout).
+ */
+@Configuration
+public class ConnectionPoolConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConnectionPoolConfig.class);
+
+    @Bean
+    @ConditionalOnProperty(name = "datasource.pool.sizing.peak-throughput")
+    public static BeanPostProcessor hikariPoolSizer(Environment environment) {
+        double peakThroughput = environment.getRequiredProperty("datasource.pool.sizing.peak-throughput",
+                Double.class);
+        double usageMs = environment.getRequiredProperty("datasource.pool.sizing.usage-ms", Double.class);
+        double headroom = environment.getProperty("datasource.pool.sizing.headroom", Double.class, 0.5);
+        int minSize = environment.getProperty("datasource.pool.min-size", Integer.class, 5);
+        int maxSize = environment.getProperty("datasource.pool.max-size", Integer.class, 50);
+
+        return new BeanPostProcessor() {
+            // Before initialization: after spring.datasource.hikari.* is bound, before any proxy wraps it
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource dataSource) {
+                    int size = poolSize(peakThroughput, usageMs, headroom, minSize, maxSize);
+                    dataSource.setMaximumPoolSize(size);
+                    dataSource.setMinimumIdle(size);
+                    logger.info("Sized connection pool to {} ({} req/s x {}ms usage, {}% headroom)", size,
+                            peakThroughput, usageMs, Math.round(headroom * 100));
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+    public static BeanPostProcessor virtualThreadPoolSettings(Environment environment) {
+        int fixedSize = environment.getProperty("datasource.pool.virtual-threads.size", Integer.class, 20);
+        long connectionTimeoutMs = environment.getProperty("datasource.pool.virtual-threads.connection-timeout-ms",
+                Long.class, 3000L);
+        int minSize = environment.getProperty("datasource.pool.min-size", Integer.class, 5);
+        int maxSize = environment.getProperty("datasource.pool.max-size", Integer.class, 50);
+        // Measured sizing, when configured, decides the size; this then only shortens the timeout
+        boolean measured = environment.containsProperty("datasource.pool.sizing.peak-throughput");
+
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource dataSource) {
+                    dataSource.setConnectionTimeout(connectionTimeoutMs);
+                    if (!measured) {
+                        int size = Math.max(minSize, Math.min(maxSize, fixedSize));
+                        dataSource.setMaximumPoolSize(size);
+                        dataSource.setMinimumIdle(size);
+                        logger.info("Fixed connection pool at {} for virtual threads ({}ms connection timeout)", size,
+                                connectionTimeoutMs);
+                    }
+                }
+                return bean;
+            }
+        };
+    }
+
+    // Connections busy at peak = throughput x usage time (Little's law), plus headroom for bursts
+    static int poolSize(double peakThroughput, double usageMs, double headroom, int minSize, int maxSize) {
+        int needed = (int) Math.ceil(peakThroughput * (usageMs / 1000.0) * (1 + headroom));
+        return Math.max(minSize, Math.min(maxSize, needed));
+    }
+}
@@ -0,0 +1,42 @@
+package com.recky.demo.config;
+
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+
+/**
+ * Wraps the DataSource in a single datasource-proxy carrying every QueryExecutionListener bean
+ * (slow query capture, request timing, the query plan check). Without any listener beans the
+ * DataSource is left as is.
+ */
+@Configuration
+public class DataSourceProxyConfig {
+
+    @Bean
+    public static BeanPostProcessor queryListenerDataSourcePostProcessor(
+            ObjectProvider<QueryExecutionListener> queryListeners) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource)) {
+                    return bean;
+                }
+                List<QueryExecutionListener> listeners = queryListeners.orderedStream().toList();
+                if (listeners.isEmpty()) {
+                    return bean;
+                }
+                ProxyDataSourceBuilder builder = ProxyDataSourceBuilder.create(dataSource).name(beanName);
+                listeners.forEach(builder::listener);
+                return builder.build();
+            }
+        };
+    }
+}
@@ -0,0 +1,105 @@
+package com.recky.demo.config;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.ToDoubleFunction;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.QueryStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Publishes Hibernate's statistics as Micrometer meters (db.hibernate-statistics.enabled=true,
+ * which also turns on hibernate.generate_statistics).
+ *
+ * Session-wide counters cover entity loads, fetches and writes, statements prepared and the
+ * second-level cache. Per-query meters are tagged with the HQL/SQL string. Hibernate only knows a
+ * query once it has run, so new ones are picked up on a fixed interval, up to a cap that keeps
+ * the number of time series bounded.
+ */
+@Component
+@ConditionalOnProperty(name = "db.hibernate-statistics.enabled", havingValue = "true")
+public class HibernateStatisticsMetrics implements MeterBinder {
+
+    private final Statistics statistics;
+    private final int maxQueries;
+    private final Set<String> registeredQueries = ConcurrentHashMap.newKeySet();
+
+    private volatile MeterRegistry registry;
+
+    public HibernateStatisticsMetrics(EntityManagerFactory entityManagerFactory,
+            @Value("${db.hibernate-statistics.max-queries:200}") int maxQueries) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        this.maxQueries = maxQueries;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        this.registry = registry;
+
+        counter(registry, "hibernate.entities.loaded", "Entities loaded", Statistics::getEntityLoadCount);
+        counter(registry, "hibernate.entities.fetched", "Entities fetched by a separate select",
+                Statistics::getEntityFetchCount);
+        counter(registry, "hibernate.entities.inserted", "Entities inserted", Statistics::getEntityInsertCount);
+        counter(registry, "hibernate.entities.updated", "Entities updated", Statistics::getEntityUpdateCount);
+        counter(registry, "hibernate.entities.deleted", "Entities deleted", Statistics::getEntityDeleteCount);
+        counter(registry, "hibernate.collections.fetched", "Collections fetched by a separate select",
+                Statistics::getCollectionFetchCount);
+        counter(registry, "hibernate.statements.prepared", "JDBC statements prepared",
+                Statistics::getPrepareStatementCount);
+        counter(registry, "hibernate.queries.executed", "Queries executed", Statistics::getQueryExecutionCount);
+
+        FunctionCounter.builder("hibernate.second.level.cache.requests", statistics,
+                Statistics::getSecondLevelCacheHitCount).tag("result", "hit").register(registry);
+        FunctionCounter.builder("hibernate.second.level.cache.requests", statistics,
+                Statistics::getSecondLevelCacheMissCount).tag("result", "miss").register(registry);
+        counter(registry, "hibernate.second.level.cache.puts", "Entries put in the second-level cache",
+                Statistics::getSecondLevelCachePutCount);
+
+        refreshQueryMeters();
+    }
+
+    // Register meters for queries that have run since the last refresh
+    @Scheduled(fixedDelayString = "${db.hibernate-statistics.refresh-interval-ms:60000}")
+    public void refreshQueryMeters() {
+        MeterRegistry registry = this.registry;
+        if (registry == null) {
+            return;
+        }
+        for (String query : statistics.getQueries()) {
+            if (registeredQueries.size() >= maxQueries) {
+                return;
+            }
+            if (registeredQueries.add(query)) {
+                bindQuery(registry, query);
+            }
+        }
+    }
+
+    private void bindQuery(MeterRegistry registry, String query) {
+        QueryStatistics queryStatistics = statistics.getQueryStatistics(query);
+        FunctionCounter.builder("hibernate.query.executions", queryStatistics, QueryStatistics::getExecutionCount)
+                .tag("query", query).register(registry);
+        FunctionCounter.builder("hibernate.query.rows", queryStatistics, QueryStatistics::getExecutionRowCount)
+                .tag("query", query).register(registry);
+        Gauge.builder("hibernate.query.execution.mean", queryStatistics, QueryStatistics::getExecutionAvgTimeAsDouble)
+                .tag("query", query).baseUnit("milliseconds").register(registry);
+        Gauge.builder("hibernate.query.execution.max", queryStatistics, QueryStatistics::getExecutionMaxTime)
+                .tag("query", query).baseUnit("milliseconds").register(registry);
+    }
+
+    private void counter(MeterRegistry registry, String name, String description,
+            ToDoubleFunction<Statistics> count) {
+        FunctionCounter.builder(name, statistics, count).description(description).register(registry);
+    }
+}
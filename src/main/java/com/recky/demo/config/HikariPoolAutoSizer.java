@@ -0,0 +1,103 @@
+package com.recky.demo.config;
+
+import java.sql.SQLException;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Adaptive pool sizing.
+ *
+ * Samples the pool on a fixed interval. While threads are waiting for a connection, the pool
+ * grows by one step, up to datasource.pool.max-size. After several samples in a row with
+ * nobody waiting and at least a step's worth of idle connections, it shrinks by one step,
+ * down to datasource.pool.min-size. Hikari applies a new maximum at runtime, and retires
+ * surplus idle connections through its housekeeper.
+ */
+@Component
+@ConditionalOnProperty(name = "datasource.pool.adaptive.enabled", havingValue = "true")
+public class HikariPoolAutoSizer {
+
+    private static final Logger logger = LoggerFactory.getLogger(HikariPoolAutoSizer.class);
+
+    private final HikariDataSource dataSource;
+    private final int minSize;
+    private final int maxSize;
+    private final int step;
+    private final int pendingThreshold;
+    private final int shrinkAfterSamples;
+
+    private final Counter grown;
+    private final Counter shrunk;
+
+    private int quietSamples;
+
+    public HikariPoolAutoSizer(DataSource dataSource,
+            MeterRegistry meterRegistry,
+            @Value("${datasource.pool.min-size:5}") int minSize,
+            @Value("${datasource.pool.max-size:50}") int maxSize,
+            @Value("${datasource.pool.adaptive.step:5}") int step,
+            @Value("${datasource.pool.adaptive.pending-threshold:0}") int pendingThreshold,
+            @Value("${datasource.pool.adaptive.shrink-after-samples:12}") int shrinkAfterSamples) throws SQLException {
+        this.dataSource = dataSource.unwrap(HikariDataSource.class);
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.step = step;
+        this.pendingThreshold = pendingThreshold;
+        this.shrinkAfterSamples = shrinkAfterSamples;
+        this.grown = Counter.builder("hikaricp.pool.resized").tag("direction", "grow")
+                .description("Adaptive pool size changes").register(meterRegistry);
+        this.shrunk = Counter.builder("hikaricp.pool.resized").tag("direction", "shrink")
+                .description("Adaptive pool size changes").register(meterRegistry);
+
+        // Idle connections above the minimum must be retirable for the pool to shrink
+        this.dataSource.setMinimumIdle(Math.min(minSize, this.dataSource.getMaximumPoolSize()));
+    }
+
+    @Scheduled(fixedDelayString = "${datasource.pool.adaptive.interval-ms:5000}")
+    public void adjust() {
+        HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+        if (pool == null) {
+            // Pool not started yet
+            return;
+        }
+
+        int current = dataSource.getMaximumPoolSize();
+        int pending = pool.getThreadsAwaitingConnection();
+        int idle = pool.getIdleConnections();
+
+        if (pending > pendingThreshold && current < maxSize) {
+            resize(current, Math.min(maxSize, current + step), pending, idle);
+            grown.increment();
+            quietSamples = 0;
+        } else if (pending == 0 && idle >= step && current > minSize) {
+            if (++quietSamples >= shrinkAfterSamples) {
+                resize(current, Math.max(minSize, current - step), pending, idle);
+                shrunk.increment();
+                quietSamples = 0;
+            }
+        } else {
+            quietSamples = 0;
+        }
+    }
+
+    private void resize(int from, int to, int pending, int idle) {
+        if (dataSource.getMinimumIdle() > to) {
+            dataSource.setMinimumIdle(to);
+        }
+        dataSource.setMaximumPoolSize(to);
+        logger.info("Resized connection pool {} -> {} (pending={}, idle={})", from, to, pending, idle);
+    }
+}
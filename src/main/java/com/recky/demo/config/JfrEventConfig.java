@@ -0,0 +1,110 @@
+package com.recky.demo.config;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.stream.BaseStream;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.recky.demo.jfr.RepositoryCallEvent;
+
+/**
+ * Custom JFR events (jfr.events.enabled=true).
+ *
+ * Registers the ApiRequestEvent interceptor and adds a RepositoryCallEvent advice to every
+ * Spring Data repository. The audit, DTO mapping and serialization events are emitted where
+ * that work happens. Every event checks isEnabled() first, so with no recording running the
+ * cost is a field read per call.
+ *
+ * Record with the settings in src/main/resources/jfr/recky.jfc and summarize with
+ * com.recky.demo.jfr.RecordingSummary.
+ */
+@Configuration
+@ConditionalOnProperty(name = "jfr.events.enabled", havingValue = "true", matchIfMissing = true)
+public class JfrEventConfig implements WebMvcConfigurer {
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new ApiRequestEventInterceptor()).addPathPatterns("/api/**");
+    }
+
+    // Before initialization: the repository proxy is created in the factory bean's afterPropertiesSet
+    @Bean
+    public static BeanPostProcessor repositoryCallEventPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                            (proxyFactory, repositoryInformation) -> proxyFactory.addAdvice(
+                                    new RepositoryCallEventInterceptor(
+                                            repositoryInformation.getRepositoryInterface().getSimpleName()))));
+                }
+                return bean;
+            }
+        };
+    }
+
+    private static class RepositoryCallEventInterceptor implements MethodInterceptor {
+
+        private final String repository;
+
+        RepositoryCallEventInterceptor(String repository) {
+            this.repository = repository;
+        }
+
+        @Override
+        public Object invoke(MethodInvocation invocation) throws Throwable {
+            RepositoryCallEvent event = new RepositoryCallEvent();
+            if (!event.isEnabled()) {
+                return invocation.proceed();
+            }
+
+            event.begin();
+            Object result = null;
+            boolean success = false;
+            try {
+                result = invocation.proceed();
+                success = true;
+                return result;
+            } finally {
+                event.end();
+                if (event.shouldCommit()) {
+                    event.repository = repository;
+                    event.method = invocation.getMethod().getName();
+                    event.rows = success ? rows(result) : 0;
+                    event.success = success;
+                    event.commit();
+                }
+            }
+        }
+
+        private static int rows(Object result) {
+            if (result == null) {
+                return 0;
+            }
+            if (result instanceof Collection<?> collection) {
+                return collection.size();
+            }
+            if (result instanceof Slice<?> slice) {
+                return slice.getNumberOfElements();
+            }
+            if (result instanceof Optional<?> optional) {
+                return optional.isPresent() ? 1 : 0;
+            }
+            if (result instanceof Iterable<?> || result instanceof BaseStream<?, ?>) {
+                return -1;
+            }
+            return 1;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.recky.demo.config;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Marker;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+
+/**
+ * Per-logger log sampling, configured in logback-spring.xml with one element per rule:
+ *
+ * <pre>
+ * &lt;sample&gt;com.recky.demo.api=INFO:10&lt;/sample&gt;
+ * </pre>
+ *
+ * keeps one in ten events at INFO or below from loggers under com.recky.demo.api. The most
+ * specific matching prefix wins. Events above the rule's level (e.g. WARN, ERROR) are never
+ * sampled away.
+ */
+public class LogSamplingTurboFilter extends TurboFilter {
+
+    private record Rule(String prefix, Level maxLevel, int keepOneIn, AtomicLong counter) {
+    }
+
+    private final List<Rule> rules = new ArrayList<>();
+
+    public void addSample(String spec) {
+        String[] loggerAndRate = spec.trim().split("=", 2);
+        String[] levelAndRate = loggerAndRate.length == 2 ? loggerAndRate[1].split(":", 2) : new String[0];
+        if (levelAndRate.length != 2) {
+            addError("Invalid sample '" + spec + "', expected <logger>=<level>:<n>");
+            return;
+        }
+
+        int keepOneIn;
+        try {
+            keepOneIn = Integer.parseInt(levelAndRate[1].trim());
+        } catch (NumberFormatException e) {
+            addError("Invalid sample rate in '" + spec + "', expected a whole number");
+            return;
+        }
+        if (keepOneIn < 1) {
+            addError("Invalid sample rate in '" + spec + "', must be at least 1");
+            return;
+        }
+        rules.add(new Rule(loggerAndRate[0].trim(), Level.toLevel(levelAndRate[0].trim(), Level.INFO), keepOneIn,
+                new AtomicLong()));
+        rules.sort(Comparator.comparingInt((Rule rule) -> rule.prefix().length()).reversed());
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params,
+            Throwable t) {
+        // isDebugEnabled()-style checks arrive without a format and must not use up the sample
+        if (!isStarted() || level == null || format == null) {
+            return FilterReply.NEUTRAL;
+        }
+        // Turbo filters run before the logger's level check, so events it would drop anyway are left to it
+        if (!level.isGreaterOrEqual(logger.getEffectiveLevel())) {
+            return FilterReply.NEUTRAL;
+        }
+
+        String name = logger.getName();
+        for (Rule rule : rules) {
+            if (name.startsWith(rule.prefix())) {
+                if (level.toInt() > rule.maxLevel().toInt()) {
+                    return FilterReply.NEUTRAL;
+                }
+                return rule.counter().getAndIncrement() % rule.keepOneIn() == 0 ? FilterReply.NEUTRAL
+                        : FilterReply.DENY;
+            }
+        }
+        return FilterReply.NEUTRAL;
+    }
+}
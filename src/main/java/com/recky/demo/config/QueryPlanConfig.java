@@ -0,0 +1,45 @@
+package com.recky.demo.config;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.recky.demo.dao.ActivityLogRepository;
+import com.recky.demo.dao.ContactRepository;
+import com.recky.demo.dao.UserRepository;
+
+/**
+ * Startup query plan check (db.query-plans.verify-on-startup=true).
+ *
+ * The {@link QueryPlanVerifier} EXPLAINs every query of the contact, activity log and user
+ * repositories once the application is ready and warns about full table scans.
+ */
+@Configuration
+@ConditionalOnProperty(name = "db.query-plans.verify-on-startup", havingValue = "true")
+public class QueryPlanConfig {
+
+    // Static: the DataSource post-processor looks this up while the DataSource is being created
+    @Bean
+    public static StatementCapture queryPlanStatementCapture() {
+        return new StatementCapture();
+    }
+
+    @Bean
+    public QueryPlanVerifier queryPlanVerifier(ContactRepository contactRepository,
+            ActivityLogRepository activityLogRepository,
+            UserRepository userRepository,
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            StatementCapture queryPlanStatementCapture) {
+        Map<Class<?>, Object> repositories = new LinkedHashMap<>();
+        repositories.put(ContactRepository.class, contactRepository);
+        repositories.put(ActivityLogRepository.class, activityLogRepository);
+        repositories.put(UserRepository.class, userRepository);
+        return new QueryPlanVerifier(repositories, jdbcTemplate, transactionManager, queryPlanStatementCapture);
+    }
+}
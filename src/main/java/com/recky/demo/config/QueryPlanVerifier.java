@@ -0,0 +1,308 @@
+package com.recky.demo.config;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.recky.demo.config.StatementCapture.CapturedStatement;
+import com.recky.demo.dao.ExpectedFullScan;
+
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+
+/**
+ * Checks the query plan of every repository query against the configured database at startup.
+ *
+ * Each read method declared on the repositories is called with placeholder arguments in a
+ * read-only transaction that is rolled back. The first statement Hibernate sends is captured by
+ * the DataSource proxy and stopped before it is executed, so no repository query actually runs;
+ * only its EXPLAIN does, with the same bind parameters. Paged queries are checked through their
+ * content query, whose WHERE clause Spring Data reuses for the COUNT query. A table the
+ * plan reads in full is logged as a warning, unless the method is marked
+ * {@link ExpectedFullScan}. On MySQL a scan only counts when the optimizer had no usable
+ * index: a scan chosen over an existing index is about the current data (small tables), not
+ * about a missing migration. MySQL and H2 plans are understood; other databases are skipped.
+ */
+public class QueryPlanVerifier {
+
+    public record QueryPlan(String method, String sql, List<String> scannedTables, boolean expected) {
+
+        public boolean unexpectedScan() {
+            return !scannedTables.isEmpty() && !expected;
+        }
+    }
+
+    public record Report(String database, List<QueryPlan> plans, List<String> skippedMethods) {
+
+        public List<QueryPlan> unexpectedScans() {
+            return plans.stream().filter(QueryPlan::unexpectedScan).toList();
+        }
+    }
+
+    private static final Logger logger = LoggerFactory.getLogger(QueryPlanVerifier.class);
+
+    private static final Pattern WRITE_METHOD = Pattern.compile("^(delete|remove|save|update|insert)");
+    // H2 names the access path of each table in a comment: /* PUBLIC.CONTACTS.tableScan */
+    private static final Pattern H2_TABLE_SCAN = Pattern.compile("/\\*\\s*(?:\\w+\\.)?(\\w+)\\.tableScan");
+
+    private static final String PROBE_STRING = "query-plan-probe";
+    private static final Pageable PROBE_PAGE = PageRequest.of(0, 20);
+
+    private final Map<Class<?>, Object> repositories;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final StatementCapture capture;
+
+    public QueryPlanVerifier(Map<Class<?>, Object> repositories, JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager, StatementCapture capture) {
+        this.repositories = repositories;
+        this.jdbcTemplate = jdbcTemplate;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.capture = capture;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void verifyOnStartup() {
+        Report report;
+        try {
+            report = verify();
+        } catch (DataAccessException e) {
+            logger.warn("Query plan check skipped: {}", e.getMostSpecificCause().getMessage());
+            return;
+        }
+        if (report == null) {
+            return;
+        }
+
+        for (QueryPlan plan : report.plans()) {
+            if (plan.unexpectedScan()) {
+                logger.warn("Full scan of {} in {}: {}", plan.scannedTables(), plan.method(), plan.sql());
+            } else if (!plan.scannedTables().isEmpty()) {
+                logger.debug("Expected full scan of {} in {}", plan.scannedTables(), plan.method());
+            }
+        }
+        for (String skipped : report.skippedMethods()) {
+            logger.debug("Query plan not checked for {}", skipped);
+        }
+        logger.info("Checked {} statements from repository queries against {} plans: {} unexpected full scans, "
+                + "{} methods not checked", report.plans().size(), report.database(), report.unexpectedScans().size(),
+                report.skippedMethods().size());
+    }
+
+    // Null when the database's plans are not understood
+    public Report verify() {
+        String database = jdbcTemplate.execute(
+                (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+        boolean h2 = "H2".equalsIgnoreCase(database);
+        if (!h2 && !isMySql(database)) {
+            logger.info("Query plan check does not support {}", database);
+            return null;
+        }
+
+        List<QueryPlan> plans = new ArrayList<>();
+        List<String> skipped = new ArrayList<>();
+        for (Map.Entry<Class<?>, Object> repository : repositories.entrySet()) {
+            for (Method method : queryMethods(repository.getKey())) {
+                String name = describe(repository.getKey(), method);
+                Object[] arguments = probeArguments(method);
+                if (arguments == null) {
+                    skipped.add(name + ": unsupported parameter types");
+                    continue;
+                }
+                List<CapturedStatement> statements;
+                try {
+                    statements = capture(repository.getValue(), method, arguments);
+                } catch (RuntimeException e) {
+                    skipped.add(name + ": " + e.getMessage());
+                    continue;
+                }
+                boolean expected = method.isAnnotationPresent(ExpectedFullScan.class);
+                for (CapturedStatement statement : statements) {
+                    plans.add(new QueryPlan(name, statement.sql(), explain(statement, h2), expected));
+                }
+            }
+        }
+        return new Report(database, plans, skipped);
+    }
+
+    private List<CapturedStatement> capture(Object repository, Method method, Object[] arguments) {
+        return readOnlyTransaction.execute(status -> {
+            status.setRollbackOnly();
+            capture.begin();
+            try {
+                Object result = method.invoke(repository, arguments);
+                // Streams send their query on the first read
+                if (result instanceof Stream<?> stream) {
+                    try (stream) {
+                        stream.findFirst();
+                    }
+                }
+                // A method that sent no statement returns normally
+                return capture.end();
+            } catch (Exception e) {
+                Throwable failure = e instanceof InvocationTargetException ? e.getCause() : e;
+                // The expected way out: the capture stopped the method's first statement
+                if (StatementCapture.isCaptured(failure)) {
+                    return capture.end();
+                }
+                throw new IllegalStateException("failed with placeholder arguments: " + failure.getMessage(), failure);
+            } finally {
+                // Ends the capture on failure too, so it never leaks into later work on this thread
+                capture.end();
+            }
+        });
+    }
+
+    private List<String> explain(CapturedStatement statement, boolean h2) {
+        return jdbcTemplate.execute((ConnectionCallback<List<String>>) connection -> {
+            try (PreparedStatement explain = connection.prepareStatement("EXPLAIN " + statement.sql())) {
+                for (ParameterSetOperation parameter : statement.parameters()) {
+                    try {
+                        parameter.getMethod().invoke(explain, parameter.getArgs());
+                    } catch (ReflectiveOperationException e) {
+                        throw new SQLException("Could not bind " + parameter.getMethod().getName(), e);
+                    }
+                }
+                try (ResultSet plan = explain.executeQuery()) {
+                    return h2 ? h2TableScans(plan) : mySqlTableScans(plan);
+                }
+            }
+        });
+    }
+
+    // Tables MySQL reads in full (type ALL) without any index it could have used
+    private static List<String> mySqlTableScans(ResultSet plan) throws SQLException {
+        Set<String> tables = new LinkedHashSet<>();
+        while (plan.next()) {
+            String table = plan.getString("table");
+            if ("ALL".equals(plan.getString("type")) && plan.getString("possible_keys") == null && table != null
+                    && !table.startsWith("<")) {
+                tables.add(table);
+            }
+        }
+        return List.copyOf(tables);
+    }
+
+    static List<String> h2TableScans(ResultSet plan) throws SQLException {
+        Set<String> tables = new LinkedHashSet<>();
+        while (plan.next()) {
+            Matcher matcher = H2_TABLE_SCAN.matcher(plan.getString(1));
+            while (matcher.find()) {
+                tables.add(matcher.group(1).toLowerCase(Locale.ROOT));
+            }
+        }
+        return List.copyOf(tables);
+    }
+
+    // Read queries declared on the repository itself, in a stable order
+    private static List<Method> queryMethods(Class<?> repositoryType) {
+        return Arrays.stream(repositoryType.getDeclaredMethods())
+                .filter(method -> !method.isDefault() && !method.isSynthetic()
+                        && !Modifier.isStatic(method.getModifiers()))
+                .filter(method -> !method.isAnnotationPresent(Modifying.class)
+                        && !WRITE_METHOD.matcher(method.getName()).find())
+                .sorted(Comparator.comparing(Method::getName).thenComparing(Method::getParameterCount))
+                .toList();
+    }
+
+    private static String describe(Class<?> repositoryType, Method method) {
+        return repositoryType.getSimpleName() + "." + method.getName() + Arrays.stream(method.getParameterTypes())
+                .map(Class::getSimpleName)
+                .collect(Collectors.joining(", ", "(", ")"));
+    }
+
+    // Null when some parameter has no placeholder value
+    private static Object[] probeArguments(Method method) {
+        Class<?>[] types = method.getParameterTypes();
+        Type[] genericTypes = method.getGenericParameterTypes();
+        Object[] arguments = new Object[types.length];
+        for (int i = 0; i < types.length; i++) {
+            arguments[i] = probe(types[i], genericTypes[i]);
+            if (arguments[i] == null) {
+                return null;
+            }
+        }
+        return arguments;
+    }
+
+    private static Object probe(Class<?> type, Type genericType) {
+        if (type == String.class) {
+            return PROBE_STRING;
+        }
+        if (type == Long.class || type == long.class) {
+            return 0L;
+        }
+        if (type == Integer.class || type == int.class) {
+            return 0;
+        }
+        if (type == Boolean.class || type == boolean.class) {
+            return false;
+        }
+        if (type == LocalDateTime.class) {
+            return LocalDateTime.now();
+        }
+        if (type == LocalDate.class) {
+            return LocalDate.now();
+        }
+        if (type == Instant.class) {
+            return Instant.now();
+        }
+        if (type.isEnum()) {
+            return type.getEnumConstants()[0];
+        }
+        if (type == Pageable.class) {
+            return PROBE_PAGE;
+        }
+        if (type == Sort.class) {
+            return Sort.unsorted();
+        }
+        if (Collection.class.isAssignableFrom(type) && genericType instanceof ParameterizedType parameterized
+                && parameterized.getActualTypeArguments()[0] instanceof Class<?> elementType) {
+            Object element = probe(elementType, elementType);
+            if (element == null) {
+                return null;
+            }
+            return type.isAssignableFrom(List.class) ? List.of(element) : Set.of(element);
+        }
+        return null;
+    }
+
+    private static boolean isMySql(String database) {
+        return "MySQL".equalsIgnoreCase(database) || "MariaDB".equalsIgnoreCase(database);
+    }
+}
@@ -0,0 +1,112 @@
+package com.recky.demo.config;
+
+import java.io.IOException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Caps the number of requests being processed at once.
+ *
+ * With platform threads Tomcat's thread pool did this implicitly. With virtual threads every
+ * accepted connection gets its own thread, so without a cap thousands of requests would pile
+ * up waiting for a Hikari connection and time out there. Requests that cannot be admitted
+ * within the admission timeout get a 503 instead.
+ *
+ * A request that goes async (StreamingResponseBody, e.g. contact import and exports) keeps its
+ * permit until the async processing completes, not just until the handler method returns.
+ */
+public class RequestConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private final Semaphore permits;
+    private final long admissionTimeoutMs;
+    private final Counter rejected;
+
+    public RequestConcurrencyLimitFilter(int maxConcurrentRequests, long admissionTimeoutMs,
+            MeterRegistry meterRegistry) {
+        this.permits = new Semaphore(maxConcurrentRequests, true);
+        this.admissionTimeoutMs = admissionTimeoutMs;
+        this.rejected = Counter.builder("http.server.requests.rejected")
+                .description("Requests turned away because the concurrency limit was reached")
+                .register(meterRegistry);
+        Gauge.builder("http.server.requests.in_flight", permits,
+                p -> maxConcurrentRequests - p.availablePermits())
+                .description("Requests currently admitted by the concurrency limit")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        boolean admitted;
+        try {
+            admitted = permits.tryAcquire(admissionTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            admitted = false;
+        }
+
+        if (!admitted) {
+            rejected.increment();
+            response.setHeader("Retry-After", "1");
+            response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value(), "Server is at capacity, retry shortly");
+            return;
+        }
+
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new ReleaseOnCompletion());
+            } else {
+                permits.release();
+            }
+        }
+    }
+
+    // Releases the permit once when the async request completes, fails or times out
+    private final class ReleaseOnCompletion implements AsyncListener {
+
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release();
+        }
+
+        // Listeners are dropped when a dispatch starts async again, so carry over to the new cycle
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+
+        private void release() {
+            if (released.compareAndSet(false, true)) {
+                permits.release();
+            }
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.recky.demo.config;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.recky.demo.jfr.ResponseSerializationEvent;
+import com.recky.demo.util.ApiResponse;
+import com.recky.demo.util.RequestTiming;
+import com.recky.demo.util.RequestTiming.Phase;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+/**
+ * Per-request timing breakdown for the API (request-timing.enabled=true).
+ *
+ * Database time comes from a listener on the DataSource proxy and serialization time from the
+ * Jackson converter. The converter also emits the JFR ResponseSerializationEvent with the body
+ * size. The audit insert times itself in ActivityLogService. See
+ * {@link RequestTimingInterceptor} for the metrics and {@link ServerTimingAdvice} for the
+ * optional response header.
+ */
+@Configuration
+@ConditionalOnProperty(name = "request-timing.enabled", havingValue = "true", matchIfMissing = true)
+public class RequestTimingConfig implements WebMvcConfigurer {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new RequestTimingInterceptor(meterRegistry)).addPathPatterns("/api/**");
+    }
+
+    // Swap Boot's Jackson converter for one that times its writes, keeping the configured ObjectMapper
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        for (int i = 0; i < converters.size(); i++) {
+            if (converters.get(i) instanceof MappingJackson2HttpMessageConverter jackson) {
+                converters.set(i, new TimedJackson2HttpMessageConverter(jackson.getObjectMapper()));
+            }
+        }
+    }
+
+    // Static: the DataSource post-processor looks this up while the DataSource is being created
+    @Bean
+    public static QueryExecutionListener requestTimingQueryListener() {
+        return new QueryExecutionListener() {
+            @Override
+            public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+                RequestTiming.enter(Phase.DB);
+            }
+
+            @Override
+            public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+                RequestTiming.exit(Phase.DB);
+            }
+        };
+    }
+
+    static class TimedJackson2HttpMessageConverter extends MappingJackson2HttpMessageConverter {
+
+        TimedJackson2HttpMessageConverter(ObjectMapper objectMapper) {
+            super(objectMapper);
+        }
+
+        @Override
+        protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage)
+                throws IOException, HttpMessageNotWritableException {
+            boolean timed = RequestTiming.enter(Phase.SERIALIZATION);
+            try {
+                ResponseSerializationEvent event = new ResponseSerializationEvent();
+                if (!event.isEnabled()) {
+                    super.writeInternal(object, type, outputMessage);
+                    return;
+                }
+
+                event.begin();
+                CountingOutputMessage counted = new CountingOutputMessage(outputMessage);
+                super.writeInternal(object, type, counted);
+                event.end();
+                if (event.shouldCommit()) {
+                    event.bodyType = bodyType(object);
+                    event.bytes = counted.bytes;
+                    event.commit();
+                }
+            } finally {
+                if (timed) {
+                    RequestTiming.exit(Phase.SERIALIZATION);
+                }
+            }
+        }
+
+        // "ApiResponse<PageImpl>" rather than just "ApiResponse"
+        private static String bodyType(Object body) {
+            if (body instanceof ApiResponse<?> response && response.getData() != null) {
+                return "ApiResponse<" + response.getData().getClass().getSimpleName() + ">";
+            }
+            return body.getClass().getSimpleName();
+        }
+    }
+
+    private static class CountingOutputMessage implements HttpOutputMessage {
+
+        private final HttpOutputMessage delegate;
+        private long bytes;
+
+        CountingOutputMessage(HttpOutputMessage delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public OutputStream getBody() throws IOException {
+            OutputStream body = delegate.getBody();
+            return new FilterOutputStream(body) {
+                @Override
+                public void write(int b) throws IOException {
+                    body.write(b);
+                    bytes++;
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) throws IOException {
+                    body.write(b, off, len);
+                    bytes += len;
+                }
+            };
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return delegate.getHeaders();
+        }
+    }
+}
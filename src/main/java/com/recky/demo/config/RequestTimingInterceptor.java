@@ -0,0 +1,70 @@
+package com.recky.demo.config;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import com.recky.demo.util.RequestTiming;
+import com.recky.demo.util.RequestTiming.Phase;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Records each request's time split into db, audit, serialization and app (the rest) as
+ * http.server.requests.breakdown, tagged with the route template. The request total per route
+ * is already in Spring Boot's http.server.requests.
+ *
+ * Streaming responses (StreamingResponseBody) finish on another thread after the handler
+ * returns, so they are not broken down.
+ */
+public class RequestTimingInterceptor implements AsyncHandlerInterceptor {
+
+    private final MeterRegistry meterRegistry;
+
+    public RequestTimingInterceptor(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        RequestTiming.start();
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+            Exception ex) {
+        RequestTiming timing = RequestTiming.current();
+        RequestTiming.clear();
+        if (timing == null) {
+            return;
+        }
+
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+        record(request, uri, "db", timing.phaseNanos(Phase.DB));
+        record(request, uri, "audit", timing.phaseNanos(Phase.AUDIT));
+        record(request, uri, "serialization", timing.phaseNanos(Phase.SERIALIZATION));
+        record(request, uri, "app", timing.otherNanos());
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+            Object handler) {
+        RequestTiming.clear();
+    }
+
+    private void record(HttpServletRequest request, String uri, String phase, long nanos) {
+        Timer.builder("http.server.requests.breakdown")
+                .description("Request time by where it was spent")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .tag("phase", phase)
+                .register(meterRegistry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+}
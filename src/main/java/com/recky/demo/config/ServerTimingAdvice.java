@@ -0,0 +1,50 @@
+package com.recky.demo.config;
+
+import java.util.Locale;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import com.recky.demo.util.RequestTiming;
+import com.recky.demo.util.RequestTiming.Phase;
+
+/**
+ * Adds a Server-Timing header (request-timing.server-timing-header=true) so browser dev tools
+ * show the db / audit / app split of each API response.
+ *
+ * Headers have to go out before the body, so serialization time is not in the header; it is
+ * in the http.server.requests.breakdown metric.
+ */
+@ControllerAdvice
+@ConditionalOnProperty(name = "request-timing.server-timing-header", havingValue = "true")
+public class ServerTimingAdvice implements ResponseBodyAdvice<Object> {
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+            Class<? extends HttpMessageConverter<?>> selectedConverterType, ServerHttpRequest request,
+            ServerHttpResponse response) {
+        RequestTiming timing = RequestTiming.current();
+        if (timing != null) {
+            response.getHeaders().add("Server-Timing", String.join(", ",
+                    metric("db", timing.phaseNanos(Phase.DB)),
+                    metric("audit", timing.phaseNanos(Phase.AUDIT)),
+                    metric("app", timing.otherNanos())));
+        }
+        return body;
+    }
+
+    private static String metric(String name, long nanos) {
+        return String.format(Locale.ROOT, "%s;dur=%.1f", name, nanos / 1_000_000.0);
+    }
+}
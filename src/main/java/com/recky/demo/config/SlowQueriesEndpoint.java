@@ -0,0 +1,32 @@
+package com.recky.demo.config;
+
+import java.util.List;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+// GET /actuator/slowqueries lists captured statements, newest first; DELETE clears them
+@Endpoint(id = "slowqueries")
+public class SlowQueriesEndpoint {
+
+    public record SlowQueries(long thresholdMs, long capturedCount, List<SlowQueryLog.SlowQuery> queries) {
+    }
+
+    private final SlowQueryLog slowQueryLog;
+
+    public SlowQueriesEndpoint(SlowQueryLog slowQueryLog) {
+        this.slowQueryLog = slowQueryLog;
+    }
+
+    @ReadOperation
+    public SlowQueries slowQueries() {
+        return new SlowQueries(slowQueryLog.getThresholdMs(), slowQueryLog.getCapturedCount(),
+                slowQueryLog.snapshot());
+    }
+
+    @DeleteOperation
+    public void clear() {
+        slowQueryLog.clear();
+    }
+}
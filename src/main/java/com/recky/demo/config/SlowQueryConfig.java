@@ -0,0 +1,30 @@
+package com.recky.demo.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+/**
+ * Slow query capture (db.slow-queries.enabled=true).
+ *
+ * The {@link SlowQueryLog} listens on the DataSource proxy (see {@link DataSourceProxyConfig})
+ * and keeps every statement slower than db.slow-queries.threshold-ms in a fixed-size buffer,
+ * served by the slowqueries Actuator endpoint.
+ */
+@Configuration
+@ConditionalOnProperty(name = "db.slow-queries.enabled", havingValue = "true")
+public class SlowQueryConfig {
+
+    // Static: the DataSource post-processor looks this up while the DataSource is being created
+    @Bean
+    public static SlowQueryLog slowQueryLog(Environment environment) {
+        return new SlowQueryLog(environment.getProperty("db.slow-queries.threshold-ms", Long.class, 200L),
+                environment.getProperty("db.slow-queries.capacity", Integer.class, 100));
+    }
+
+    @Bean
+    public SlowQueriesEndpoint slowQueriesEndpoint(SlowQueryLog slowQueryLog) {
+        return new SlowQueriesEndpoint(slowQueryLog);
+    }
+}
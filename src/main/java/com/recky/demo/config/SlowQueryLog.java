@@ -0,0 +1,131 @@
+package com.recky.demo.config;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+
+/**
+ * Ring buffer of the most recent statements slower than a threshold, fed by the DataSource
+ * proxy and read through /actuator/slowqueries.
+ *
+ * Bind parameters are kept as shapes (type, and length for strings) rather than values, so
+ * the buffer never holds user data. Each entry records the controller method that issued
+ * the statement, when it ran on a request thread.
+ */
+public class SlowQueryLog implements QueryExecutionListener {
+
+    public record SlowQuery(Instant at, long durationMs, String sql, List<String> parameterShapes,
+            int batchSize, boolean success, String handler) {
+    }
+
+    private final long thresholdMs;
+    private final AtomicReferenceArray<SlowQuery> entries;
+    private final AtomicLong captured = new AtomicLong();
+
+    public SlowQueryLog(long thresholdMs, int capacity) {
+        this.thresholdMs = thresholdMs;
+        this.entries = new AtomicReferenceArray<>(capacity);
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        if (execInfo.getElapsedTime() < thresholdMs) {
+            return;
+        }
+
+        String handler = currentHandler();
+        for (QueryInfo queryInfo : queryInfoList) {
+            List<List<ParameterSetOperation>> parameters = queryInfo.getParametersList();
+            SlowQuery entry = new SlowQuery(Instant.now(), execInfo.getElapsedTime(), queryInfo.getQuery(),
+                    parameters.isEmpty() ? List.of() : shapes(parameters.get(0)),
+                    execInfo.isBatch() ? execInfo.getBatchSize() : 0, execInfo.isSuccess(), handler);
+            long slot = captured.getAndIncrement();
+            entries.set((int) (slot % entries.length()), entry);
+        }
+    }
+
+    public long getThresholdMs() {
+        return thresholdMs;
+    }
+
+    public long getCapturedCount() {
+        return captured.get();
+    }
+
+    // Newest first
+    public List<SlowQuery> snapshot() {
+        List<SlowQuery> snapshot = new ArrayList<>(entries.length());
+        for (int i = 0; i < entries.length(); i++) {
+            SlowQuery entry = entries.get(i);
+            if (entry != null) {
+                snapshot.add(entry);
+            }
+        }
+        snapshot.sort(Comparator.comparing(SlowQuery::at).reversed());
+        return snapshot;
+    }
+
+    public void clear() {
+        for (int i = 0; i < entries.length(); i++) {
+            entries.set(i, null);
+        }
+    }
+
+    private static List<String> shapes(List<ParameterSetOperation> operations) {
+        return operations.stream()
+                .sorted(Comparator.comparingInt(SlowQueryLog::parameterIndex))
+                .map(SlowQueryLog::shape)
+                .toList();
+    }
+
+    private static int parameterIndex(ParameterSetOperation operation) {
+        Object[] args = operation.getArgs();
+        return args.length > 0 && args[0] instanceof Integer index ? index : Integer.MAX_VALUE;
+    }
+
+    private static String shape(ParameterSetOperation operation) {
+        if (ParameterSetOperation.isSetNullParameterOperation(operation)) {
+            return "NULL";
+        }
+        Object[] args = operation.getArgs();
+        Object value = args.length > 1 ? args[1] : null;
+        if (value == null) {
+            return "NULL";
+        }
+        if (value instanceof CharSequence text) {
+            return "String(" + text.length() + ")";
+        }
+        return value.getClass().getSimpleName();
+    }
+
+    // Controller method handling the current request, if this statement runs on a request thread
+    private static String currentHandler() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return Thread.currentThread().getName();
+        }
+        Object handler = attributes.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE,
+                RequestAttributes.SCOPE_REQUEST);
+        if (handler instanceof HandlerMethod method) {
+            return method.getBeanType().getSimpleName() + "." + method.getMethod().getName();
+        }
+        return Thread.currentThread().getName();
+    }
+}
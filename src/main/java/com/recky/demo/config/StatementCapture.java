@@ -0,0 +1,68 @@
+package com.recky.demo.config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+
+/**
+ * Captures the statement the current thread is about to run between {@link #begin()} and
+ * {@link #end()}, with its bind parameters, and stops it before it reaches the database by
+ * throwing {@link StatementCaptured} from beforeQuery. Other threads, and this one outside a
+ * capture, only pay for a ThreadLocal lookup.
+ */
+public class StatementCapture implements QueryExecutionListener {
+
+    public record CapturedStatement(String sql, List<ParameterSetOperation> parameters) {
+    }
+
+    // Thrown in place of executing a captured statement
+    public static final class StatementCaptured extends RuntimeException {
+
+        private StatementCaptured() {
+            super("Statement captured without being executed", null, false, false);
+        }
+    }
+
+    private final ThreadLocal<List<CapturedStatement>> captured = new ThreadLocal<>();
+
+    public void begin() {
+        captured.set(new ArrayList<>());
+    }
+
+    public List<CapturedStatement> end() {
+        List<CapturedStatement> statements = captured.get();
+        captured.remove();
+        return statements == null ? List.of() : statements;
+    }
+
+    public static boolean isCaptured(Throwable failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof StatementCaptured) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        List<CapturedStatement> statements = captured.get();
+        if (statements == null) {
+            return;
+        }
+        for (QueryInfo queryInfo : queryInfoList) {
+            List<List<ParameterSetOperation>> parameters = queryInfo.getParametersList();
+            statements.add(new CapturedStatement(queryInfo.getQuery(),
+                    parameters.isEmpty() ? List.of() : List.copyOf(parameters.get(0))));
+        }
+        throw new StatementCaptured();
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+}
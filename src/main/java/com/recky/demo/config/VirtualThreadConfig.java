@@ -0,0 +1,45 @@
+package com.recky.demo.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Extra wiring for the virtual-thread execution mode (spring.threads.virtual.enabled=true).
+ *
+ * Spring Boot itself moves Tomcat's request handling, the application task executor (@Async)
+ * and the scheduler (@Scheduled) onto virtual threads. This adds the two things it leaves
+ * out. The first is a cap on concurrent requests matched to the Hikari pool, so a burst of
+ * virtual threads does not just queue on connections. The second is pinning diagnostics.
+ */
+@Configuration
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadConfig {
+
+    @Bean
+    public FilterRegistrationBean<RequestConcurrencyLimitFilter> requestConcurrencyLimitFilter(
+            @Value("${virtual-threads.max-concurrent-requests:200}") int maxConcurrentRequests,
+            @Value("${virtual-threads.admission-timeout-ms:1000}") long admissionTimeoutMs,
+            MeterRegistry meterRegistry) {
+        FilterRegistrationBean<RequestConcurrencyLimitFilter> registration = new FilterRegistrationBean<>(
+                new RequestConcurrencyLimitFilter(maxConcurrentRequests, admissionTimeoutMs, meterRegistry));
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "virtual-threads.pinning-diagnostics.enabled", havingValue = "true", matchIfMissing = true)
+    public VirtualThreadPinningMonitor virtualThreadPinningMonitor(
+            @Value("${virtual-threads.pinning-diagnostics.threshold-ms:20}") long thresholdMs,
+            MeterRegistry meterRegistry) {
+        return new VirtualThreadPinningMonitor(Duration.ofMillis(thresholdMs), meterRegistry);
+    }
+}
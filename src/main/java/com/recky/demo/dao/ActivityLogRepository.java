@@ -1,33 +1,128 @@
 package com.recky.demo.dao;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 // import org.springframework.data.domain.PageRequest;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
+import com.recky.demo.dto.ActivityLogActionCount;
+import com.recky.demo.dto.ActivityLogDTO;
+import com.recky.demo.dto.ActivityLogHourlyCount;
 import com.recky.demo.model.ActivityLog;
 import com.recky.demo.model.ActivityLog.Action; // Import the enum
 
+import jakarta.persistence.QueryHint;
+
 @Repository
 public interface ActivityLogRepository extends JpaRepository<ActivityLog, Long> {
-    // Update userId parameter to String
-    List<ActivityLog> findByUserId(String userId); 
+
+    // Selects straight into the DTO; userId is read from the user_id column, so users is never joined
+    String ACTIVITY_LOG_DTO_SELECT = "SELECT new com.recky.demo.dto.ActivityLogDTO("
+            + "a.id, a.user.id, a.action, a.timestamp, a.details) FROM ActivityLog a ";
+    // Update userId parameter to String. Owner filters compare a.user.id, which reads the user_id
+    // column; the derived-query form left-joins users first, which keeps the planner off user_id's index.
+    @Query("SELECT a FROM ActivityLog a WHERE a.user.id = :userId")
+    List<ActivityLog> findByUserId(@Param("userId") String userId);
 
     // List<ActivityLog> findByPerformedBy(Long performedBy);
 
     // List<ActivityLog> findByUserIdAndAction(Long userId, String action);
     // Update userId parameter to String
-    List<ActivityLog> findByUserIdAndAction(String userId, Action action); // Changed Long to String
+    @Query("SELECT a FROM ActivityLog a WHERE a.user.id = :userId AND a.action = :action")
+    List<ActivityLog> findByUserIdAndAction(@Param("userId") String userId, @Param("action") Action action); // Changed Long to String
 
     // some new and untested
     // Page<ActivityLog> findByUserId(String userId, PageRequest pageRequest);
 
-    Page<ActivityLog> findByUserId(String userId, Pageable pageable);
+    @Query("SELECT a FROM ActivityLog a WHERE a.user.id = :userId")
+    Page<ActivityLog> findByUserId(@Param("userId") String userId, Pageable pageable);
 
     // Find all activity logs for admins (this could be for all users, or further restricted by other conditions)
+    @ExpectedFullScan("Admin listing of every activity log, paged by offset")
     Page<ActivityLog> findAll(Pageable pageable);
+
+    // Keyset pagination, newest first, seeking on (timestamp, id) without a COUNT query.
+    // The cursor condition starts with timestamp <= cursor so the index can seek straight to it.
+    @Query("SELECT a FROM ActivityLog a WHERE a.user.id = :userId ORDER BY a.timestamp DESC, a.id DESC")
+    Slice<ActivityLog> findByUserIdOrderByTimestampDescIdDesc(@Param("userId") String userId, Pageable pageable);
+
+    @Query("SELECT a FROM ActivityLog a WHERE a.user.id = :userId " +
+            "AND a.timestamp <= :timestamp AND (a.timestamp < :timestamp OR a.id < :id) " +
+            "ORDER BY a.timestamp DESC, a.id DESC")
+    Slice<ActivityLog> findByUserIdAfterCursor(@Param("userId") String userId,
+            @Param("timestamp") LocalDateTime timestamp,
+            @Param("id") Long id,
+            Pageable pageable);
+
+    // DTO projections of the list queries above, for the read endpoints
+    @Query(ACTIVITY_LOG_DTO_SELECT + "WHERE a.user.id = :userId")
+    List<ActivityLogDTO> findDTOsByUserId(@Param("userId") String userId);
+
+    @Query(ACTIVITY_LOG_DTO_SELECT + "WHERE a.user.id = :userId AND a.action = :action")
+    List<ActivityLogDTO> findDTOsByUserIdAndAction(@Param("userId") String userId, @Param("action") Action action);
+
+    @Query(value = ACTIVITY_LOG_DTO_SELECT + "WHERE a.user.id = :userId",
+            countQuery = "SELECT COUNT(a) FROM ActivityLog a WHERE a.user.id = :userId")
+    Page<ActivityLogDTO> findDTOsByUserId(@Param("userId") String userId, Pageable pageable);
+
+    @ExpectedFullScan("Admin listing of every activity log, paged by offset")
+    @Query(value = ACTIVITY_LOG_DTO_SELECT, countQuery = "SELECT COUNT(a) FROM ActivityLog a")
+    Page<ActivityLogDTO> findAllDTOs(Pageable pageable);
+
+    @Query(ACTIVITY_LOG_DTO_SELECT + "WHERE a.user.id = :userId ORDER BY a.timestamp DESC, a.id DESC")
+    Slice<ActivityLogDTO> findDTOsByUserIdOrderByTimestampDescIdDesc(@Param("userId") String userId,
+            Pageable pageable);
+
+    @Query(ACTIVITY_LOG_DTO_SELECT + "WHERE a.user.id = :userId " +
+            "AND a.timestamp <= :timestamp AND (a.timestamp < :timestamp OR a.id < :id) " +
+            "ORDER BY a.timestamp DESC, a.id DESC")
+    Slice<ActivityLogDTO> findDTOsByUserIdAfterCursor(@Param("userId") String userId,
+            @Param("timestamp") LocalDateTime timestamp,
+            @Param("id") Long id,
+            Pageable pageable);
+
+    // Per-action counts computed in the database; from/to are optional (null = unbounded)
+    @Query("SELECT a.action AS action, COUNT(a) AS count FROM ActivityLog a " +
+            "WHERE a.user.id = :userId " +
+            "AND (:from IS NULL OR a.timestamp >= :from) " +
+            "AND (:to IS NULL OR a.timestamp < :to) " +
+            "GROUP BY a.action")
+    List<ActivityLogActionCount> countByActionForUser(@Param("userId") String userId,
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to);
+
+    @ExpectedFullScan("System-wide report; the window is optional, so every row may qualify")
+    @Query("SELECT a.action AS action, COUNT(a) AS count FROM ActivityLog a " +
+            "WHERE (:from IS NULL OR a.timestamp >= :from) " +
+            "AND (:to IS NULL OR a.timestamp < :to) " +
+            "GROUP BY a.action")
+    List<ActivityLogActionCount> countByAction(@Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to);
+
+    // Raw counts per (user, action, hour) in [from, to), from optional, used to rebuild activity_log_rollups
+    @ExpectedFullScan("Rollup rebuild reads every log")
+    @Query("SELECT a.user.id AS userId, a.action AS action, " +
+            "YEAR(a.timestamp) AS bucketYear, MONTH(a.timestamp) AS bucketMonth, DAY(a.timestamp) AS bucketDay, " +
+            "HOUR(a.timestamp) AS bucketHour, COUNT(a) AS count FROM ActivityLog a " +
+            "WHERE (:from IS NULL OR a.timestamp >= :from) AND a.timestamp < :to " +
+            "GROUP BY a.user.id, a.action, YEAR(a.timestamp), MONTH(a.timestamp), DAY(a.timestamp), HOUR(a.timestamp)")
+    List<ActivityLogHourlyCount> countHourlyBuckets(@Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to);
+
+    // Streaming export of a user's logs, fetched in chunks of 1000 and loaded read-only.
+    // Callers must consume the stream inside a transaction and close it.
+    @QueryHints({ @QueryHint(name = "org.hibernate.fetchSize", value = "1000"),
+            @QueryHint(name = "org.hibernate.readOnly", value = "true") })
+    @Query("SELECT a FROM ActivityLog a JOIN FETCH a.user WHERE a.user.id = :userId ORDER BY a.id")
+    Stream<ActivityLog> streamByUserId(@Param("userId") String userId);
 }
@@ -0,0 +1,42 @@
+package com.recky.demo.dao;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.recky.demo.dto.ActivityLogActionCount;
+import com.recky.demo.model.ActivityLogRollup;
+
+@Repository
+public interface ActivityLogRollupRepository extends JpaRepository<ActivityLogRollup, ActivityLogRollup.RollupId> {
+
+    // Per-action totals for one user from a single rollup tier; from/to are optional (null = unbounded)
+    @Query("SELECT r.action AS action, SUM(r.count) AS count FROM ActivityLogRollup r " +
+            "WHERE r.granularity = :granularity AND r.userId = :userId " +
+            "AND (:from IS NULL OR r.bucketStart >= :from) " +
+            "AND (:to IS NULL OR r.bucketStart < :to) " +
+            "GROUP BY r.action")
+    List<ActivityLogActionCount> sumByActionForUser(@Param("granularity") ActivityLogRollup.Granularity granularity,
+            @Param("userId") String userId,
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to);
+
+    @Query("SELECT r.action AS action, SUM(r.count) AS count FROM ActivityLogRollup r " +
+            "WHERE r.granularity = :granularity " +
+            "AND (:from IS NULL OR r.bucketStart >= :from) " +
+            "AND (:to IS NULL OR r.bucketStart < :to) " +
+            "GROUP BY r.action")
+    List<ActivityLogActionCount> sumByAction(@Param("granularity") ActivityLogRollup.Granularity granularity,
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to);
+
+    // Rollups with buckets in [from, to); from is optional (null = from the first one)
+    @Modifying
+    @Query("DELETE FROM ActivityLogRollup r WHERE (:from IS NULL OR r.bucketStart >= :from) AND r.bucketStart < :to")
+    int deleteRollupsBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+}
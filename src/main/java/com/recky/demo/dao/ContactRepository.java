@@ -1,26 +1,41 @@
 package com.recky.demo.dao;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.recky.demo.dto.ContactDTO;
+import com.recky.demo.dto.UserContactCount;
 import com.recky.demo.model.Contact;
 
+import jakarta.persistence.QueryHint;
+
 @Repository
 public interface ContactRepository extends JpaRepository<Contact, Long> {
 
-    // Find all contacts by userId
-    List<Contact> findAllByUserId(String userId);
+    // Selects straight into the DTO; userId is read from the user_id column, so users is never joined
+    String CONTACT_DTO_SELECT = "SELECT new com.recky.demo.dto.ContactDTO("
+            + "c.id, c.user.id, c.name, c.phone, c.email, c.address, c.createdAt, c.updatedAt) FROM Contact c ";
+
+    // Find all contacts by userId. Queries on the owner compare c.user.id, which reads the user_id
+    // column; the derived-query form left-joins users first, which keeps the planner off user_id's index.
+    @Query("SELECT c FROM Contact c WHERE c.user.id = :userId")
+    List<Contact> findAllByUserId(@Param("userId") String userId);
 
     // Find a specific contact by userId and contactId
-    Optional<Contact> findByUserIdAndId(String userId, Long id);
+    @Query("SELECT c FROM Contact c WHERE c.user.id = :userId AND c.id = :id")
+    Optional<Contact> findByUserIdAndId(@Param("userId") String userId, @Param("id") Long id);
 
     List<Contact> findByPhone(String phone);
 
@@ -32,36 +47,55 @@ public interface ContactRepository extends JpaRepository<Contact, Long> {
     // Find a contact by email
     // Optional<Contact> findByEmail(String email);
 
-    List<Contact> findByUserIdAndEmailAndPhone(String userId, String email, String phone);
+    @Query("SELECT c FROM Contact c WHERE c.user.id = :userId AND c.email = :email AND c.phone = :phone")
+    List<Contact> findByUserIdAndEmailAndPhone(@Param("userId") String userId, @Param("email") String email,
+            @Param("phone") String phone);
 
-    List<Contact> findByUserIdAndEmail(String userID, String email);
+    @Query("SELECT c FROM Contact c WHERE c.user.id = :userId AND c.email = :email")
+    List<Contact> findByUserIdAndEmail(@Param("userId") String userID, @Param("email") String email);
 
-    List<Contact> findByUserIdAndPhone(String userID, String phone);
+    @Query("SELECT c FROM Contact c WHERE c.user.id = :userId AND c.phone = :phone")
+    List<Contact> findByUserIdAndPhone(@Param("userId") String userID, @Param("phone") String phone);
 
     // Find contacts by created_at date range
-    List<Contact> findByUserIdAndCreatedAtBetween(String userID, LocalDateTime startDate, LocalDateTime endDate);
+    @Query("SELECT c FROM Contact c WHERE c.user.id = :userId AND c.createdAt BETWEEN :startDate AND :endDate")
+    List<Contact> findByUserIdAndCreatedAtBetween(@Param("userId") String userID,
+            @Param("startDate") LocalDateTime startDate,
+            @Param("endDate") LocalDateTime endDate);
 
     // Paginated query for contacts by userId
-    Page<Contact> findByUserId(String userID, Pageable pageable);
+    @Query("SELECT c FROM Contact c WHERE c.user.id = :userId")
+    Page<Contact> findByUserId(@Param("userId") String userID, Pageable pageable);
 
     boolean existsByPhone(String phone);
 
     boolean existsByPhoneAndIdNot(String phone, Long id);
 
     // Paginated query for contacts by userId and created_at date range
+    @Query("SELECT c FROM Contact c WHERE c.user.id = :userId AND c.createdAt BETWEEN :startDate AND :endDate")
     Page<Contact> findByUserIdAndCreatedAtBetween(
-            String userID,
-            LocalDateTime startDate,
-            LocalDateTime endDate,
+            @Param("userId") String userID,
+            @Param("startDate") LocalDateTime startDate,
+            @Param("endDate") LocalDateTime endDate,
             Pageable pageable);
 
-    boolean existsByPhoneAndUserId(String phone, String userID);
+    // Contact counts for a page of users in one GROUP BY query; users without contacts are absent
+    @Query("SELECT c.user.id AS userId, COUNT(c) AS contactCount FROM Contact c "
+            + "WHERE c.user.id IN :userIds GROUP BY c.user.id")
+    List<UserContactCount> countByUserIds(@Param("userIds") Collection<String> userIds);
+
+    // One user's contacts as DTOs, to load that user's search partition
+    @Query(CONTACT_DTO_SELECT + "WHERE c.user.id = :userId")
+    List<ContactDTO> findDTOsByUserId(@Param("userId") String userId);
 
-    Optional<Contact> findByPhoneAndUserId(String phone, String userID);
+    // All phones of a user in one query, used to dedupe bulk imports
+    @Query("SELECT c.phone FROM Contact c WHERE c.user.id = :userId")
+    List<String> findPhonesByUserId(@Param("userId") String userId);
 
 
     // Custom query to check if a contact exists with the given id and user id
-    boolean existsByIdAndUserId(Long id, String userID);
+    @Query("SELECT COUNT(c) > 0 FROM Contact c WHERE c.id = :id AND c.user.id = :userId")
+    boolean existsByIdAndUserId(@Param("id") Long id, @Param("userId") String userID);
 
     @Query("SELECT c FROM Contact c WHERE c.user.id = :userId AND c.id = :contactId")
     Optional<Contact> findByUserIdAndContactId(@Param("userId") String userID, @Param("contactId") Long contactId);
@@ -69,6 +103,49 @@ public interface ContactRepository extends JpaRepository<Contact, Long> {
     // some new ones
  
     // Fetch all contacts paginated (for ADMIN users)
+    @ExpectedFullScan("Admin listing of every contact, paged by offset")
     Page<Contact> findAll(Pageable pageable);
 
-}
\ No newline at end of file
+    // Keyset pagination, newest first: the first slice, then everything after a (createdAt, id) cursor.
+    // Slices skip the COUNT query that Page needs. The cursor condition is written as
+    // createdAt <= cursor AND (...) so the database can seek the (created_at, id) index to the cursor.
+    @Query(CONTACT_DTO_SELECT + "WHERE c.user.id = :userId ORDER BY c.createdAt DESC, c.id DESC")
+    Slice<ContactDTO> findDTOsByUserIdOrderByCreatedAtDescIdDesc(@Param("userId") String userId, Pageable pageable);
+
+    @Query(CONTACT_DTO_SELECT + "WHERE c.user.id = :userId " +
+            "AND c.createdAt <= :createdAt AND (c.createdAt < :createdAt OR c.id < :id) " +
+            "ORDER BY c.createdAt DESC, c.id DESC")
+    Slice<ContactDTO> findDTOsByUserIdAfterCursor(@Param("userId") String userId,
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") Long id,
+            Pageable pageable);
+
+    // DTO projections of the admin listings above
+    @ExpectedFullScan("Admin listing of every contact, paged by offset")
+    @Query(value = CONTACT_DTO_SELECT, countQuery = "SELECT COUNT(c) FROM Contact c")
+    Page<ContactDTO> findAllDTOs(Pageable pageable);
+
+    @Query(CONTACT_DTO_SELECT + "ORDER BY c.createdAt DESC, c.id DESC")
+    Slice<ContactDTO> findAllDTOsOrderByCreatedAtDescIdDesc(Pageable pageable);
+
+    @Query(CONTACT_DTO_SELECT +
+            "WHERE c.createdAt <= :createdAt AND (c.createdAt < :createdAt OR c.id < :id) " +
+            "ORDER BY c.createdAt DESC, c.id DESC")
+    Slice<ContactDTO> findAllDTOsAfterCursor(@Param("createdAt") LocalDateTime createdAt,
+            @Param("id") Long id,
+            Pageable pageable);
+
+    // Streaming exports: rows are fetched in chunks of 1000 and loaded read-only (no dirty-checking snapshots).
+    // Callers must consume the stream inside a transaction and close it.
+    @QueryHints({ @QueryHint(name = "org.hibernate.fetchSize", value = "1000"),
+            @QueryHint(name = "org.hibernate.readOnly", value = "true") })
+    @Query("SELECT c FROM Contact c JOIN FETCH c.user WHERE c.user.id = :userId ORDER BY c.id")
+    Stream<Contact> streamByUserId(@Param("userId") String userId);
+
+    @QueryHints({ @QueryHint(name = "org.hibernate.fetchSize", value = "1000"),
+            @QueryHint(name = "org.hibernate.readOnly", value = "true") })
+    @ExpectedFullScan("Export of every contact")
+    @Query("SELECT c FROM Contact c JOIN FETCH c.user ORDER BY c.id")
+    Stream<Contact> streamAll();
+
+}
@@ -0,0 +1,19 @@
+package com.recky.demo.dao;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a repository query that reads a whole table by design (admin listings, exports,
+ * rollup rebuilds), so the startup query plan check reports its scan at DEBUG rather than
+ * warning about it.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface ExpectedFullScan {
+
+    // Why the scan is acceptable
+    String value();
+}
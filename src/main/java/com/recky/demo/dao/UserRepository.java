@@ -1,17 +1,29 @@
 package com.recky.demo.dao;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.recky.demo.dto.UserDTO;
 import com.recky.demo.model.User;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, String> {
 
+    // Selects straight into the DTO, with each user's contact count from a correlated subquery,
+    // so the listing is one statement and no contacts collection is loaded
+    String USER_DTO_SELECT = "SELECT new com.recky.demo.dto.UserDTO(u.id, u.username, u.email, u.role, u.status, "
+            + "u.createdAt, u.updatedAt, u.deactivatedAt, u.deactivatedBy, "
+            + "(SELECT COUNT(c) FROM Contact c WHERE c.user = u)) FROM User u ";
+
     // Find a user by username
     Optional<User> findByUsername(String username);
 
@@ -23,6 +35,7 @@ public interface UserRepository extends JpaRepository<User, String> {
 
     Page<User> findById(String id, Pageable pageable);
 
+    @ExpectedFullScan("Admin listing of every user, paged by offset")
     Page<User> findAll(Pageable pageable);
 
     // Count total number of users
@@ -30,6 +43,38 @@ public interface UserRepository extends JpaRepository<User, String> {
 
     long countByRole(User.Role role);
 
+    // Role filtering done by the database; the paged variant derives its count query from countByRole
+    List<User> findByRole(User.Role role);
+
+    Page<User> findByRole(User.Role role, Pageable pageable);
+
+    // DTO projections of the listings above, for the read endpoints
+    @ExpectedFullScan("Admin listing of every user")
+    @Query(USER_DTO_SELECT)
+    List<UserDTO> findAllDTOs();
+
+    @ExpectedFullScan("Admin listing of every user, paged by offset")
+    @Query(value = USER_DTO_SELECT, countQuery = "SELECT COUNT(u) FROM User u")
+    Page<UserDTO> findAllDTOs(Pageable pageable);
+
+    @Query(USER_DTO_SELECT + "WHERE u.role = :role")
+    List<UserDTO> findDTOsByRole(@Param("role") User.Role role);
+
+    @Query(value = USER_DTO_SELECT + "WHERE u.role = :role",
+            countQuery = "SELECT COUNT(u) FROM User u WHERE u.role = :role")
+    Page<UserDTO> findDTOsByRole(@Param("role") User.Role role, Pageable pageable);
+
+    // Keyset pagination, newest first, seeking on (createdAt, id) without a COUNT query.
+    // The cursor condition starts with createdAt <= cursor so the index can seek straight to it.
+    Slice<User> findAllByOrderByCreatedAtDescIdDesc(Pageable pageable);
+
+    @Query("SELECT u FROM User u " +
+            "WHERE u.createdAt <= :createdAt AND (u.createdAt < :createdAt OR u.id < :id) " +
+            "ORDER BY u.createdAt DESC, u.id DESC")
+    Slice<User> findAllAfterCursor(@Param("createdAt") LocalDateTime createdAt,
+            @Param("id") String id,
+            Pageable pageable);
+
     default long countNonAdminUsers() {
         return count() - countByRole(User.Role.ADMIN);
     }
@@ -0,0 +1,10 @@
+package com.recky.demo.dto;
+
+import com.recky.demo.model.ActivityLog;
+
+// Projection for per-action counts returned by the GROUP BY queries in ActivityLogRepository
+public interface ActivityLogActionCount {
+    ActivityLog.Action getAction();
+
+    long getCount();
+}
@@ -2,6 +2,8 @@ package com.recky.demo.dto;
 
 import java.time.LocalDateTime;
 
+import com.recky.demo.model.ActivityLog;
+
 public class ActivityLogDTO {
     private Long id;
     private String userId;  // Changed to String to match user_id change
@@ -18,6 +20,11 @@ public class ActivityLogDTO {
         this.details = details;
     }
 
+    // Used by the repository's constructor-expression queries (SELECT new ...)
+    public ActivityLogDTO(Long id, String userId, ActivityLog.Action action, LocalDateTime timestamp, String details) {
+        this(id, userId, action != null ? action.name() : null, timestamp, details);
+    }
+
     // Getters and Setters
     public Long getId() {
         return id;
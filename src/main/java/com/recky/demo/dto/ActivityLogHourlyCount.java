@@ -0,0 +1,20 @@
+package com.recky.demo.dto;
+
+import com.recky.demo.model.ActivityLog;
+
+// Projection for activity log counts grouped by user, action and hour, used to rebuild rollups
+public interface ActivityLogHourlyCount {
+    String getUserId();
+
+    ActivityLog.Action getAction();
+
+    Integer getBucketYear();
+
+    Integer getBucketMonth();
+
+    Integer getBucketDay();
+
+    Integer getBucketHour();
+
+    long getCount();
+}
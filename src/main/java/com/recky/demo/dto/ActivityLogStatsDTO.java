@@ -1,8 +1,8 @@
 package com.recky.demo.dto;
 
+import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 import com.recky.demo.model.ActivityLog;
 
@@ -11,16 +11,42 @@ public class ActivityLogStatsDTO {
     private long createCount;
     private long updateCount;
     private long deleteCount;
+    private long loginCount;
+    private long logoutCount;
     private long totalLogs;
 
-    public ActivityLogStatsDTO(long getCount, long createCount, long updateCount, long deleteCount, long totalLogs) {
+    public ActivityLogStatsDTO(long getCount, long createCount, long updateCount, long deleteCount, long loginCount,
+            long logoutCount, long totalLogs) {
         this.getCount = getCount;
         this.createCount = createCount;
         this.updateCount = updateCount;
         this.deleteCount = deleteCount;
+        this.loginCount = loginCount;
+        this.logoutCount = logoutCount;
         this.totalLogs = totalLogs;
     }
 
+    // Build stats from per-action counts; actions with no rows count as zero
+    public static ActivityLogStatsDTO fromCounts(List<ActivityLogActionCount> counts) {
+        Map<ActivityLog.Action, Long> actionCounts = new EnumMap<>(ActivityLog.Action.class);
+        for (ActivityLogActionCount count : counts) {
+            actionCounts.merge(count.getAction(), count.getCount(), Long::sum);
+        }
+        return fromCounts(actionCounts);
+    }
+
+    public static ActivityLogStatsDTO fromCounts(Map<ActivityLog.Action, Long> actionCounts) {
+        long totalLogs = actionCounts.values().stream().mapToLong(Long::longValue).sum();
+        return new ActivityLogStatsDTO(
+                actionCounts.getOrDefault(ActivityLog.Action.GET, 0L),
+                actionCounts.getOrDefault(ActivityLog.Action.CREATE, 0L),
+                actionCounts.getOrDefault(ActivityLog.Action.UPDATE, 0L),
+                actionCounts.getOrDefault(ActivityLog.Action.DELETE, 0L),
+                actionCounts.getOrDefault(ActivityLog.Action.LOGIN, 0L),
+                actionCounts.getOrDefault(ActivityLog.Action.LOGOUT, 0L),
+                totalLogs);
+    }
+
     // Getters
     public long getGetCount() {
         return getCount;
@@ -38,7 +64,15 @@ public class ActivityLogStatsDTO {
         return deleteCount;
     }
 
+    public long getLoginCount() {
+        return loginCount;
+    }
+
+    public long getLogoutCount() {
+        return logoutCount;
+    }
+
     public long getTotalLogs() {
         return totalLogs;
     }
-}
\ No newline at end of file
+}
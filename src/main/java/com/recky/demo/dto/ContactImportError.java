@@ -0,0 +1,49 @@
+package com.recky.demo.dto;
+
+// One rejected row of a bulk contact import, streamed back as it is found
+public class ContactImportError {
+    private long line;
+    private String phone;
+    private String status; // DUPLICATE, INVALID or FAILED
+    private String message;
+
+    public ContactImportError(long line, String phone, String status, String message) {
+        this.line = line;
+        this.phone = phone;
+        this.status = status;
+        this.message = message;
+    }
+
+    // Getters and Setters
+    public long getLine() {
+        return line;
+    }
+
+    public void setLine(long line) {
+        this.line = line;
+    }
+
+    public String getPhone() {
+        return phone;
+    }
+
+    public void setPhone(String phone) {
+        this.phone = phone;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+}
@@ -0,0 +1,42 @@
+package com.recky.demo.dto;
+
+// Summary line written at the end of a bulk contact import
+public class ContactImportResult {
+    private long imported;
+    private long duplicates;
+    private long failed;
+
+    public ContactImportResult() {
+    }
+
+    public ContactImportResult(long imported, long duplicates, long failed) {
+        this.imported = imported;
+        this.duplicates = duplicates;
+        this.failed = failed;
+    }
+
+    // Getters and Setters
+    public long getImported() {
+        return imported;
+    }
+
+    public void setImported(long imported) {
+        this.imported = imported;
+    }
+
+    public long getDuplicates() {
+        return duplicates;
+    }
+
+    public void setDuplicates(long duplicates) {
+        this.duplicates = duplicates;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public void setFailed(long failed) {
+        this.failed = failed;
+    }
+}
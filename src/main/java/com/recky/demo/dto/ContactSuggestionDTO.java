@@ -0,0 +1,39 @@
+package com.recky.demo.dto;
+
+// One typeahead suggestion: just enough to render the contact picker row
+public class ContactSuggestionDTO {
+    private Long id;
+    private String name;
+    private String phone;
+
+    public ContactSuggestionDTO(Long id, String name, String phone) {
+        this.id = id;
+        this.name = name;
+        this.phone = phone;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getPhone() {
+        return phone;
+    }
+
+    public void setPhone(String phone) {
+        this.phone = phone;
+    }
+}
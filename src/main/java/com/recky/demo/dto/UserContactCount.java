@@ -0,0 +1,8 @@
+package com.recky.demo.dto;
+
+// Projection for per-user contact counts returned by ContactRepository.countByUserIds
+public interface UserContactCount {
+    String getUserId();
+
+    long getContactCount();
+}
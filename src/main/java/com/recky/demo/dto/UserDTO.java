@@ -2,6 +2,8 @@ package com.recky.demo.dto;
 
 import java.time.LocalDateTime;
 
+import com.recky.demo.model.User;
+
 public class UserDTO {
     // private Long id;
     private String id;
@@ -38,6 +40,16 @@ public class UserDTO {
         this.contactCount = contactCount;
     }
 
+    // Used by the repository's constructor-expression queries (SELECT new ...);
+    // contactCount comes from a COUNT subquery
+    public UserDTO(String id, String username, String email, User.Role role, User.Status status,
+            LocalDateTime createdAt, LocalDateTime updatedAt, LocalDateTime deactivatedAt, String deactivatedBy,
+            Long contactCount) {
+        this(id, username, email, role != null ? role.toString() : null,
+                status != null ? status.toString() : "ACTIVE", createdAt, updatedAt, deactivatedAt, deactivatedBy,
+                contactCount != null ? contactCount.intValue() : 0);
+    }
+
     // empty constructor:
     public UserDTO() {
         // Initialize fields with default values if necessary
@@ -0,0 +1,7 @@
+package com.recky.demo.exception;
+
+public class DuplicatePhoneException extends RuntimeException {
+    public DuplicatePhoneException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
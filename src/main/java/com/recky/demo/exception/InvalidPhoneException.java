@@ -0,0 +1,7 @@
+package com.recky.demo.exception;
+
+public class InvalidPhoneException extends RuntimeException {
+    public InvalidPhoneException(String message) {
+        super(message);
+    }
+}
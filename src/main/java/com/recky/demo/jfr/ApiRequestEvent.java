@@ -0,0 +1,28 @@
+package com.recky.demo.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+// One API request, from handler mapping to response written. The other events nest inside it on the same thread.
+@Name("com.recky.demo.ApiRequest")
+@Label("API Request")
+@Category({ "Recky", "Web" })
+@Description("An /api request handled by a controller method")
+@StackTrace(false)
+@Threshold("20 ms")
+public class ApiRequestEvent extends jdk.jfr.Event {
+
+    @Label("HTTP Method")
+    public String method;
+
+    @Label("Endpoint")
+    @Description("Route template, e.g. /api/users/{id}")
+    public String endpoint;
+
+    @Label("Status")
+    public int status;
+}
@@ -0,0 +1,27 @@
+package com.recky.demo.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+@Name("com.recky.demo.AuditWrite")
+@Label("Audit Write")
+@Category({ "Recky", "Service" })
+@Description("ActivityLogService.logActivity: inserted, queued for write-behind, or failed")
+@StackTrace(false)
+@Threshold("10 ms")
+public class AuditWriteEvent extends jdk.jfr.Event {
+
+    public static final String SAVED = "SAVED";
+    public static final String QUEUED = "QUEUED";
+    public static final String FAILED = "FAILED";
+
+    @Label("Action")
+    public String action;
+
+    @Label("Outcome")
+    public String outcome;
+}
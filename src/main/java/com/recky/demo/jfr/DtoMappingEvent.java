@@ -0,0 +1,34 @@
+package com.recky.demo.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+@Name("com.recky.demo.DtoMapping")
+@Label("DTO Mapping")
+@Category({ "Recky", "Service" })
+@Description("Entity-to-DTO mapping")
+@StackTrace(false)
+@Threshold("5 ms")
+public class DtoMappingEvent extends jdk.jfr.Event {
+
+    @Label("DTO Type")
+    public String dtoType;
+
+    public static DtoMappingEvent started() {
+        DtoMappingEvent event = new DtoMappingEvent();
+        event.begin();
+        return event;
+    }
+
+    public void finish(Class<?> dtoType) {
+        end();
+        if (shouldCommit()) {
+            this.dtoType = dtoType.getSimpleName();
+            commit();
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package com.recky.demo.jfr;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+/**
+ * Summarizes a JFR recording by endpoint.
+ *
+ *   java -cp target/classes com.recky.demo.jfr.RecordingSummary recky.jfr
+ *
+ * Repository, audit, mapping and serialization events are attributed to the ApiRequest event
+ * that encloses them on the same thread. Anything outside a request (write-behind flushes,
+ * scheduled jobs) is reported under "(no request)".
+ */
+public final class RecordingSummary {
+
+    static final String NO_REQUEST = "(no request)";
+
+    private static final String API_REQUEST = "com.recky.demo.ApiRequest";
+    private static final String REPOSITORY_CALL = "com.recky.demo.RepositoryCall";
+    private static final String AUDIT_WRITE = "com.recky.demo.AuditWrite";
+    private static final String DTO_MAPPING = "com.recky.demo.DtoMapping";
+    private static final String RESPONSE_SERIALIZATION = "com.recky.demo.ResponseSerialization";
+
+    private static final int TOP_REPOSITORY_METHODS = 10;
+
+    static class EndpointStats {
+        final List<Duration> requests = new ArrayList<>();
+        long repositoryCalls;
+        long rows;
+        Duration repositoryTime = Duration.ZERO;
+        long audits;
+        long auditFailures;
+        Duration auditTime = Duration.ZERO;
+        Duration mappingTime = Duration.ZERO;
+        long bytes;
+        Duration serializationTime = Duration.ZERO;
+
+        Duration totalRequestTime() {
+            return requests.stream().reduce(Duration.ZERO, Duration::plus);
+        }
+    }
+
+    static class MethodStats {
+        long calls;
+        long rows;
+        Duration time = Duration.ZERO;
+    }
+
+    private RecordingSummary() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            System.err.println("Usage: RecordingSummary <recording.jfr>");
+            System.exit(2);
+        }
+        List<RecordedEvent> events = RecordingFile.readAllEvents(Path.of(args[0]));
+        System.out.print(format(summarize(events), repositoryMethods(events)));
+    }
+
+    static Map<String, EndpointStats> summarize(List<RecordedEvent> events) {
+        // Requests per thread, keyed by start time, to find the one enclosing each nested event
+        Map<Long, TreeMap<Instant, RecordedEvent>> requestsByThread = new HashMap<>();
+        Map<String, EndpointStats> byEndpoint = new HashMap<>();
+        for (RecordedEvent event : events) {
+            if (isType(event, API_REQUEST) && event.getThread() != null) {
+                requestsByThread.computeIfAbsent(event.getThread().getId(), id -> new TreeMap<>())
+                        .put(event.getStartTime(), event);
+                stats(byEndpoint, endpoint(event)).requests.add(event.getDuration());
+            }
+        }
+
+        for (RecordedEvent event : events) {
+            String type = event.getEventType().getName();
+            if (type.equals(API_REQUEST) || !type.startsWith("com.recky.demo.")) {
+                continue;
+            }
+            EndpointStats stats = stats(byEndpoint, enclosingEndpoint(requestsByThread, event));
+            switch (type) {
+                case REPOSITORY_CALL -> {
+                    stats.repositoryCalls++;
+                    stats.rows += Math.max(0, event.getInt("rows"));
+                    stats.repositoryTime = stats.repositoryTime.plus(event.getDuration());
+                }
+                case AUDIT_WRITE -> {
+                    stats.audits++;
+                    if (AuditWriteEvent.FAILED.equals(event.getString("outcome"))) {
+                        stats.auditFailures++;
+                    }
+                    stats.auditTime = stats.auditTime.plus(event.getDuration());
+                }
+                case DTO_MAPPING -> {
+                    stats.mappingTime = stats.mappingTime.plus(event.getDuration());
+                }
+                case RESPONSE_SERIALIZATION -> {
+                    stats.bytes += event.getLong("bytes");
+                    stats.serializationTime = stats.serializationTime.plus(event.getDuration());
+                }
+                default -> {
+                }
+            }
+        }
+        return byEndpoint;
+    }
+
+    static Map<String, MethodStats> repositoryMethods(List<RecordedEvent> events) {
+        Map<String, MethodStats> byMethod = new HashMap<>();
+        for (RecordedEvent event : events) {
+            if (isType(event, REPOSITORY_CALL)) {
+                MethodStats stats = byMethod.computeIfAbsent(
+                        event.getString("repository") + "." + event.getString("method"), name -> new MethodStats());
+                stats.calls++;
+                stats.rows += Math.max(0, event.getInt("rows"));
+                stats.time = stats.time.plus(event.getDuration());
+            }
+        }
+        return byMethod;
+    }
+
+    static String format(Map<String, EndpointStats> byEndpoint, Map<String, MethodStats> byMethod) {
+        StringBuilder out = new StringBuilder();
+        out.append(String.format(Locale.ROOT, "%-48s %8s %9s %9s | %9s %9s %9s | %9s %9s | %9s %9s%n",
+                "Endpoint", "Requests", "Mean ms", "p95 ms", "DB calls", "DB ms", "Rows", "Audit ms",
+                "Map ms", "JSON ms", "JSON KB"));
+        byEndpoint.entrySet().stream()
+                .sorted(Comparator.comparing((Map.Entry<String, EndpointStats> entry) -> entry.getValue()
+                        .totalRequestTime()).reversed())
+                .forEach(entry -> {
+                    EndpointStats stats = entry.getValue();
+                    // Per-request averages; events outside any request are shown as totals
+                    long divisor = Math.max(1, stats.requests.size());
+                    out.append(String.format(Locale.ROOT,
+                            "%-48s %8d %9.2f %9.2f | %9.1f %9.2f %9.1f | %9.2f %9.2f | %9.2f %9.1f%n",
+                            entry.getKey(), stats.requests.size(), millis(stats.totalRequestTime()) / divisor,
+                            p95Millis(stats.requests), (double) stats.repositoryCalls / divisor,
+                            millis(stats.repositoryTime) / divisor, (double) stats.rows / divisor,
+                            millis(stats.auditTime) / divisor, millis(stats.mappingTime) / divisor,
+                            millis(stats.serializationTime) / divisor, stats.bytes / 1024.0 / divisor));
+                    if (stats.auditFailures > 0) {
+                        out.append(String.format(Locale.ROOT, "    %d of %d audit writes failed%n",
+                                stats.auditFailures, stats.audits));
+                    }
+                });
+
+        out.append(String.format(Locale.ROOT, "%nTop repository methods by total time%n"));
+        out.append(String.format(Locale.ROOT, "%-64s %8s %10s %9s %9s%n", "Method", "Calls", "Total ms",
+                "Mean ms", "Rows"));
+        byMethod.entrySet().stream()
+                .sorted(Comparator.comparing((Map.Entry<String, MethodStats> entry) -> entry.getValue().time)
+                        .reversed())
+                .limit(TOP_REPOSITORY_METHODS)
+                .forEach(entry -> {
+                    MethodStats stats = entry.getValue();
+                    out.append(String.format(Locale.ROOT, "%-64s %8d %10.2f %9.3f %9d%n", entry.getKey(),
+                            stats.calls, millis(stats.time), millis(stats.time) / stats.calls, stats.rows));
+                });
+        return out.toString();
+    }
+
+    private static String enclosingEndpoint(Map<Long, TreeMap<Instant, RecordedEvent>> requestsByThread,
+            RecordedEvent event) {
+        if (event.getThread() == null) {
+            return NO_REQUEST;
+        }
+        TreeMap<Instant, RecordedEvent> requests = requestsByThread.get(event.getThread().getId());
+        if (requests == null) {
+            return NO_REQUEST;
+        }
+        Map.Entry<Instant, RecordedEvent> candidate = requests.floorEntry(event.getStartTime());
+        if (candidate == null || candidate.getValue().getEndTime().isBefore(event.getEndTime())) {
+            return NO_REQUEST;
+        }
+        return endpoint(candidate.getValue());
+    }
+
+    private static String endpoint(RecordedEvent request) {
+        return request.getString("method") + " " + request.getString("endpoint");
+    }
+
+    private static EndpointStats stats(Map<String, EndpointStats> byEndpoint, String endpoint) {
+        return byEndpoint.computeIfAbsent(endpoint, name -> new EndpointStats());
+    }
+
+    private static boolean isType(RecordedEvent event, String type) {
+        return event.getEventType().getName().equals(type);
+    }
+
+    private static double p95Millis(List<Duration> durations) {
+        if (durations.isEmpty()) {
+            return 0;
+        }
+        List<Duration> sorted = durations.stream().sorted().toList();
+        return millis(sorted.get((int) Math.ceil(sorted.size() * 0.95) - 1));
+    }
+
+    private static double millis(Duration duration) {
+        return duration.toNanos() / 1_000_000.0;
+    }
+}
@@ -0,0 +1,30 @@
+package com.recky.demo.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+@Name("com.recky.demo.RepositoryCall")
+@Label("Repository Call")
+@Category({ "Recky", "Data" })
+@Description("A Spring Data repository method call")
+@StackTrace(false)
+@Threshold("10 ms")
+public class RepositoryCallEvent extends jdk.jfr.Event {
+
+    @Label("Repository")
+    public String repository;
+
+    @Label("Method")
+    public String method;
+
+    @Label("Rows")
+    @Description("Entities or rows returned; -1 when not known up front (streams)")
+    public int rows;
+
+    @Label("Succeeded")
+    public boolean success;
+}
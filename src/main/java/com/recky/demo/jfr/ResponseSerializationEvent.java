@@ -0,0 +1,25 @@
+package com.recky.demo.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+@Name("com.recky.demo.ResponseSerialization")
+@Label("Response Serialization")
+@Category({ "Recky", "Web" })
+@Description("A response body written as JSON")
+@StackTrace(false)
+@Threshold("5 ms")
+public class ResponseSerializationEvent extends jdk.jfr.Event {
+
+    @Label("Body Type")
+    public String bodyType;
+
+    @Label("Size")
+    @DataAmount
+    public long bytes;
+}
@@ -55,7 +55,7 @@ public class ActivityLog {
         if (user == null) {
             throw new IllegalArgumentException("User cannot be null");
         }
-        logger.info("Creating activity log - User ID: {}, Action: {}", user.getId(), action);
+        logger.debug("Creating activity log - User ID: {}, Action: {}", user.getId(), action);
 
         this.user = user;
         this.action = action;
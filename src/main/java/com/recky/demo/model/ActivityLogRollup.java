@@ -0,0 +1,147 @@
+package com.recky.demo.model;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+
+// Pre-aggregated activity log counts per (user, action) and hour or day bucket
+@Entity
+@Table(name = "activity_log_rollups")
+@IdClass(ActivityLogRollup.RollupId.class)
+public class ActivityLogRollup {
+
+    public enum Granularity {
+        HOUR, DAY
+    }
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "granularity", length = 8)
+    private Granularity granularity;
+
+    @Id
+    @Column(name = "bucket_start")
+    private LocalDateTime bucketStart;
+
+    @Id
+    @Column(name = "user_id", columnDefinition = "VARCHAR(255)")
+    private String userId;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "action", length = 16)
+    private ActivityLog.Action action;
+
+    @Column(name = "log_count", nullable = false)
+    private long count;
+
+    // Default constructor required by JPA
+    public ActivityLogRollup() {
+    }
+
+    public ActivityLogRollup(Granularity granularity, LocalDateTime bucketStart, String userId,
+            ActivityLog.Action action, long count) {
+        this.granularity = granularity;
+        this.bucketStart = bucketStart;
+        this.userId = userId;
+        this.action = action;
+        this.count = count;
+    }
+
+    // Getters and Setters
+    public Granularity getGranularity() {
+        return granularity;
+    }
+
+    public void setGranularity(Granularity granularity) {
+        this.granularity = granularity;
+    }
+
+    public LocalDateTime getBucketStart() {
+        return bucketStart;
+    }
+
+    public void setBucketStart(LocalDateTime bucketStart) {
+        this.bucketStart = bucketStart;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+
+    public ActivityLog.Action getAction() {
+        return action;
+    }
+
+    public void setAction(ActivityLog.Action action) {
+        this.action = action;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public void setCount(long count) {
+        this.count = count;
+    }
+
+    // Composite primary key
+    public static class RollupId implements Serializable {
+        private Granularity granularity;
+        private LocalDateTime bucketStart;
+        private String userId;
+        private ActivityLog.Action action;
+
+        public RollupId() {
+        }
+
+        public RollupId(Granularity granularity, LocalDateTime bucketStart, String userId, ActivityLog.Action action) {
+            this.granularity = granularity;
+            this.bucketStart = bucketStart;
+            this.userId = userId;
+            this.action = action;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof RollupId other)) {
+                return false;
+            }
+            return granularity == other.granularity
+                    && Objects.equals(bucketStart, other.bucketStart)
+                    && Objects.equals(userId, other.userId)
+                    && action == other.action;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(granularity, bucketStart, userId, action);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "ActivityLogRollup{" +
+                "granularity=" + granularity +
+                ", bucketStart=" + bucketStart +
+                ", userId='" + userId + '\'' +
+                ", action=" + action +
+                ", count=" + count +
+                '}';
+    }
+}
@@ -6,20 +6,28 @@ import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.recky.demo.util.PhoneNumbers;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 
 @Entity
-@Table(name = "contacts")
+@Table(name = "contacts", uniqueConstraints = @UniqueConstraint(name = Contact.PHONE_CONSTRAINT, columnNames = {
+        "user_id", "phone_canonical" }))
+@EntityListeners(ContactPhoneListener.class)
 public class Contact {
 
+    // One contact per canonical phone number and user
+    public static final String PHONE_CONSTRAINT = "uk_contacts_user_phone";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -30,6 +38,11 @@ public class Contact {
     @Column(name = "phone", nullable = false)
     private String phone;
 
+    // Set from phone by ContactPhoneListener on every insert and update
+    @JsonIgnore
+    @Column(name = "phone_canonical", length = PhoneNumbers.MAX_CANONICAL_LENGTH)
+    private String phoneCanonical;
+
     @Column(name = "email", nullable = true)
     private String email;
 
@@ -81,6 +94,14 @@ public class Contact {
         this.phone = phone;
     }
 
+    public String getPhoneCanonical() {
+        return phoneCanonical;
+    }
+
+    public void setPhoneCanonical(String phoneCanonical) {
+        this.phoneCanonical = phoneCanonical;
+    }
+
     public String getEmail() {
         return email;
     }
@@ -0,0 +1,26 @@
+package com.recky.demo.model;
+
+import org.springframework.beans.factory.annotation.Value;
+
+import com.recky.demo.util.PhoneNumbers;
+
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+
+/**
+ * Keeps contacts.phone_canonical in step with contacts.phone on every JPA insert and update.
+ *
+ * Created through Spring's bean container for Hibernate, so the default country code comes
+ * from contacts.phone.default-country-code.
+ */
+public class ContactPhoneListener {
+
+    @Value("${contacts.phone.default-country-code:1}")
+    private String defaultCountryCode = "1";
+
+    @PrePersist
+    @PreUpdate
+    void canonicalizePhone(Contact contact) {
+        contact.setPhoneCanonical(PhoneNumbers.canonicalize(contact.getPhone(), defaultCountryCode));
+    }
+}
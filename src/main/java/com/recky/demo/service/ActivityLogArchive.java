@@ -0,0 +1,212 @@
+package com.recky.demo.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.recky.demo.dto.ActivityLogDTO;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * The archived part of activity_logs.
+ *
+ * {@link ActivityLogArchiver} writes one {@link ActivityLogSegment} per archived partition or month
+ * into activity-log.retention.archive-dir. Segment footers are loaded at startup, so counting a
+ * user's archived logs needs no I/O, and reading a page decompresses only the blocks it returns
+ * rows from. Archived logs are always older than every row left in activity_logs.
+ *
+ * Logs that reach an archived range later are merged into a new generation of its segment
+ * (activity_logs-p202501.1.seg), which replaces the previous one.
+ */
+@Component
+@ConditionalOnProperty(name = "activity-log.retention.enabled", havingValue = "true")
+public class ActivityLogArchive {
+
+    private static final Logger logger = LoggerFactory.getLogger(ActivityLogArchive.class);
+
+    private static final String SEGMENT_PREFIX = "activity_logs-";
+    private static final String SEGMENT_SUFFIX = ".seg";
+    // Range name and, past the first generation, the generation number
+    private static final Pattern SEGMENT_NAME = Pattern.compile(
+            Pattern.quote(SEGMENT_PREFIX) + "(\\w+?)(?:\\.(\\d+))?" + Pattern.quote(SEGMENT_SUFFIX));
+
+    private final Path directory;
+
+    // Newest first; replaced as a whole when a segment is added, so readers need no lock
+    private volatile List<ActivityLogSegment> segments = List.of();
+    private final ReentrantLock addLock = new ReentrantLock();
+
+    public ActivityLogArchive(
+            @Value("${activity-log.retention.archive-dir:data/activity-log-archive}") String directory) {
+        this.directory = Paths.get(directory);
+    }
+
+    @PostConstruct
+    public void load() throws IOException {
+        Files.createDirectories(directory);
+        // The newest generation of each range
+        Map<String, Path> latest = new HashMap<>();
+        List<Path> superseded = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*")) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                if (name.endsWith(SEGMENT_SUFFIX + ".tmp")) {
+                    // Left behind by an archiver run that did not finish; its rows are still in activity_logs
+                    Files.deleteIfExists(file);
+                } else if (SEGMENT_NAME.matcher(name).matches()) {
+                    String rangeName = rangeName(file);
+                    Path previous = latest.get(rangeName);
+                    if (previous == null || generation(file) > generation(previous)) {
+                        latest.put(rangeName, file);
+                        if (previous != null) {
+                            superseded.add(previous);
+                        }
+                    } else {
+                        superseded.add(file);
+                    }
+                }
+            }
+        }
+        // Older generations are kept while running, since a reader may still be paging through them
+        for (Path file : superseded) {
+            Files.deleteIfExists(file);
+        }
+        List<ActivityLogSegment> loaded = new ArrayList<>();
+        for (Path file : latest.values()) {
+            loaded.add(ActivityLogSegment.open(file));
+        }
+        segments = newestFirst(loaded);
+        logger.info("Loaded {} activity log segments from {}", loaded.size(), directory.toAbsolutePath());
+    }
+
+    // Where the first segment of an archived range (partition or month) lives
+    public Path segmentPath(String rangeName) {
+        return directory.resolve(SEGMENT_PREFIX + rangeName + SEGMENT_SUFFIX);
+    }
+
+    // Where the next generation of a range's segment is written
+    public Path nextSegmentPath(String rangeName) {
+        ActivityLogSegment current = findSegment(rangeName);
+        return current == null ? segmentPath(rangeName)
+                : directory.resolve(SEGMENT_PREFIX + rangeName + "." + (generation(current.getPath()) + 1)
+                        + SEGMENT_SUFFIX);
+    }
+
+    // The current segment of an archived range, or null when none has been written
+    public ActivityLogSegment findSegment(String rangeName) {
+        for (ActivityLogSegment segment : segments) {
+            if (rangeName(segment.getPath()).equals(rangeName)) {
+                return segment;
+            }
+        }
+        return null;
+    }
+
+    // Adds a segment, replacing the previous generation of its range
+    public void add(ActivityLogSegment segment) {
+        addLock.lock();
+        try {
+            String rangeName = rangeName(segment.getPath());
+            List<ActivityLogSegment> updated = new ArrayList<>(segments);
+            updated.removeIf(existing -> rangeName(existing.getPath()).equals(rangeName));
+            updated.add(segment);
+            segments = newestFirst(updated);
+        } finally {
+            addLock.unlock();
+        }
+    }
+
+    public List<ActivityLogSegment> getSegments() {
+        return segments;
+    }
+
+    // Start of the day after the newest archived log, or null when nothing is archived.
+    // Archived ranges end on month boundaries, so every log from here on is still in activity_logs.
+    public LocalDateTime getArchivedBefore() {
+        List<ActivityLogSegment> current = segments;
+        return current.isEmpty() ? null
+                : current.get(0).getMaxTimestamp().truncatedTo(ChronoUnit.DAYS).plusDays(1);
+    }
+
+    public long countByUserId(String userId) {
+        long count = 0;
+        for (ActivityLogSegment segment : segments) {
+            count += segment.countFor(userId);
+        }
+        return count;
+    }
+
+    // A user's archived logs, newest first, skipping the first offset of them
+    public List<ActivityLogDTO> findByUserId(String userId, long offset, int limit) {
+        List<ActivityLogDTO> logs = new ArrayList<>(limit);
+        long skip = offset;
+        try {
+            for (ActivityLogSegment segment : segments) {
+                List<ActivityLogSegment.Block> blocks = segment.blocksFor(userId);
+                for (int b = blocks.size() - 1; b >= 0 && logs.size() < limit; b--) {
+                    ActivityLogSegment.Block block = blocks.get(b);
+                    // Whole blocks before the offset are skipped without being read
+                    if (skip >= block.rowCount()) {
+                        skip -= block.rowCount();
+                        continue;
+                    }
+                    List<ActivityLogDTO> rows = segment.readBlock(block);
+                    for (int i = rows.size() - 1 - (int) skip; i >= 0 && logs.size() < limit; i--) {
+                        logs.add(rows.get(i));
+                    }
+                    skip = 0;
+                }
+                if (logs.size() == limit) {
+                    break;
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read archived activity logs for userId: " + userId, e);
+        }
+        return logs;
+    }
+
+    private static String rangeName(Path file) {
+        return segmentName(file).group(1);
+    }
+
+    private static int generation(Path file) {
+        String generation = segmentName(file).group(2);
+        return generation == null ? 0 : Integer.parseInt(generation);
+    }
+
+    private static Matcher segmentName(Path file) {
+        Matcher matcher = SEGMENT_NAME.matcher(file.getFileName().toString());
+        if (!matcher.matches()) {
+            throw new IllegalArgumentException("Not an activity log segment name: " + file);
+        }
+        return matcher;
+    }
+
+    private static List<ActivityLogSegment> newestFirst(List<ActivityLogSegment> segments) {
+        return segments.stream()
+                .filter(segment -> segment.getRowCount() > 0)
+                .sorted(Comparator.comparing(ActivityLogSegment::getMaxTimestamp).reversed())
+                .toList();
+    }
+}
@@ -0,0 +1,400 @@
+package com.recky.demo.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.recky.demo.dto.ActivityLogDTO;
+
+/**
+ * Keeps activity_logs bounded: logs older than activity-log.retention.days are moved into
+ * {@link ActivityLogArchive} segments and removed from the table.
+ *
+ * When the table is partitioned by month (the opt-in MySQL migration in db/partitioning), the
+ * job keeps partitions created a few months ahead, archives a partition once its whole range is
+ * past retention and then drops it, which frees its space at once. Otherwise it archives month
+ * by month and deletes the rows in batches. A range is fully written to its segment before any
+ * row is removed, and only rows the segment holds are removed. A range that is visited again
+ * (a run stopped half-way, or logs arrived late, e.g. replayed from the write-behind spill file)
+ * has its remaining rows merged into a new generation of its segment first.
+ */
+@Component
+@ConditionalOnProperty(name = "activity-log.retention.enabled", havingValue = "true")
+public class ActivityLogArchiver {
+
+    // A MySQL partition of activity_logs; upperBound is null for the MAXVALUE partition
+    record Partition(String name, LocalDateTime upperBound) {
+    }
+
+    // What is archived as one segment: a partition, or a month of an unpartitioned table.
+    // from is null when the range has no lower bound.
+    record ArchiveRange(String name, String partition, LocalDateTime from, LocalDateTime to) {
+    }
+
+    private static final Logger logger = LoggerFactory.getLogger(ActivityLogArchiver.class);
+
+    private static final String SELECT_LOGS = "SELECT id, user_id, action, timestamp, details FROM activity_logs";
+    private static final String PARTITIONS_SQL = "SELECT PARTITION_NAME AS name, "
+            + "CASE WHEN PARTITION_DESCRIPTION = 'MAXVALUE' THEN NULL "
+            + "ELSE FROM_UNIXTIME(PARTITION_DESCRIPTION) END AS upper_bound "
+            + "FROM information_schema.PARTITIONS "
+            + "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'activity_logs' AND PARTITION_NAME IS NOT NULL "
+            + "ORDER BY PARTITION_ORDINAL_POSITION";
+
+    // Partitions and month segments are both named after the month they hold: p202611
+    private static final DateTimeFormatter MONTH_NAME = DateTimeFormatter.ofPattern("'p'yyyyMM");
+    private static final DateTimeFormatter SQL_DATETIME = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final Pattern PARTITION_NAME = Pattern.compile("\\w+");
+    private static final int FETCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ActivityLogArchive archive;
+    private final int retentionDays;
+    private final int partitionsAhead;
+    private final int deleteBatchSize;
+
+    // One run at a time, whether scheduled or called directly
+    private final ReentrantLock runLock = new ReentrantLock();
+
+    private volatile Boolean mySql;
+
+    public ActivityLogArchiver(JdbcTemplate jdbcTemplate,
+            ActivityLogArchive archive,
+            @Value("${activity-log.retention.days:180}") int retentionDays,
+            @Value("${activity-log.retention.partitions-ahead:3}") int partitionsAhead,
+            @Value("${activity-log.retention.delete-batch-size:5000}") int deleteBatchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.archive = archive;
+        this.retentionDays = retentionDays;
+        this.partitionsAhead = partitionsAhead;
+        this.deleteBatchSize = deleteBatchSize;
+    }
+
+    @Scheduled(cron = "${activity-log.retention.cron:0 30 3 * * *}")
+    public void run() {
+        try {
+            archiveExpired(LocalDateTime.now());
+        } catch (DataAccessException | UncheckedIOException e) {
+            logger.error("Activity log retention run failed", e);
+        }
+    }
+
+    // Returns the number of rows moved out of activity_logs
+    public long archiveExpired(LocalDateTime now) {
+        runLock.lock();
+        try {
+            LocalDateTime cutoff = now.minusDays(retentionDays);
+            List<Partition> partitions = partitions();
+
+            long moved = 0;
+            for (ArchiveRange range : partitions.isEmpty() ? expiredMonths(cutoff)
+                    : expiredPartitions(partitions, cutoff)) {
+                moved += archive(range);
+            }
+            if (!partitions.isEmpty()) {
+                addPartitionsAhead(partitions(), now);
+            }
+            return moved;
+        } finally {
+            runLock.unlock();
+        }
+    }
+
+    // Partitions whose whole range is older than the cutoff
+    private static List<ArchiveRange> expiredPartitions(List<Partition> partitions, LocalDateTime cutoff) {
+        List<ArchiveRange> ranges = new ArrayList<>();
+        LocalDateTime from = null;
+        for (Partition partition : partitions) {
+            if (partition.upperBound() == null || partition.upperBound().isAfter(cutoff)) {
+                break;
+            }
+            ranges.add(new ArchiveRange(partition.name(), partition.name(), from, partition.upperBound()));
+            from = partition.upperBound();
+        }
+        return ranges;
+    }
+
+    // Calendar months, from the oldest log on, that ended before the cutoff
+    private List<ArchiveRange> expiredMonths(LocalDateTime cutoff) {
+        Timestamp oldest = jdbcTemplate.queryForObject("SELECT MIN(timestamp) FROM activity_logs", Timestamp.class);
+        List<ArchiveRange> ranges = new ArrayList<>();
+        if (oldest == null) {
+            return ranges;
+        }
+        LocalDateTime month = oldest.toLocalDateTime().truncatedTo(ChronoUnit.DAYS).withDayOfMonth(1);
+        while (!month.plusMonths(1).isAfter(cutoff)) {
+            ranges.add(new ArchiveRange(month.format(MONTH_NAME), null, month, month.plusMonths(1)));
+            month = month.plusMonths(1);
+        }
+        return ranges;
+    }
+
+    private long archive(ArchiveRange range) {
+        ActivityLogSegment previous = archive.findSegment(range.name());
+        if (previous != null) {
+            // A run stopped half-way, or logs of the range arrived after it was archived
+            logger.info("Segment {} already written, merging what is left of {} into it", previous.getPath(),
+                    range.name());
+        }
+        ActivityLogSegment segment = jdbcTemplate.execute(
+                (ConnectionCallback<ActivityLogSegment>) connection -> writeSegment(connection, range, previous));
+
+        long rows = range.partition() != null ? dropPartition(range, segment) : deleteArchived(segment);
+        logger.info("Archived {} activity logs of {} to {}", rows, range.name(),
+                segment != null ? segment.getPath() : "no segment");
+        return rows;
+    }
+
+    // Writes the range's rows, merged with those of its previous segment, to a new segment.
+    // Returns the previous segment when the table holds nothing it lacks, and null when both are empty.
+    private ActivityLogSegment writeSegment(Connection connection, ArchiveRange range, ActivityLogSegment previous)
+            throws SQLException {
+        String sql = range.partition() != null
+                ? SELECT_LOGS + " PARTITION (" + range.partition() + ") ORDER BY user_id, timestamp, id"
+                : SELECT_LOGS + " WHERE timestamp >= ? AND timestamp < ? ORDER BY user_id, timestamp, id";
+        Path path = archive.nextSegmentPath(range.name());
+
+        try (ActivityLogSegment.Writer writer = ActivityLogSegment.create(path);
+                PreparedStatement statement = connection.prepareStatement(sql)) {
+            // Streams the range instead of loading it (needs useCursorFetch=true on MySQL)
+            statement.setFetchSize(FETCH_SIZE);
+            if (range.partition() == null) {
+                statement.setTimestamp(1, Timestamp.valueOf(range.from()));
+                statement.setTimestamp(2, Timestamp.valueOf(range.to()));
+            }
+
+            long added = 0;
+            Set<String> merged = new HashSet<>();
+            ArchivedRows archived = null;
+            try (ResultSet row = statement.executeQuery()) {
+                while (row.next()) {
+                    ActivityLogDTO log = new ActivityLogDTO(row.getLong("id"), row.getString("user_id"),
+                            row.getString("action"), row.getTimestamp("timestamp").toLocalDateTime(),
+                            row.getString("details"));
+                    if (archived == null || !archived.userId.equals(log.getUserId())) {
+                        if (archived != null) {
+                            archived.copyRest(writer);
+                        }
+                        if (!merged.add(log.getUserId())) {
+                            throw new IllegalStateException("Rows of user " + log.getUserId()
+                                    + " are not contiguous in activity_logs order; not archiving " + range.name());
+                        }
+                        archived = new ArchivedRows(previous, log.getUserId());
+                    }
+                    // Both sides are in (timestamp, id) order; a row already archived is written once
+                    archived.copyBefore(log, writer);
+                    if (archived.skip(log.getId())) {
+                        writer.append(log);
+                        added++;
+                    }
+                }
+            }
+            if (archived != null) {
+                archived.copyRest(writer);
+            }
+            if (added == 0) {
+                // Nothing new: the unfinished file is discarded on close
+                return previous;
+            }
+            if (previous != null) {
+                for (String userId : previous.getUserIds()) {
+                    if (!merged.contains(userId)) {
+                        new ArchivedRows(previous, userId).copyRest(writer);
+                    }
+                }
+            }
+            ActivityLogSegment segment = writer.finish();
+            archive.add(segment);
+            return segment;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write activity log segment " + path, e);
+        }
+    }
+
+    // Drops the partition once every row in it is in the segment. The table is locked for writes
+    // meanwhile, so no log lands in the partition between the check and the drop.
+    private long dropPartition(ArchiveRange range, ActivityLogSegment segment) {
+        return jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("LOCK TABLES activity_logs WRITE");
+                try {
+                    long rows;
+                    try (ResultSet count = statement.executeQuery(
+                            "SELECT COUNT(*) FROM activity_logs PARTITION (" + range.partition() + ")")) {
+                        count.next();
+                        rows = count.getLong(1);
+                    }
+                    // Rows of an archived partition are only ever added, so a count that differs means logs
+                    // arrived after the segment was written
+                    if (rows != (segment != null ? segment.getRowCount() : 0)) {
+                        writeSegment(connection, range, segment);
+                    }
+                    statement.execute("ALTER TABLE activity_logs DROP PARTITION " + range.partition());
+                    return rows;
+                } finally {
+                    statement.execute("UNLOCK TABLES");
+                }
+            }
+        });
+    }
+
+    // Deletes the segment's rows by id, deleteBatchSize at a time, so no single statement holds locks on
+    // a whole month and no row the segment lacks is removed. Returns the number of rows deleted.
+    private long deleteArchived(ActivityLogSegment segment) {
+        if (segment == null) {
+            return 0;
+        }
+        long deleted = 0;
+        List<Long> ids = new ArrayList<>(deleteBatchSize);
+        try {
+            for (String userId : segment.getUserIds()) {
+                for (ActivityLogSegment.Block block : segment.blocksFor(userId)) {
+                    for (ActivityLogDTO log : segment.readBlock(block)) {
+                        ids.add(log.getId());
+                        if (ids.size() == deleteBatchSize) {
+                            deleted += deleteIds(ids);
+                        }
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read activity log segment " + segment.getPath(), e);
+        }
+        return ids.isEmpty() ? deleted : deleted + deleteIds(ids);
+    }
+
+    private long deleteIds(List<Long> ids) {
+        String placeholders = String.join(", ", Collections.nCopies(ids.size(), "?"));
+        int deleted = jdbcTemplate.update("DELETE FROM activity_logs WHERE id IN (" + placeholders + ")",
+                ids.toArray());
+        ids.clear();
+        return deleted;
+    }
+
+    // Splits monthly partitions off the MAXVALUE partition until partitionsAhead months past this one are covered
+    private void addPartitionsAhead(List<Partition> partitions, LocalDateTime now) {
+        LocalDateTime thisMonth = now.truncatedTo(ChronoUnit.DAYS).withDayOfMonth(1);
+        LocalDateTime month = partitions.stream()
+                .map(Partition::upperBound)
+                .filter(Objects::nonNull)
+                .max(LocalDateTime::compareTo)
+                .orElse(thisMonth);
+        LocalDateTime until = thisMonth.plusMonths(partitionsAhead + 1L);
+
+        List<String> added = new ArrayList<>();
+        for (; month.isBefore(until); month = month.plusMonths(1)) {
+            added.add("PARTITION " + month.format(MONTH_NAME) + " VALUES LESS THAN (UNIX_TIMESTAMP('"
+                    + month.plusMonths(1).format(SQL_DATETIME) + "'))");
+        }
+        if (added.isEmpty()) {
+            return;
+        }
+
+        Partition last = partitions.get(partitions.size() - 1);
+        if (last.upperBound() == null) {
+            added.add("PARTITION " + last.name() + " VALUES LESS THAN MAXVALUE");
+            jdbcTemplate.execute("ALTER TABLE activity_logs REORGANIZE PARTITION " + last.name() + " INTO ("
+                    + String.join(", ", added) + ")");
+        } else {
+            jdbcTemplate.execute("ALTER TABLE activity_logs ADD PARTITION (" + String.join(", ", added) + ")");
+        }
+        logger.info("Added {} monthly activity_logs partitions up to {}", added.size(), until);
+    }
+
+    // Empty unless the table is partitioned on MySQL
+    List<Partition> partitions() {
+        if (!isMySql()) {
+            return List.of();
+        }
+        return jdbcTemplate.query(PARTITIONS_SQL, (row, rowNum) -> {
+            String name = row.getString("name");
+            if (!PARTITION_NAME.matcher(name).matches()) {
+                throw new IllegalStateException("Unexpected activity_logs partition name: " + name);
+            }
+            Timestamp upperBound = row.getTimestamp("upper_bound");
+            return new Partition(name, upperBound != null ? upperBound.toLocalDateTime() : null);
+        });
+    }
+
+    private boolean isMySql() {
+        if (mySql == null) {
+            String database = jdbcTemplate.execute(
+                    (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+            mySql = "MySQL".equalsIgnoreCase(database) || "MariaDB".equalsIgnoreCase(database);
+        }
+        return mySql;
+    }
+
+    // One user's rows in a segment, oldest first, decompressed a block at a time
+    private static final class ArchivedRows {
+
+        private final String userId;
+        private final ActivityLogSegment segment;
+        private final Iterator<ActivityLogSegment.Block> blocks;
+        private Iterator<ActivityLogDTO> rows = Collections.emptyIterator();
+        private ActivityLogDTO next;
+
+        ArchivedRows(ActivityLogSegment segment, String userId) throws IOException {
+            this.userId = userId;
+            this.segment = segment;
+            this.blocks = segment != null ? segment.blocksFor(userId).iterator() : Collections.emptyIterator();
+            advance();
+        }
+
+        // Copies the archived rows that sort before the log
+        void copyBefore(ActivityLogDTO log, ActivityLogSegment.Writer writer) throws IOException {
+            while (next != null && (next.getTimestamp().isBefore(log.getTimestamp())
+                    || next.getTimestamp().equals(log.getTimestamp()) && next.getId() < log.getId())) {
+                writer.append(next);
+                advance();
+            }
+        }
+
+        // False when the next archived row is the log itself, which is then written from the archive
+        boolean skip(long id) {
+            return next == null || next.getId() != id;
+        }
+
+        void copyRest(ActivityLogSegment.Writer writer) throws IOException {
+            while (next != null) {
+                writer.append(next);
+                advance();
+            }
+        }
+
+        private void advance() throws IOException {
+            while (!rows.hasNext() && blocks.hasNext()) {
+                rows = segment.readBlock(blocks.next()).iterator();
+            }
+            next = rows.hasNext() ? rows.next() : null;
+        }
+    }
+}
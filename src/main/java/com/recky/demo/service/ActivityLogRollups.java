@@ -0,0 +1,267 @@
+package com.recky.demo.service;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.recky.demo.dao.ActivityLogRepository;
+import com.recky.demo.dao.ActivityLogRollupRepository;
+import com.recky.demo.dto.ActivityLogActionCount;
+import com.recky.demo.dto.ActivityLogHourlyCount;
+import com.recky.demo.dto.ActivityLogStatsDTO;
+import com.recky.demo.model.ActivityLog;
+import com.recky.demo.model.ActivityLogRollup.Granularity;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Incrementally maintained activity log counters.
+ *
+ * Every logged activity bumps an in-memory LongAdder keyed by (user, action, hour).
+ * A scheduled job upserts the accumulated deltas into activity_log_rollups at both
+ * HOUR and DAY granularity, so stats are answered from a handful of rollup rows
+ * instead of scanning activity_logs. A nightly reconcile job rebuilds the rollups of the
+ * days before the current one from the raw logs to repair any drift (e.g. write-behind
+ * entries that were later dropped). Rollups of logs that have been archived out of
+ * activity_logs are left as they are.
+ *
+ * The first start with rollups enabled finds activity_log_rollups empty and backfills it
+ * from every log in activity_logs, so stats are complete from the start rather than after
+ * the first nightly reconcile (which never rebuilds the current day).
+ *
+ * Stats windows are answered at hour granularity: from and to are rounded out to whole
+ * hours, so a window that does not start and end on the hour counts every log of the
+ * hours it touches. Without rollups the same window counts only the logs inside it.
+ */
+@Component
+@ConditionalOnProperty(name = "activity-log.rollups.enabled", havingValue = "true")
+public class ActivityLogRollups {
+
+    private record CounterKey(String userId, ActivityLog.Action action, LocalDateTime hour) {
+    }
+
+    private static final Logger logger = LoggerFactory.getLogger(ActivityLogRollups.class);
+
+    private static final String UPSERT_SQL = "INSERT INTO activity_log_rollups (granularity, bucket_start, user_id, action, log_count) "
+            + "VALUES (?, ?, ?, ?, ?) ON DUPLICATE KEY UPDATE log_count = log_count + VALUES(log_count)";
+
+    private final ConcurrentHashMap<CounterKey, LongAdder> counters = new ConcurrentHashMap<>();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ActivityLogRepository activityLogRepository;
+    private final ActivityLogRollupRepository rollupRepository;
+
+    // Present only when activity-log.retention.enabled=true
+    @Autowired(required = false)
+    private ActivityLogArchive archive;
+
+    // Present only when activity-log.async.enabled=true
+    @Autowired(required = false)
+    private ActivityLogWriteBehind writeBehind;
+
+    // Serializes flushes with reconciles so a rebuild never interleaves with an upsert.
+    // A ReentrantLock rather than synchronized, so a virtual thread blocked on JDBC inside it is not pinned.
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    public ActivityLogRollups(JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            ActivityLogRepository activityLogRepository,
+            ActivityLogRollupRepository rollupRepository) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.activityLogRepository = activityLogRepository;
+        this.rollupRepository = rollupRepository;
+    }
+
+    public void record(String userId, ActivityLog.Action action, LocalDateTime timestamp) {
+        add(new CounterKey(userId, action, timestamp.truncatedTo(ChronoUnit.HOURS)), 1);
+    }
+
+    // Adds inside compute(), which holds the key's bin, so flush() cannot remove the adder between
+    // looking it up and adding to it
+    private void add(CounterKey key, long delta) {
+        counters.compute(key, (k, adder) -> {
+            LongAdder counter = adder != null ? adder : new LongAdder();
+            counter.add(delta);
+            return counter;
+        });
+    }
+
+    // Stats for one user. With no window the DAY tier is used; a window is resolved at hour granularity:
+    // both bounds are rounded out to whole hours, so every hour the window touches counts in full.
+    public ActivityLogStatsDTO getUserStats(String userId, LocalDateTime from, LocalDateTime to) {
+        Granularity tier = (from == null && to == null) ? Granularity.DAY : Granularity.HOUR;
+        LocalDateTime bucketFrom = hourStart(from);
+        LocalDateTime bucketTo = hourEnd(to);
+        List<ActivityLogActionCount> flushed = rollupRepository.sumByActionForUser(tier, userId, bucketFrom,
+                bucketTo);
+        return ActivityLogStatsDTO.fromCounts(withPending(flushed, userId, bucketFrom, bucketTo));
+    }
+
+    public ActivityLogStatsDTO getAllStats(LocalDateTime from, LocalDateTime to) {
+        Granularity tier = (from == null && to == null) ? Granularity.DAY : Granularity.HOUR;
+        LocalDateTime bucketFrom = hourStart(from);
+        LocalDateTime bucketTo = hourEnd(to);
+        List<ActivityLogActionCount> flushed = rollupRepository.sumByAction(tier, bucketFrom, bucketTo);
+        return ActivityLogStatsDTO.fromCounts(withPending(flushed, null, bucketFrom, bucketTo));
+    }
+
+    // Start of the hour bucket the window starts in
+    private static LocalDateTime hourStart(LocalDateTime from) {
+        return from != null ? from.truncatedTo(ChronoUnit.HOURS) : null;
+    }
+
+    // End of the hour bucket the window ends in; an exclusive bound on the hour is kept as it is
+    private static LocalDateTime hourEnd(LocalDateTime to) {
+        if (to == null) {
+            return null;
+        }
+        LocalDateTime hour = to.truncatedTo(ChronoUnit.HOURS);
+        return hour.equals(to) ? to : hour.plusHours(1);
+    }
+
+    // Add counts that are still in memory and have not been flushed yet; from and to are hour bounds
+    private Map<ActivityLog.Action, Long> withPending(List<ActivityLogActionCount> flushed, String userId,
+            LocalDateTime from, LocalDateTime to) {
+        Map<ActivityLog.Action, Long> actionCounts = new EnumMap<>(ActivityLog.Action.class);
+        for (ActivityLogActionCount count : flushed) {
+            actionCounts.merge(count.getAction(), count.getCount(), Long::sum);
+        }
+        counters.forEach((key, adder) -> {
+            if ((userId == null || userId.equals(key.userId()))
+                    && (from == null || !key.hour().isBefore(from))
+                    && (to == null || key.hour().isBefore(to))) {
+                actionCounts.merge(key.action(), adder.sum(), Long::sum);
+            }
+        });
+        return actionCounts;
+    }
+
+    @Scheduled(fixedDelayString = "${activity-log.rollups.flush-interval-ms:10000}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            LocalDateTime currentHour = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS);
+            Map<CounterKey, Long> deltas = new HashMap<>();
+
+            for (CounterKey key : counters.keySet()) {
+                // Closed hours are removed once drained; the current hour keeps its adder
+                counters.computeIfPresent(key, (k, adder) -> {
+                    long delta = adder.sumThenReset();
+                    if (delta > 0) {
+                        deltas.put(k, delta);
+                    }
+                    return k.hour().isBefore(currentHour) ? null : adder;
+                });
+            }
+
+            if (deltas.isEmpty()) {
+                return;
+            }
+
+            try {
+                upsert(deltas);
+            } catch (Exception e) {
+                // Put the deltas back so the next flush retries them
+                logger.error("Failed to flush {} activity log rollup buckets", deltas.size(), e);
+                deltas.forEach(this::add);
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    // Runs before the scheduler and the web server start, so nothing has been counted in memory yet
+    // and every log up to now comes from activity_logs
+    @PostConstruct
+    public void backfillIfEmpty() {
+        if (rollupRepository.count() > 0) {
+            return;
+        }
+        logger.info("No activity log rollups yet, backfilling them from activity_logs");
+        reconcile(LocalDateTime.now());
+    }
+
+    @Scheduled(cron = "${activity-log.rollups.reconcile-cron:0 0 3 * * *}")
+    public void reconcile() {
+        reconcile(LocalDate.now().atStartOfDay());
+    }
+
+    // Rebuilds the rollups before the cutoff. The cutoff must be the start of a day unless no
+    // rollups exist yet, as on the first-start backfill. Counters and rollups from the cutoff on
+    // are left alone, so logs written while the rebuild runs are counted exactly once.
+    void reconcile(LocalDateTime cutoff) {
+        // Queued logs are already in the counters but not yet in activity_logs
+        if (writeBehind != null) {
+            writeBehind.flushPending();
+        }
+
+        flushLock.lock();
+        try {
+            logger.info("Rebuilding activity log rollups before {} from activity_logs", cutoff);
+
+            // Raw logs include everything counted in memory before the cutoff
+            counters.keySet().removeIf(key -> key.hour().isBefore(cutoff));
+
+            // Logs before this day were moved to the archive; their rollups are the only counts left
+            LocalDateTime from = archive != null ? archive.getArchivedBefore() : null;
+            Map<CounterKey, Long> hourly = new HashMap<>();
+            for (ActivityLogHourlyCount row : activityLogRepository.countHourlyBuckets(from, cutoff)) {
+                LocalDateTime hour = LocalDateTime.of(row.getBucketYear(), row.getBucketMonth(), row.getBucketDay(),
+                        row.getBucketHour(), 0);
+                hourly.merge(new CounterKey(row.getUserId(), row.getAction(), hour), row.getCount(), Long::sum);
+            }
+
+            transactionTemplate.executeWithoutResult(status -> {
+                rollupRepository.deleteRollupsBetween(from, cutoff);
+                upsert(hourly);
+            });
+            logger.info("Rebuilt activity log rollups from {} hourly buckets", hourly.size());
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    // Upsert hourly deltas into the HOUR tier and their day totals into the DAY tier
+    private void upsert(Map<CounterKey, Long> hourly) {
+        Map<CounterKey, Long> daily = new HashMap<>();
+        hourly.forEach((key, delta) -> daily.merge(
+                new CounterKey(key.userId(), key.action(), key.hour().truncatedTo(ChronoUnit.DAYS)), delta,
+                Long::sum));
+
+        List<Object[]> rows = new ArrayList<>(hourly.size() + daily.size());
+        hourly.forEach((key, delta) -> rows.add(toRow(Granularity.HOUR, key, delta)));
+        daily.forEach((key, delta) -> rows.add(toRow(Granularity.DAY, key, delta)));
+        jdbcTemplate.batchUpdate(UPSERT_SQL, rows);
+    }
+
+    private Object[] toRow(Granularity granularity, CounterKey key, long delta) {
+        return new Object[] { granularity.name(), Timestamp.valueOf(key.hour()), key.userId(), key.action().name(),
+                delta };
+    }
+}
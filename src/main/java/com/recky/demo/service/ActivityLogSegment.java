@@ -0,0 +1,332 @@
+package com.recky.demo.service;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import com.recky.demo.dto.ActivityLogDTO;
+import com.recky.demo.model.ActivityLog;
+
+/**
+ * An immutable file of archived activity logs.
+ *
+ * Rows are stored grouped by user, oldest first, in blocks that each hold one user's rows.
+ * A block is laid out column by column (ids, timestamps, actions, details) and gzip-compressed
+ * on its own, so a read decompresses only the blocks of the user it asks for. The footer
+ * indexes every block by user and time range; it is read once when the segment is opened.
+ *
+ * Layout: MAGIC, blocks..., footer, footer offset (long), MAGIC.
+ */
+public final class ActivityLogSegment {
+
+    // One entry of the footer index
+    public record Block(String userId, LocalDateTime minTimestamp, LocalDateTime maxTimestamp, int rowCount,
+            long offset, int length) {
+    }
+
+    private static final int MAGIC = 0x414c5347; // "ALSG"
+    private static final int TRAILER_LENGTH = Long.BYTES + Integer.BYTES;
+    // Large enough to compress well, small enough that paging one user's history stays cheap
+    static final int MAX_BLOCK_ROWS = 4096;
+
+    private static final ActivityLog.Action[] ACTIONS = ActivityLog.Action.values();
+
+    private final Path path;
+    private final Map<String, List<Block>> blocksByUser;
+    private final LocalDateTime minTimestamp;
+    private final LocalDateTime maxTimestamp;
+    private final long rowCount;
+
+    private ActivityLogSegment(Path path, List<Block> blocks) {
+        this.path = path;
+        Map<String, List<Block>> byUser = new LinkedHashMap<>();
+        LocalDateTime min = null;
+        LocalDateTime max = null;
+        long rows = 0;
+        for (Block block : blocks) {
+            byUser.computeIfAbsent(block.userId(), userId -> new ArrayList<>()).add(block);
+            min = min == null || block.minTimestamp().isBefore(min) ? block.minTimestamp() : min;
+            max = max == null || block.maxTimestamp().isAfter(max) ? block.maxTimestamp() : max;
+            rows += block.rowCount();
+        }
+        this.blocksByUser = byUser;
+        this.minTimestamp = min;
+        this.maxTimestamp = max;
+        this.rowCount = rows;
+    }
+
+    // Reads the footer index; block data is read on demand
+    public static ActivityLogSegment open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < Integer.BYTES + TRAILER_LENGTH) {
+                throw new IOException("Not an activity log segment: " + path);
+            }
+            ByteBuffer trailer = read(channel, size - TRAILER_LENGTH, TRAILER_LENGTH);
+            long footerOffset = trailer.getLong();
+            if (trailer.getInt() != MAGIC || footerOffset < Integer.BYTES || footerOffset > size - TRAILER_LENGTH) {
+                throw new IOException("Not an activity log segment: " + path);
+            }
+
+            ByteBuffer footerBytes = read(channel, footerOffset, (int) (size - TRAILER_LENGTH - footerOffset));
+            DataInputStream footer = new DataInputStream(
+                    new ByteArrayInputStream(footerBytes.array(), 0, footerBytes.limit()));
+            int blockCount = footer.readInt();
+            List<Block> blocks = new ArrayList<>(blockCount);
+            for (int i = 0; i < blockCount; i++) {
+                blocks.add(new Block(footer.readUTF(), fromMicros(footer.readLong()), fromMicros(footer.readLong()),
+                        footer.readInt(), footer.readLong(), footer.readInt()));
+            }
+            return new ActivityLogSegment(path, blocks);
+        }
+    }
+
+    // Writes a new segment to a temporary file; finish() moves it into place
+    public static Writer create(Path path) throws IOException {
+        return new Writer(path);
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    // Null for an empty segment
+    public LocalDateTime getMinTimestamp() {
+        return minTimestamp;
+    }
+
+    public LocalDateTime getMaxTimestamp() {
+        return maxTimestamp;
+    }
+
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    // Users in the order their rows were written
+    public Set<String> getUserIds() {
+        return Collections.unmodifiableSet(blocksByUser.keySet());
+    }
+
+    // The user's blocks, oldest first
+    public List<Block> blocksFor(String userId) {
+        return blocksByUser.getOrDefault(userId, Collections.emptyList());
+    }
+
+    public long countFor(String userId) {
+        long count = 0;
+        for (Block block : blocksFor(userId)) {
+            count += block.rowCount();
+        }
+        return count;
+    }
+
+    // The rows of one block, oldest first
+    public List<ActivityLogDTO> readBlock(Block block) throws IOException {
+        ByteBuffer compressed;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            compressed = read(channel, block.offset(), block.length());
+        }
+        try (DataInputStream in = new DataInputStream(new GZIPInputStream(
+                new ByteArrayInputStream(compressed.array(), 0, compressed.limit())))) {
+            int rows = in.readInt();
+            long[] ids = new long[rows];
+            long[] micros = new long[rows];
+            // Ids and timestamps are delta-encoded against the previous row
+            long previous = 0;
+            for (int i = 0; i < rows; i++) {
+                previous += in.readLong();
+                ids[i] = previous;
+            }
+            previous = 0;
+            for (int i = 0; i < rows; i++) {
+                previous += in.readLong();
+                micros[i] = previous;
+            }
+            byte[] actions = in.readNBytes(rows);
+
+            List<ActivityLogDTO> logs = new ArrayList<>(rows);
+            for (int i = 0; i < rows; i++) {
+                int length = in.readInt();
+                String details = length < 0 ? null : new String(in.readNBytes(length), StandardCharsets.UTF_8);
+                logs.add(new ActivityLogDTO(ids[i], block.userId(), ACTIONS[actions[i]].name(), fromMicros(micros[i]),
+                        details));
+            }
+            return logs;
+        }
+    }
+
+    private static ByteBuffer read(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Truncated activity log segment");
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    // Timestamps are stored as microseconds of the wall-clock value; no zone is applied
+    private static long toMicros(LocalDateTime timestamp) {
+        return ChronoUnit.MICROS.between(Instant.EPOCH, timestamp.toInstant(ZoneOffset.UTC));
+    }
+
+    private static LocalDateTime fromMicros(long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000L),
+                (int) Math.floorMod(micros, 1_000_000L) * 1000, ZoneOffset.UTC);
+    }
+
+    /**
+     * Streams rows into a new segment. Rows must arrive grouped by user and sorted by (timestamp, id)
+     * within each user; only the current block is held in memory.
+     */
+    public static final class Writer implements Closeable {
+
+        private final Path target;
+        private final Path temporary;
+        private final FileChannel channel;
+        private final OutputStream out;
+        private final List<Block> blocks = new ArrayList<>();
+        private final List<ActivityLogDTO> pending = new ArrayList<>();
+        private long position;
+        private long rowCount;
+        private boolean finished;
+
+        private Writer(Path target) throws IOException {
+            this.target = target;
+            this.temporary = target.resolveSibling(target.getFileName() + ".tmp");
+            this.channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+            this.out = new BufferedOutputStream(Channels.newOutputStream(channel));
+            writeBytes(intBytes(MAGIC));
+        }
+
+        public void append(ActivityLogDTO log) throws IOException {
+            if (!pending.isEmpty()) {
+                // Users are compared exactly; the database's collation decides only the order of the runs
+                if (!pending.get(0).getUserId().equals(log.getUserId()) || pending.size() == MAX_BLOCK_ROWS) {
+                    flushBlock();
+                }
+            }
+            pending.add(log);
+            rowCount++;
+        }
+
+        public long getRowCount() {
+            return rowCount;
+        }
+
+        // Writes the footer, syncs the file and moves it to its final name
+        public ActivityLogSegment finish() throws IOException {
+            flushBlock();
+
+            ByteArrayOutputStream footerBytes = new ByteArrayOutputStream();
+            DataOutputStream footer = new DataOutputStream(footerBytes);
+            footer.writeInt(blocks.size());
+            for (Block block : blocks) {
+                footer.writeUTF(block.userId());
+                footer.writeLong(toMicros(block.minTimestamp()));
+                footer.writeLong(toMicros(block.maxTimestamp()));
+                footer.writeInt(block.rowCount());
+                footer.writeLong(block.offset());
+                footer.writeInt(block.length());
+            }
+            long footerOffset = position;
+            writeBytes(footerBytes.toByteArray());
+            ByteBuffer trailer = ByteBuffer.allocate(TRAILER_LENGTH).putLong(footerOffset).putInt(MAGIC);
+            writeBytes(trailer.array());
+
+            out.flush();
+            channel.force(true);
+            out.close();
+            Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            finished = true;
+            return new ActivityLogSegment(target, blocks);
+        }
+
+        // Without finish() the partial file is discarded
+        @Override
+        public void close() throws IOException {
+            if (!finished) {
+                out.close();
+                Files.deleteIfExists(temporary);
+            }
+        }
+
+        private void flushBlock() throws IOException {
+            if (pending.isEmpty()) {
+                return;
+            }
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+            try (DataOutputStream block = new DataOutputStream(new GZIPOutputStream(compressed))) {
+                block.writeInt(pending.size());
+                long previous = 0;
+                for (ActivityLogDTO log : pending) {
+                    block.writeLong(log.getId() - previous);
+                    previous = log.getId();
+                }
+                previous = 0;
+                for (ActivityLogDTO log : pending) {
+                    long micros = toMicros(log.getTimestamp());
+                    block.writeLong(micros - previous);
+                    previous = micros;
+                }
+                for (ActivityLogDTO log : pending) {
+                    block.writeByte(ActivityLog.Action.valueOf(log.getAction()).ordinal());
+                }
+                for (ActivityLogDTO log : pending) {
+                    if (log.getDetails() == null) {
+                        block.writeInt(-1);
+                    } else {
+                        byte[] details = log.getDetails().getBytes(StandardCharsets.UTF_8);
+                        block.writeInt(details.length);
+                        block.write(details);
+                    }
+                }
+            }
+
+            byte[] bytes = compressed.toByteArray();
+            ActivityLogDTO first = pending.get(0);
+            ActivityLogDTO last = pending.get(pending.size() - 1);
+            blocks.add(new Block(first.getUserId(), first.getTimestamp(), last.getTimestamp(), pending.size(), position,
+                    bytes.length));
+            writeBytes(bytes);
+            pending.clear();
+        }
+
+        private void writeBytes(byte[] bytes) throws IOException {
+            out.write(bytes);
+            position += bytes.length;
+        }
+
+        private static byte[] intBytes(int value) {
+            return ByteBuffer.allocate(Integer.BYTES).putInt(value).array();
+        }
+    }
+}
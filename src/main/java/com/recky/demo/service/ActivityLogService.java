@@ -1,23 +1,32 @@
 package com.recky.demo.service;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
 import com.recky.demo.dao.ActivityLogRepository;
 import com.recky.demo.dto.ActivityLogDTO;
 import com.recky.demo.dto.ActivityLogStatsDTO;
+import com.recky.demo.jfr.AuditWriteEvent;
+import com.recky.demo.jfr.DtoMappingEvent;
 import com.recky.demo.model.ActivityLog;
 import com.recky.demo.model.ActivityLog.Action;
 import com.recky.demo.model.User;
+import com.recky.demo.util.CursorPage;
+import com.recky.demo.util.RequestTiming;
+import com.recky.demo.util.SeekCursor;
 
 @Service
 public class ActivityLogService {
@@ -26,6 +35,20 @@ public class ActivityLogService {
 
     private final UserService userService;
 
+    // Present only when activity-log.async.enabled=true
+    @Autowired(required = false)
+    private ActivityLogWriteBehind writeBehind;
+
+    // Present only when activity-log.rollups.enabled=true
+    @Autowired(required = false)
+    private ActivityLogRollups rollups;
+
+    // Present only when activity-log.retention.enabled=true
+    @Autowired(required = false)
+    private ActivityLogArchive archive;
+
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Order.desc("timestamp"), Sort.Order.desc("id"));
+
     private static final Logger logger = LoggerFactory.getLogger(ActivityLogService.class);
 
     @Autowired
@@ -35,20 +58,21 @@ public class ActivityLogService {
     }
 
     public ActivityLogDTO logActivity(String userId, String action, String details) {
+        // Shows up as "audit" in the per-request timing breakdown
+        boolean timed = RequestTiming.enter(RequestTiming.Phase.AUDIT);
+        AuditWriteEvent auditEvent = new AuditWriteEvent();
+        auditEvent.begin();
+        String outcome = AuditWriteEvent.FAILED;
         try {
             if (userId == null) {
                 throw new IllegalArgumentException("userId cannot be null");
             }
 
-            // Retrieve the user using Optional and handle absence
-            Optional<User> userOpt = userService.getUserById(userId);
-
-            if (userOpt.isEmpty()) {
-                logger.error("User not found with userId: {}", userId);
-                // throw new IllegalArgumentException("User not found with userId: " + userId);
+            if (writeBehind != null) {
+                ActivityLogDTO queued = enqueueActivity(userId, action, details);
+                outcome = AuditWriteEvent.QUEUED;
+                return queued;
             }
-            User user = userOpt.get();
-            logger.info("User found with userId: {}", userId);
 
             // Validate and parse action
             ActivityLog.Action actionEnum;
@@ -59,40 +83,78 @@ public class ActivityLogService {
                 throw new IllegalArgumentException("Invalid action provided: " + action, e);
             }
 
-            // Create and save activity log
-            ActivityLog activityLog = new ActivityLog(user, actionEnum, details);
-            ActivityLog savedLog = activityLogRepository.save(activityLog);
+            // Create and save activity log against a user reference; only the FK is needed
+            ActivityLog savedLog = userService.writeWithUserReference(userId,
+                    user -> activityLogRepository.save(new ActivityLog(user, actionEnum, details)));
+            recordRollup(userId, actionEnum, savedLog.getTimestamp());
 
             // Map to DTO and return
-            return mapToDTO(savedLog);
+            ActivityLogDTO saved = mapToDTO(savedLog);
+            outcome = AuditWriteEvent.SAVED;
+            return saved;
         } catch (Exception e) {
             logger.error("Error logging activity for userId: {}, action: {}, details: {}", userId, action, details, e);
             throw new RuntimeException("An error occurred while logging the activity", e);
+        } finally {
+            if (timed) {
+                RequestTiming.exit(RequestTiming.Phase.AUDIT);
+            }
+            auditEvent.end();
+            if (auditEvent.shouldCommit()) {
+                auditEvent.action = action;
+                auditEvent.outcome = outcome;
+                auditEvent.commit();
+            }
+        }
+    }
+
+    // Write-behind path: no user lookup and no insert on the request thread.
+    // The returned DTO has no id yet since the row is written later in a batch.
+    private ActivityLogDTO enqueueActivity(String userId, String action, String details) {
+        ActivityLog.Action actionEnum;
+        try {
+            actionEnum = ActivityLog.Action.valueOf(action.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            logger.error("Invalid action provided: {}", action, e);
+            throw new IllegalArgumentException("Invalid action provided: " + action, e);
+        }
+
+        LocalDateTime timestamp = LocalDateTime.now();
+        writeBehind.enqueue(new ActivityLogWriteBehind.PendingActivityLog(userId, actionEnum, timestamp, details));
+        recordRollup(userId, actionEnum, timestamp);
+        return new ActivityLogDTO(null, userId, actionEnum.name(), timestamp, details);
+    }
+
+    private void recordRollup(String userId, ActivityLog.Action action, LocalDateTime timestamp) {
+        if (rollups != null) {
+            rollups.record(userId, action, timestamp != null ? timestamp : LocalDateTime.now());
         }
     }
 
     public List<ActivityLogDTO> getLogsByUserId(String userId) {
-        List<ActivityLog> logs = activityLogRepository.findByUserId(userId);
-        return logs.stream().map(this::mapToDTO).collect(Collectors.toList());
+        return activityLogRepository.findDTOsByUserId(userId);
     }
 
     public List<ActivityLogDTO> getLogsByUserIdAndAction(String userId, String action) {
         try {
             Action actionEnum = Action.valueOf(action.toUpperCase());
-            List<ActivityLog> logs = activityLogRepository.findByUserIdAndAction(userId, actionEnum);
-            return logs.stream().map(this::mapToDTO).collect(Collectors.toList());
+            return activityLogRepository.findDTOsByUserIdAndAction(userId, actionEnum);
         } catch (IllegalArgumentException e) {
             throw new IllegalArgumentException("Invalid action type: " + action);
         }
     }
 
-    private ActivityLogDTO mapToDTO(ActivityLog activityLog) {
-        return new ActivityLogDTO(
+    // Package-private for the JMH benchmarks
+    ActivityLogDTO mapToDTO(ActivityLog activityLog) {
+        DtoMappingEvent mappingEvent = DtoMappingEvent.started();
+        ActivityLogDTO dto = new ActivityLogDTO(
                 activityLog.getId(),
                 activityLog.getUser().getId(),
                 activityLog.getAction().name(),
                 activityLog.getTimestamp(),
                 activityLog.getDetails());
+        mappingEvent.finish(ActivityLogDTO.class);
+        return dto;
     }
 
     // Some new and untested methods
@@ -109,83 +171,92 @@ public class ActivityLogService {
     }
 
     public Page<ActivityLogDTO> getPaginatedLogsByUserId(String userId, Pageable pageable) {
-        // Fetch paginated logs from the repository
-        Page<ActivityLog> logs = activityLogRepository.findByUserId(userId, pageable);
+        // Unsorted pages come back newest first, whether or not any of the user's logs are archived
+        if (pageable.isPaged() && pageable.getSort().isUnsorted()) {
+            pageable = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), NEWEST_FIRST);
+        }
+        long archived = archive != null && readsThroughArchive(pageable) ? archive.countByUserId(userId) : 0;
+        if (archived == 0) {
+            // Fetch paginated logs from the repository, projected straight into DTOs
+            return activityLogRepository.findDTOsByUserId(userId, pageable);
+        }
+
+        // Archived logs are all older than the table's, so newest first they follow its last row:
+        // a page is filled from the table and topped up from the archive once the table runs out
+        Page<ActivityLogDTO> hot = activityLogRepository.findDTOsByUserId(userId,
+                PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), NEWEST_FIRST));
+        List<ActivityLogDTO> logs = new ArrayList<>(hot.getContent());
+        if (logs.size() < pageable.getPageSize()) {
+            long archiveOffset = Math.max(0, pageable.getOffset() - hot.getTotalElements());
+            logs.addAll(archive.findByUserId(userId, archiveOffset, pageable.getPageSize() - logs.size()));
+        }
+        return new PageImpl<>(logs, pageable, hot.getTotalElements() + archived);
+    }
 
-        // Map the ActivityLog entities to ActivityLogDTO
-        Page<ActivityLogDTO> logDTOs = logs.map(this::mapToDTO);
+    // Archived logs can only be merged in newest-first order; other orderings page through the table alone
+    private static boolean readsThroughArchive(Pageable pageable) {
+        Sort sort = pageable.getSort();
+        return pageable.isPaged() && (sort.equals(NEWEST_FIRST)
+                || sort.equals(Sort.by(Sort.Direction.DESC, "timestamp")));
+    }
 
-        return logDTOs;
+    // Keyset-paginated logs for a user, newest first; cursor is null for the first slice
+    public CursorPage<ActivityLogDTO> getLogsByUserIdSeek(String userId, String cursor, int size) {
+        SeekCursor position = SeekCursor.decode(cursor);
+        Pageable limit = PageRequest.of(0, size);
+        Slice<ActivityLogDTO> slice = position == null
+                ? activityLogRepository.findDTOsByUserIdOrderByTimestampDescIdDesc(userId, limit)
+                : activityLogRepository.findDTOsByUserIdAfterCursor(userId, position.timestamp(), position.longId(),
+                        limit);
+
+        List<ActivityLogDTO> logs = slice.getContent();
+        String nextCursor = null;
+        if (slice.hasNext() && !logs.isEmpty()) {
+            ActivityLogDTO last = logs.get(logs.size() - 1);
+            nextCursor = SeekCursor.encode(last.getTimestamp(), last.getId());
+        }
+        return new CursorPage<>(logs, nextCursor);
     }
 
     public Page<ActivityLogDTO> getAdminLogsByUserId(String userId, Pageable pageable) {
-        Optional<User> userOpt = userService.getUserById(userId);
+        Optional<User> userOpt = userService.getCachedUserById(userId);
         if (userOpt.isEmpty() || !userOpt.get().getRole().equals(User.Role.ADMIN)) {
             throw new IllegalArgumentException("Unauthorized access: User is not an admin");
         }
 
-        // Fetch paginated admin logs
-        Page<ActivityLog> logs = activityLogRepository.findAll(pageable);
-
-        // Map the ActivityLog entities to ActivityLogDTO
-        Page<ActivityLogDTO> logDTOs = logs.map(this::mapToDTO);
-
-        return logDTOs;
+        // Fetch paginated admin logs, projected straight into DTOs
+        return activityLogRepository.findAllDTOs(pageable);
     }
 
 
 
     public ActivityLogStatsDTO getUserLogStats(String userId) {
+        return getUserLogStats(userId, null, null);
+    }
+
+    public ActivityLogStatsDTO getUserLogStats(String userId, LocalDateTime from, LocalDateTime to) {
         // Validate user exists
-        if (userService.getUserById(userId).isEmpty()) {
+        if (userService.getCachedUserById(userId).isEmpty()) {
             throw new IllegalArgumentException("User not found with userId: " + userId);
         }
 
-        // Retrieve logs for the specific user
-        List<ActivityLog> userLogs = activityLogRepository.findByUserId(userId);
-
-        // Group logs by action and count
-        Map<ActivityLog.Action, Long> actionCounts = userLogs.stream()
-            .collect(Collectors.groupingBy(
-                ActivityLog::getAction, 
-                Collectors.counting()
-            ));
-
-        // Calculate total logs
-        long totalLogs = userLogs.size();
+        if (rollups != null) {
+            return rollups.getUserStats(userId, from, to);
+        }
 
-        // Create and return stats DTO
-        return new ActivityLogStatsDTO(
-            actionCounts.getOrDefault(ActivityLog.Action.GET, 0L),
-            actionCounts.getOrDefault(ActivityLog.Action.CREATE, 0L),
-            actionCounts.getOrDefault(ActivityLog.Action.UPDATE, 0L),
-            actionCounts.getOrDefault(ActivityLog.Action.DELETE, 0L),
-            totalLogs
-        );
+        // Count logs per action in the database instead of loading them
+        return ActivityLogStatsDTO.fromCounts(activityLogRepository.countByActionForUser(userId, from, to));
     }
 
     public ActivityLogStatsDTO getAllLogsStats() {
-        // Retrieve all logs
-        List<ActivityLog> allLogs = activityLogRepository.findAll();
-
-        // Group logs by action and count
-        Map <ActivityLog.Action, Long> actionCounts = allLogs.stream()
-            .collect(Collectors.groupingBy(
-                ActivityLog::getAction, 
-                Collectors.counting()
-            ));
-
-        // Calculate total logs
-        long totalLogs = allLogs.size();
-
-        // Create and return stats DTO
-        return new ActivityLogStatsDTO(
-            actionCounts.getOrDefault(ActivityLog.Action.GET, 0L),
-            actionCounts.getOrDefault(ActivityLog.Action.CREATE, 0L),
-            actionCounts.getOrDefault(ActivityLog.Action.UPDATE, 0L),
-            actionCounts.getOrDefault(ActivityLog.Action.DELETE, 0L),
-            totalLogs
-        );
+        return getAllLogsStats(null, null);
+    }
+
+    public ActivityLogStatsDTO getAllLogsStats(LocalDateTime from, LocalDateTime to) {
+        if (rollups != null) {
+            return rollups.getAllStats(from, to);
+        }
+        return ActivityLogStatsDTO.fromCounts(activityLogRepository.countByAction(from, to));
     }
 
 }
@@ -0,0 +1,326 @@
+package com.recky.demo.service;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.recky.demo.model.ActivityLog;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Write-behind queue for activity logs.
+ *
+ * When enabled, ActivityLogService hands each log entry to this component instead of
+ * inserting it on the request thread. A single drainer thread collects entries into
+ * JDBC batches and flushes them when the batch is full or the flush interval elapses.
+ * Whatever is still queued is flushed when the application shuts down.
+ */
+@Component
+@ConditionalOnProperty(name = "activity-log.async.enabled", havingValue = "true")
+public class ActivityLogWriteBehind implements SmartLifecycle {
+
+    public enum OverflowPolicy {
+        BLOCK, DROP_OLDEST, SPILL_TO_DISK
+    }
+
+    // A log entry waiting to be written; the timestamp is captured at enqueue time
+    public record PendingActivityLog(String userId, ActivityLog.Action action, LocalDateTime timestamp,
+            String details) {
+    }
+
+    private static final Logger logger = LoggerFactory.getLogger(ActivityLogWriteBehind.class);
+
+    private static final String INSERT_SQL = "INSERT INTO activity_logs (user_id, action, timestamp, details) VALUES (?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final BlockingQueue<PendingActivityLog> queue;
+    private final int batchSize;
+    private final long flushIntervalMs;
+    private final OverflowPolicy overflowPolicy;
+    private final Path spillFile;
+
+    private final DistributionSummary batchSizeSummary;
+    private final Timer flushTimer;
+
+    // Guards the spill file; not synchronized, so request threads spilling to disk don't pin a carrier
+    private final ReentrantLock spillLock = new ReentrantLock();
+    // One replay at a time, so a .replay file is never read twice or rotated over
+    private final ReentrantLock replayLock = new ReentrantLock();
+
+    private volatile boolean running;
+    private Thread drainer;
+
+    public ActivityLogWriteBehind(JdbcTemplate jdbcTemplate,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${activity-log.async.queue-capacity:10000}") int queueCapacity,
+            @Value("${activity-log.async.batch-size:500}") int batchSize,
+            @Value("${activity-log.async.flush-interval-ms:200}") long flushIntervalMs,
+            @Value("${activity-log.async.overflow-policy:BLOCK}") OverflowPolicy overflowPolicy,
+            @Value("${activity-log.async.spill-file:${java.io.tmpdir}/activity-log-spill.ndjson}") String spillFile) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.flushIntervalMs = flushIntervalMs;
+        this.overflowPolicy = overflowPolicy;
+        this.spillFile = Paths.get(spillFile);
+
+        Gauge.builder("activity_log.queue.depth", queue, BlockingQueue::size)
+                .description("Activity logs waiting to be written")
+                .register(meterRegistry);
+        this.batchSizeSummary = DistributionSummary.builder("activity_log.batch.size")
+                .description("Rows per activity log batch insert")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("activity_log.flush.latency")
+                .description("Time taken to write one activity log batch")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    // Queue an entry for writing, applying the overflow policy when the queue is full
+    public void enqueue(PendingActivityLog entry) {
+        if (queue.offer(entry)) {
+            return;
+        }
+
+        switch (overflowPolicy) {
+            case BLOCK -> {
+                try {
+                    queue.put(entry);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while queueing activity log", e);
+                }
+            }
+            case DROP_OLDEST -> {
+                while (!queue.offer(entry)) {
+                    PendingActivityLog dropped = queue.poll();
+                    if (dropped != null) {
+                        logger.warn("Activity log queue full, dropped entry for userId: {}", dropped.userId());
+                    }
+                }
+            }
+            case SPILL_TO_DISK -> spill(List.of(entry));
+        }
+    }
+
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    // Writes what is queued or spilled so far on the calling thread. A batch the drainer has
+    // already taken off the queue is written by it within one flush interval.
+    public void flushPending() {
+        List<PendingActivityLog> pending = new ArrayList<>();
+        queue.drainTo(pending);
+        flushInBatches(pending);
+        replaySpillFile();
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        drainer = new Thread(this::drainLoop, "activity-log-writer");
+        drainer.setDaemon(true);
+        drainer.start();
+        logger.info("Activity log write-behind started (batchSize={}, flushIntervalMs={}, overflowPolicy={})",
+                batchSize, flushIntervalMs, overflowPolicy);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (drainer != null) {
+            drainer.interrupt();
+            try {
+                drainer.join(TimeUnit.SECONDS.toMillis(30));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        // Final flush of anything still queued or spilled
+        List<PendingActivityLog> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        flushInBatches(remaining);
+        replaySpillFile();
+        logger.info("Activity log write-behind stopped");
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Stop after the web server so requests still in flight can enqueue their logs
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    private void drainLoop() {
+        List<PendingActivityLog> batch = new ArrayList<>(batchSize);
+        long deadline = System.currentTimeMillis() + flushIntervalMs;
+
+        while (running) {
+            try {
+                long wait = Math.max(0, deadline - System.currentTimeMillis());
+                PendingActivityLog entry = queue.poll(wait, TimeUnit.MILLISECONDS);
+                if (entry != null) {
+                    batch.add(entry);
+                    queue.drainTo(batch, batchSize - batch.size());
+                }
+
+                if (batch.size() >= batchSize || System.currentTimeMillis() >= deadline) {
+                    flush(batch);
+                    batch.clear();
+                    if (queue.isEmpty()) {
+                        replaySpillFile();
+                    }
+                    deadline = System.currentTimeMillis() + flushIntervalMs;
+                }
+            } catch (InterruptedException e) {
+                break;
+            } catch (Exception e) {
+                logger.error("Unexpected error in activity log writer", e);
+            }
+        }
+
+        // Clear a pending interrupt so the pool will still hand out a connection for the last batch
+        Thread.interrupted();
+        flushInBatches(batch);
+    }
+
+    private void flushInBatches(List<PendingActivityLog> entries) {
+        for (int from = 0; from < entries.size(); from += batchSize) {
+            flush(entries.subList(from, Math.min(entries.size(), from + batchSize)));
+        }
+    }
+
+    private void flush(List<PendingActivityLog> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        batchSizeSummary.record(batch.size());
+        flushTimer.record(() -> {
+            try {
+                jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (ps, entry) -> {
+                    ps.setString(1, entry.userId());
+                    ps.setString(2, entry.action().name());
+                    ps.setTimestamp(3, Timestamp.valueOf(entry.timestamp()));
+                    ps.setString(4, entry.details());
+                });
+            } catch (Exception e) {
+                // One bad row (e.g. unknown userId) fails the whole batch, so retry row by row
+                logger.warn("Activity log batch of {} failed, retrying individually", batch.size(), e);
+                for (PendingActivityLog entry : batch) {
+                    try {
+                        jdbcTemplate.update(INSERT_SQL, entry.userId(), entry.action().name(),
+                                Timestamp.valueOf(entry.timestamp()), entry.details());
+                    } catch (Exception rowError) {
+                        logger.error("Dropping activity log for userId: {}, action: {}", entry.userId(),
+                                entry.action(), rowError);
+                    }
+                }
+            }
+        });
+    }
+
+    private void spill(List<PendingActivityLog> entries) {
+        spillLock.lock();
+        try (BufferedWriter writer = Files.newBufferedWriter(spillFile, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            for (PendingActivityLog entry : entries) {
+                writer.write(objectMapper.writeValueAsString(entry));
+                writer.newLine();
+            }
+        } catch (IOException e) {
+            logger.error("Failed to spill {} activity logs to {}", entries.size(), spillFile, e);
+        } finally {
+            spillLock.unlock();
+        }
+    }
+
+    private void replaySpillFile() {
+        replayLock.lock();
+        try {
+            Path replayFile = spillFile.resolveSibling(spillFile.getFileName() + ".replay");
+            // Left by a replay that failed or by a process that stopped mid-replay: replay it before
+            // the spill file is rotated onto its name
+            if (Files.exists(replayFile) && !replay(replayFile)) {
+                return;
+            }
+
+            spillLock.lock();
+            try {
+                if (!Files.exists(spillFile)) {
+                    return;
+                }
+                try {
+                    Files.move(spillFile, replayFile);
+                } catch (IOException e) {
+                    logger.error("Failed to rotate activity log spill file {}", spillFile, e);
+                    return;
+                }
+            } finally {
+                spillLock.unlock();
+            }
+            replay(replayFile);
+        } finally {
+            replayLock.unlock();
+        }
+    }
+
+    // False when the file could not be fully read; it is then kept for the next replay
+    private boolean replay(Path replayFile) {
+        List<PendingActivityLog> batch = new ArrayList<>(batchSize);
+        try (BufferedReader reader = Files.newBufferedReader(replayFile, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                batch.add(objectMapper.readValue(line, PendingActivityLog.class));
+                if (batch.size() >= batchSize) {
+                    flush(batch);
+                    batch.clear();
+                }
+            }
+            flush(batch);
+            Files.delete(replayFile);
+            return true;
+        } catch (IOException e) {
+            logger.error("Failed to replay activity log spill file {}", replayFile, e);
+            return false;
+        }
+    }
+}
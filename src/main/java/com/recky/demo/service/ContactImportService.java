@@ -0,0 +1,307 @@
+package com.recky.demo.service;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.recky.demo.dao.ContactRepository;
+import com.recky.demo.dto.ContactImportError;
+import com.recky.demo.dto.ContactImportResult;
+import com.recky.demo.util.PhoneNumbers;
+
+/**
+ * Bulk contact import.
+ *
+ * The request body is read one record per line (CSV or NDJSON) and never buffered as a whole.
+ * Phones are deduped by canonical form against the user's existing contacts, loaded with a
+ * single query, and rows are inserted with JDBC batches rather than one JPA persist per contact. Rejected rows
+ * are streamed back as NDJSON while the import runs, followed by a summary line. A contact
+ * created concurrently with the same phone is still caught by the unique index on insert.
+ */
+@Service
+public class ContactImportService {
+
+    public enum Format {
+        CSV, NDJSON;
+
+        public static Format fromContentType(String contentType) {
+            if (contentType != null && contentType.toLowerCase(Locale.ROOT).startsWith("text/csv")) {
+                return CSV;
+            }
+            return NDJSON;
+        }
+    }
+
+    private record ImportRow(long line, String name, String phone, String email, String address) {
+    }
+
+    private static final Logger logger = LoggerFactory.getLogger(ContactImportService.class);
+
+    private static final String INSERT_SQL = "INSERT INTO contacts (user_id, name, phone, phone_canonical, email, address, "
+            + "created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final List<String> DEFAULT_CSV_COLUMNS = List.of("name", "phone", "email", "address");
+
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ContactRepository contactRepository;
+    private final ObjectMapper objectMapper;
+    private final ActivityLogService activityLogService;
+    private final int batchSize;
+    private final String defaultCountryCode;
+
+    // Present only when contacts.search.enabled=true
+    @Autowired(required = false)
+    private ContactSearchIndex searchIndex;
+
+    public ContactImportService(JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            ContactRepository contactRepository,
+            ObjectMapper objectMapper,
+            ActivityLogService activityLogService,
+            @Value("${contacts.import.batch-size:1000}") int batchSize,
+            @Value("${contacts.phone.default-country-code:1}") String defaultCountryCode) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.contactRepository = contactRepository;
+        this.objectMapper = objectMapper;
+        this.activityLogService = activityLogService;
+        this.batchSize = batchSize;
+        this.defaultCountryCode = defaultCountryCode;
+    }
+
+    // The caller is expected to have checked that the user exists
+    public ContactImportResult importContacts(String userId, Format format, InputStream in, OutputStream out)
+            throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+
+        Set<String> knownPhones = new HashSet<>();
+        for (String phone : contactRepository.findPhonesByUserId(userId)) {
+            knownPhones.add(canonicalPhone(phone));
+        }
+        ContactImportResult result = new ContactImportResult();
+        List<ImportRow> batch = new ArrayList<>(batchSize);
+        List<String> csvColumns = DEFAULT_CSV_COLUMNS;
+
+        String text;
+        long line = 0;
+        while ((text = reader.readLine()) != null) {
+            line++;
+            if (text.isBlank()) {
+                continue;
+            }
+
+            ImportRow row;
+            try {
+                if (format == Format.CSV) {
+                    List<String> fields = parseCsvLine(text);
+                    if (line == 1 && isCsvHeader(fields)) {
+                        csvColumns = fields.stream().map(f -> f.trim().toLowerCase(Locale.ROOT)).toList();
+                        continue;
+                    }
+                    row = fromCsv(line, csvColumns, fields);
+                } else {
+                    row = fromJson(line, objectMapper.readTree(text));
+                }
+            } catch (IOException | IllegalArgumentException e) {
+                reject(writer, result, new ContactImportError(line, null, "INVALID", "Unparseable row: " + e.getMessage()));
+                continue;
+            }
+
+            String problem = validate(row);
+            if (problem != null) {
+                reject(writer, result, new ContactImportError(line, row.phone(), "INVALID", problem));
+                continue;
+            }
+
+            // Covers phones already stored and repeats within the same upload
+            if (!knownPhones.add(canonicalPhone(row.phone()))) {
+                duplicate(writer, result, line, row.phone());
+                continue;
+            }
+
+            batch.add(row);
+            if (batch.size() >= batchSize) {
+                insertBatch(userId, batch, writer, result);
+                batch.clear();
+                writer.flush();
+            }
+        }
+
+        if (!batch.isEmpty()) {
+            insertBatch(userId, batch, writer, result);
+        }
+
+        writeLine(writer, result);
+        writer.flush();
+
+        // Rows went in through JDBC, so the user's search partition is reloaded rather than patched
+        if (searchIndex != null && result.getImported() > 0) {
+            searchIndex.invalidate(userId);
+        }
+
+        activityLogService.logActivity(userId, "CREATE", "Imported " + result.getImported() + " contacts ("
+                + result.getDuplicates() + " duplicates, " + result.getFailed() + " failed)");
+        return result;
+    }
+
+    private void insertBatch(String userId, List<ImportRow> batch, Writer writer, ContactImportResult result)
+            throws IOException {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        try {
+            // One transaction per batch, so a failed batch leaves no partial rows behind
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT_SQL, batch,
+                    batch.size(), (ps, row) -> {
+                        ps.setString(1, userId);
+                        ps.setString(2, row.name());
+                        ps.setString(3, row.phone());
+                        ps.setString(4, canonicalPhone(row.phone()));
+                        ps.setString(5, row.email());
+                        ps.setString(6, row.address());
+                        ps.setTimestamp(7, now);
+                        ps.setTimestamp(8, now);
+                    }));
+            result.setImported(result.getImported() + batch.size());
+        } catch (DataAccessException e) {
+            // Fall back to row-by-row so one bad row only rejects itself
+            logger.warn("Contact import batch of {} failed, retrying rows individually", batch.size(), e);
+            for (ImportRow row : batch) {
+                try {
+                    jdbcTemplate.update(INSERT_SQL, userId, row.name(), row.phone(), canonicalPhone(row.phone()),
+                            row.email(), row.address(), now, now);
+                    result.setImported(result.getImported() + 1);
+                } catch (DuplicateKeyException rowError) {
+                    // Added by another request since the phones were loaded
+                    duplicate(writer, result, row.line(), row.phone());
+                } catch (DataAccessException rowError) {
+                    reject(writer, result, new ContactImportError(row.line(), row.phone(), "FAILED",
+                            rowError.getMostSpecificCause().getMessage()));
+                }
+            }
+        }
+    }
+
+    private void duplicate(Writer writer, ContactImportResult result, long line, String phone) throws IOException {
+        result.setDuplicates(result.getDuplicates() + 1);
+        writeLine(writer, new ContactImportError(line, phone, "DUPLICATE",
+                "You already have a contact with this phone number"));
+    }
+
+    private String canonicalPhone(String phone) {
+        return PhoneNumbers.canonicalize(phone, defaultCountryCode);
+    }
+
+    private void reject(Writer writer, ContactImportResult result, ContactImportError error) throws IOException {
+        result.setFailed(result.getFailed() + 1);
+        writeLine(writer, error);
+    }
+
+    private void writeLine(Writer writer, Object value) throws IOException {
+        writer.write(objectMapper.writeValueAsString(value));
+        writer.write('\n');
+    }
+
+    private String validate(ImportRow row) {
+        if (row.name() == null || row.name().isBlank()) {
+            return "Name is required";
+        }
+        if (row.phone() == null || row.phone().isBlank()) {
+            return "Phone is required";
+        }
+        if (row.phone().length() > PhoneNumbers.MAX_PHONE_LENGTH) {
+            return "Phone is longer than " + PhoneNumbers.MAX_PHONE_LENGTH + " characters";
+        }
+        if (canonicalPhone(row.phone()) == null) {
+            return "Phone has no digits";
+        }
+        return null;
+    }
+
+    private ImportRow fromJson(long line, JsonNode node) {
+        if (!node.isObject()) {
+            throw new IllegalArgumentException("expected a JSON object");
+        }
+        return new ImportRow(line, text(node, "name"), text(node, "phone"), text(node, "email"),
+                text(node, "address"));
+    }
+
+    private static String text(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        return value == null || value.isNull() ? null : value.asText().trim();
+    }
+
+    private ImportRow fromCsv(long line, List<String> columns, List<String> fields) {
+        Map<String, String> values = new HashMap<>();
+        for (int i = 0; i < columns.size() && i < fields.size(); i++) {
+            String value = fields.get(i).trim();
+            values.put(columns.get(i), value.isEmpty() ? null : value);
+        }
+        return new ImportRow(line, values.get("name"), values.get("phone"), values.get("email"),
+                values.get("address"));
+    }
+
+    private static boolean isCsvHeader(List<String> fields) {
+        return fields.stream().anyMatch(f -> f.trim().equalsIgnoreCase("phone"));
+    }
+
+    // Splits one CSV record; supports quoted fields with "" escapes but not embedded newlines
+    static List<String> parseCsvLine(String text) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < text.length() && text.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
@@ -0,0 +1,117 @@
+package com.recky.demo.service;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.recky.demo.dao.ContactRepository;
+import com.recky.demo.dto.ContactDTO;
+import com.recky.demo.dto.ContactSuggestionDTO;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Full-text contact search and typeahead, one in-memory {@link ContactSearchPartition} per user.
+ *
+ * A user's partition is loaded from the contacts table (one query) on their first search.
+ * After that it is kept current incrementally as contacts are saved and deleted, once the
+ * transaction commits. Partitions are bounded by total contacts held and expire after a TTL,
+ * which also caps staleness from writes the index does not see: other instances, bulk SQL, or
+ * a write that commits while the partition is loading. Partitions are softly referenced, so
+ * the collector can also drop them under memory pressure; they reload on next use. Searches never
+ * touch the database once a partition is loaded, so latency depends on the size of one user's
+ * contact list, not on the total number of contacts.
+ */
+@Component
+@ConditionalOnProperty(name = "contacts.search.enabled", havingValue = "true", matchIfMissing = true)
+public class ContactSearchIndex {
+
+    private final ContactRepository contactRepository;
+    private final Cache<String, ContactSearchPartition> partitions;
+    private final Timer searches;
+    private final Timer suggestions;
+
+    public ContactSearchIndex(ContactRepository contactRepository, MeterRegistry meterRegistry,
+            @Value("${contacts.search.max-indexed-contacts:2000000}") long maxIndexedContacts,
+            @Value("${contacts.search.ttl-minutes:30}") long ttlMinutes) {
+        this.contactRepository = contactRepository;
+        // Weighed by contacts at load time; incremental growth is not re-weighed until reload
+        this.partitions = Caffeine.newBuilder()
+                .maximumWeight(maxIndexedContacts)
+                .weigher((String userId, ContactSearchPartition partition) -> partition.size() + 1)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                .softValues()
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, partitions, "contacts.search.partitions");
+        this.searches = Timer.builder("contacts.search")
+                .description("Contact search latency, including partition loads")
+                .register(meterRegistry);
+        this.suggestions = Timer.builder("contacts.suggest")
+                .description("Contact typeahead latency, including partition loads")
+                .register(meterRegistry);
+    }
+
+    public List<ContactDTO> search(String userId, String query, int limit) {
+        return searches.record(() -> partition(userId).search(query, limit));
+    }
+
+    public List<ContactSuggestionDTO> suggest(String userId, String prefix, int limit) {
+        return suggestions.record(() -> partition(userId).suggest(prefix, limit));
+    }
+
+    public void onSaved(ContactDTO contact) {
+        afterCommit(() -> {
+            ContactSearchPartition partition = partitions.getIfPresent(contact.getUserId());
+            if (partition != null) {
+                partition.put(contact);
+            }
+        });
+    }
+
+    public void onDeleted(String userId, Long contactId) {
+        afterCommit(() -> {
+            ContactSearchPartition partition = partitions.getIfPresent(userId);
+            if (partition != null) {
+                partition.remove(contactId);
+            }
+        });
+    }
+
+    // Rebuild one user's partition from the table on their next search (e.g. after a bulk import)
+    public void invalidate(String userId) {
+        afterCommit(() -> partitions.invalidate(userId));
+    }
+
+    // Full rebuild: every partition is reloaded from the contacts table on its next search
+    public void invalidateAll() {
+        partitions.invalidateAll();
+    }
+
+    private ContactSearchPartition partition(String userId) {
+        return partitions.get(userId, id -> ContactSearchPartition.of(contactRepository.findDTOsByUserId(id)));
+    }
+
+    // Rolled-back writes must not show up in search results
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
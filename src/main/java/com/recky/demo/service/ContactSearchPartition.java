@@ -0,0 +1,325 @@
+package com.recky.demo.service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+import com.recky.demo.dto.ContactDTO;
+import com.recky.demo.dto.ContactSuggestionDTO;
+
+/**
+ * Inverted index over one user's contacts: name, email, phone digits and address.
+ *
+ * Every query token has to match each returned contact (AND). A token matches a term exactly,
+ * as a prefix (search as you type), or within one or two edits (typos, tokens of 4+ and 8+
+ * characters). Phones are indexed as every digit suffix of at least three digits, so "4567",
+ * "5551234567" and "(555) 123-4567" all find the same contact. Results are ranked by
+ * idf x field boost x match quality, best first.
+ */
+class ContactSearchPartition {
+
+    private static final Pattern NON_ALPHANUMERIC = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern PHONE_LIKE = Pattern.compile("[\\d\\s()+.\\-]+");
+
+    private static final float NAME_BOOST = 3f;
+    private static final float EMAIL_BOOST = 2f;
+    private static final float PHONE_BOOST = 2f;
+    private static final float ADDRESS_BOOST = 1f;
+
+    private static final float EXACT = 1f;
+    private static final float PREFIX = 0.7f;
+    private static final float FUZZY = 0.4f;
+
+    private static final int MIN_PHONE_SUFFIX = 3;
+    // Bound the work a one- or two-letter prefix can cause
+    private static final int MAX_EXPANSIONS = 128;
+    private static final int MAX_QUERY_TOKENS = 8;
+
+    private record IndexedContact(ContactDTO contact, Set<String> terms) {
+    }
+
+    private record Hit(ContactDTO contact, float score) {
+    }
+
+    private final Map<Long, IndexedContact> contacts = new HashMap<>();
+    // Typeahead snapshot, rebuilt from the contacts above on the first suggest after a write
+    private volatile ContactSuggestions suggestions;
+    // term -> contact id -> best field boost of that term in the contact
+    private final TreeMap<String, Map<Long, Float>> postings = new TreeMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    static ContactSearchPartition of(Collection<ContactDTO> contacts) {
+        ContactSearchPartition partition = new ContactSearchPartition();
+        contacts.forEach(partition::put);
+        return partition;
+    }
+
+    void put(ContactDTO contact) {
+        Map<String, Float> terms = terms(contact);
+        lock.writeLock().lock();
+        try {
+            removeLocked(contact.getId());
+            terms.forEach((term, boost) -> postings.computeIfAbsent(term, t -> new HashMap<>())
+                    .put(contact.getId(), boost));
+            contacts.put(contact.getId(), new IndexedContact(contact, terms.keySet()));
+            suggestions = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(Long contactId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(contactId);
+            suggestions = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return contacts.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    List<ContactDTO> search(String query, int limit) {
+        List<String> tokens = queryTokens(query);
+        if (tokens.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            Map<Long, Float> scores = null;
+            for (String token : tokens) {
+                Map<Long, Float> tokenScores = match(token);
+                if (scores == null) {
+                    scores = tokenScores;
+                } else {
+                    // AND: keep contacts every token matched, summing their scores
+                    Map<Long, Float> previous = scores;
+                    scores = new HashMap<>();
+                    for (Map.Entry<Long, Float> entry : tokenScores.entrySet()) {
+                        Float sofar = previous.get(entry.getKey());
+                        if (sofar != null) {
+                            scores.put(entry.getKey(), sofar + entry.getValue());
+                        }
+                    }
+                }
+                if (scores.isEmpty()) {
+                    return List.of();
+                }
+            }
+            return top(scores, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    List<ContactSuggestionDTO> suggest(String prefix, int limit) {
+        ContactSuggestions snapshot = suggestions;
+        if (snapshot == null) {
+            // Built under the read lock, so no write can slip in between building and publishing it
+            lock.readLock().lock();
+            try {
+                snapshot = ContactSuggestions.of(contacts.values().stream().map(IndexedContact::contact).toList());
+                suggestions = snapshot;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+        return snapshot.suggest(prefix, limit);
+    }
+
+    private void removeLocked(Long contactId) {
+        IndexedContact existing = contacts.remove(contactId);
+        if (existing == null) {
+            return;
+        }
+        for (String term : existing.terms()) {
+            Map<Long, Float> posting = postings.get(term);
+            if (posting != null) {
+                posting.remove(contactId);
+                if (posting.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+
+    // Best score per contact for one query token across its exact, prefix and fuzzy matches
+    private Map<Long, Float> match(String token) {
+        Map<Long, Float> scores = new HashMap<>();
+        SortedMap<String, Map<Long, Float>> prefixed = postings.subMap(token, token + Character.MAX_VALUE);
+        int expansions = 0;
+        for (Map.Entry<String, Map<Long, Float>> entry : prefixed.entrySet()) {
+            if (expansions++ >= MAX_EXPANSIONS) {
+                break;
+            }
+            score(scores, entry.getValue(), entry.getKey().equals(token) ? EXACT : PREFIX);
+        }
+
+        int maxEdits = token.length() >= 8 ? 2 : token.length() >= 4 ? 1 : 0;
+        if (maxEdits > 0 && !Character.isDigit(token.charAt(0))) {
+            // Fuzzy candidates share the first character, as typos rarely hit it
+            String first = token.substring(0, 1);
+            for (Map.Entry<String, Map<Long, Float>> entry : postings
+                    .subMap(first, first + Character.MAX_VALUE).entrySet()) {
+                String term = entry.getKey();
+                if (Math.abs(term.length() - token.length()) <= maxEdits && !term.startsWith(token)
+                        && withinEdits(token, term, maxEdits)) {
+                    score(scores, entry.getValue(), FUZZY);
+                }
+            }
+        }
+        return scores;
+    }
+
+    private void score(Map<Long, Float> scores, Map<Long, Float> posting, float quality) {
+        float idf = (float) Math.log(1 + (double) contacts.size() / posting.size());
+        for (Map.Entry<Long, Float> entry : posting.entrySet()) {
+            scores.merge(entry.getKey(), idf * entry.getValue() * quality, Math::max);
+        }
+    }
+
+    private List<ContactDTO> top(Map<Long, Float> scores, int limit) {
+        Comparator<Hit> ranking = Comparator.comparingDouble(Hit::score)
+                .thenComparing(hit -> hit.contact().getId());
+        PriorityQueue<Hit> best = new PriorityQueue<>(ranking);
+        for (Map.Entry<Long, Float> entry : scores.entrySet()) {
+            best.add(new Hit(contacts.get(entry.getKey()).contact(), entry.getValue()));
+            if (best.size() > limit) {
+                best.poll();
+            }
+        }
+        List<ContactDTO> results = new ArrayList<>(best.size());
+        while (!best.isEmpty()) {
+            results.add(best.poll().contact());
+        }
+        return results.reversed();
+    }
+
+    // Field terms of a contact, each with the highest boost of the fields it appears in
+    private static Map<String, Float> terms(ContactDTO contact) {
+        Map<String, Float> terms = new HashMap<>();
+        addTerms(terms, words(contact.getName()), NAME_BOOST);
+        addTerms(terms, words(contact.getEmail()), EMAIL_BOOST);
+        addTerms(terms, phoneTerms(contact.getPhone()), PHONE_BOOST);
+        addTerms(terms, words(contact.getAddress()), ADDRESS_BOOST);
+        return terms;
+    }
+
+    private static void addTerms(Map<String, Float> terms, Collection<String> fieldTerms, float boost) {
+        for (String term : fieldTerms) {
+            terms.merge(term, boost, Math::max);
+        }
+    }
+
+    static List<String> queryTokens(String query) {
+        if (query == null || query.isBlank()) {
+            return List.of();
+        }
+        // A query that looks like a phone number is one token of its digits
+        if (isPhoneLike(query)) {
+            String digits = digits(query);
+            return digits.isEmpty() ? List.of() : List.of(digits);
+        }
+        List<String> tokens = words(query).stream().distinct().toList();
+        return tokens.size() > MAX_QUERY_TOKENS ? tokens.subList(0, MAX_QUERY_TOKENS) : tokens;
+    }
+
+    static boolean isPhoneLike(String text) {
+        return PHONE_LIKE.matcher(text.trim()).matches();
+    }
+
+    // Normalized words of a text, in order
+    static List<String> words(String text) {
+        List<String> words = new ArrayList<>();
+        if (text == null) {
+            return words;
+        }
+        for (String word : NON_ALPHANUMERIC.split(normalize(text))) {
+            if (!word.isEmpty()) {
+                words.add(word);
+            }
+        }
+        return words;
+    }
+
+    private static List<String> phoneTerms(String phone) {
+        List<String> terms = new ArrayList<>();
+        String digits = digits(phone);
+        for (int start = 0; start <= digits.length() - MIN_PHONE_SUFFIX; start++) {
+            terms.add(digits.substring(start));
+        }
+        return terms;
+    }
+
+    static String digits(String text) {
+        if (text == null) {
+            return "";
+        }
+        StringBuilder digits = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits.append(c);
+            }
+        }
+        return digits.toString();
+    }
+
+    // Lower case without accents, so "José" is found by "jose"
+    private static String normalize(String text) {
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        return COMBINING_MARKS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    // Optimal string alignment distance <= maxEdits, giving up on a row that already exceeds it
+    static boolean withinEdits(String a, String b, int maxEdits) {
+        int[] previousPrevious = new int[b.length() + 1];
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int distance = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    distance = Math.min(distance, previousPrevious[j - 2] + 1);
+                }
+                current[j] = distance;
+                rowMin = Math.min(rowMin, distance);
+            }
+            if (rowMin > maxEdits) {
+                return false;
+            }
+            int[] recycled = previousPrevious;
+            previousPrevious = previous;
+            previous = current;
+            current = recycled;
+        }
+        return previous[b.length()] <= maxEdits;
+    }
+}
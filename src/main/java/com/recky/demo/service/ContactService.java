@@ -2,18 +2,29 @@ package com.recky.demo.service;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
 
+import org.hibernate.exception.ConstraintViolationException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 
 import com.recky.demo.dao.ContactRepository;
 import com.recky.demo.dto.ContactDTO;
+import com.recky.demo.dto.ContactSuggestionDTO;
+import com.recky.demo.exception.DuplicatePhoneException;
+import com.recky.demo.exception.InvalidPhoneException;
 import com.recky.demo.model.Contact;
+import com.recky.demo.util.CursorPage;
+import com.recky.demo.util.PhoneNumbers;
+import com.recky.demo.util.SeekCursor;
 
 import jakarta.transaction.Transactional;
 
@@ -26,6 +37,10 @@ public class ContactService {
     @Autowired
     private ActivityLogService activityLogService; // Inject ActivityLogService
 
+    // Present only when contacts.search.enabled=true
+    @Autowired(required = false)
+    private ContactSearchIndex searchIndex;
+
     private static final Logger logger = LoggerFactory.getLogger(ContactService.class);
 
     public boolean existsByPhone(String phone) {
@@ -36,10 +51,25 @@ public class ContactService {
         return contactRepository.existsByPhoneAndIdNot(phone, id);
     }
 
+    // Duplicate phones are caught by the (user_id, phone_canonical) unique index rather than a
+    // lookup first, so concurrent creates of the same number cannot both succeed
     @Transactional
     public Contact saveContact(Contact contact) {
+        validatePhone(contact.getPhone());
         try {
-            return contactRepository.save(contact);
+            Contact saved = contactRepository.save(contact);
+            // Flush so a conflict surfaces here, not at commit
+            contactRepository.flush();
+            if (searchIndex != null) {
+                searchIndex.onSaved(toContactDTO(saved));
+            }
+            return saved;
+        } catch (DataIntegrityViolationException e) {
+            if (isPhoneConflict(e)) {
+                throw new DuplicatePhoneException("You already have a contact with this phone number", e);
+            }
+            logger.error("Error saving contact: ", e);
+            throw new RuntimeException("Failed to save contact", e);
         } catch (Exception e) {
             logger.error("Error saving contact: ", e);
             throw new RuntimeException("Failed to save contact", e);
@@ -98,10 +128,13 @@ public class ContactService {
             logger.warn("No contact found for userId: {} and contactId: {}", userId, contactId);
             throw new RuntimeException("Contact not found for the specified userId and contactId");
         }
-        logger.info("contact found for userId: {} and contactId: {}", userId, contactId);
+        logger.debug("contact found for userId: {} and contactId: {}", userId, contactId);
 
         Contact contact = contactOpt.get();
         contactRepository.delete(contact);
+        if (searchIndex != null) {
+            searchIndex.onDeleted(userId, contactId);
+        }
 
         logger.info("Deleted contact with userId: {} and contactId: {}", userId, contactId);
         activityLogService.logActivity(userId, "DELETE",
@@ -121,6 +154,28 @@ public class ContactService {
         return getContactsByUserId(userId);
     }
 
+    // Ranked full-text search over one user's contacts
+    public List<ContactDTO> searchContacts(String userId, String query, int limit) {
+        if (searchIndex == null) {
+            throw new IllegalStateException("Contact search is disabled");
+        }
+        return searchIndex.search(userId, query, limit);
+    }
+
+    // Typeahead: top contacts whose name (or phone digits) start with the prefix
+    public List<ContactSuggestionDTO> suggestContacts(String userId, String prefix, int limit) {
+        if (searchIndex == null) {
+            throw new IllegalStateException("Contact search is disabled");
+        }
+        return searchIndex.suggest(userId, prefix, limit);
+    }
+
+    public void rebuildSearchIndex() {
+        if (searchIndex != null) {
+            searchIndex.invalidateAll();
+        }
+    }
+
     // Get all contacts created within a specific date range
     public List<Contact> getContactsByDateRange(String userId, LocalDateTime startDate, LocalDateTime endDate) {
         return contactRepository.findByUserIdAndCreatedAtBetween(userId, startDate, endDate);
@@ -150,14 +205,6 @@ public class ContactService {
         return contactRepository.findByUserIdAndCreatedAtBetween(userId, startDate, endDate, pageable);
     }
 
-    public boolean existsByPhoneAndUserId(String phone, String userId) {
-        return contactRepository.existsByPhoneAndUserId(phone, userId);
-    }
-
-    public Optional<Contact> getContactByPhoneAndUserId(String phone, String userId) {
-        return contactRepository.findByPhoneAndUserId(phone, userId);
-    }
-
     public boolean existsByIdAndUserId(Long id, String userId) {
         return contactRepository.existsByIdAndUserId(id, userId);
     }
@@ -173,17 +220,77 @@ public class ContactService {
     // }
 
     public Page<ContactDTO> getAllContactsPaginated(Pageable pageable) {
-        // Fetch paginated contacts and map them to ContactDTO
-        return contactRepository.findAll(pageable)
-                .map(contact -> new ContactDTO(
-                        contact.getId(),
-                        contact.getUser() != null ? contact.getUser().getId() : null, // Map userId
-                        contact.getName(),
-                        contact.getPhone(),
-                        contact.getEmail(),
-                        contact.getAddress(),
-                        contact.getCreatedAt(),
-                        contact.getUpdatedAt()));
+        // Fetch paginated contacts projected straight into ContactDTO
+        return contactRepository.findAllDTOs(pageable);
+    }
+
+    // Keyset-paginated contacts for a user, newest first; cursor is null for the first slice
+    public CursorPage<ContactDTO> getContactsByUserIdSeek(String userId, String cursor, int size) {
+        SeekCursor position = SeekCursor.decode(cursor);
+        Pageable limit = PageRequest.of(0, size);
+        Slice<ContactDTO> slice = position == null
+                ? contactRepository.findDTOsByUserIdOrderByCreatedAtDescIdDesc(userId, limit)
+                : contactRepository.findDTOsByUserIdAfterCursor(userId, position.timestamp(), position.longId(),
+                        limit);
+        return toCursorPage(slice);
+    }
+
+    // Keyset-paginated contacts across all users (for ADMIN users)
+    public CursorPage<ContactDTO> getAllContactsSeek(String cursor, int size) {
+        SeekCursor position = SeekCursor.decode(cursor);
+        Pageable limit = PageRequest.of(0, size);
+        Slice<ContactDTO> slice = position == null
+                ? contactRepository.findAllDTOsOrderByCreatedAtDescIdDesc(limit)
+                : contactRepository.findAllDTOsAfterCursor(position.timestamp(), position.longId(), limit);
+        return toCursorPage(slice);
+    }
+
+    // The same checks the bulk import makes, so a bad phone is a 400 rather than a failed insert
+    private static void validatePhone(String phone) {
+        if (phone == null || phone.isBlank()) {
+            throw new InvalidPhoneException("Phone is required");
+        }
+        if (phone.length() > PhoneNumbers.MAX_PHONE_LENGTH) {
+            throw new InvalidPhoneException("Phone is longer than " + PhoneNumbers.MAX_PHONE_LENGTH + " characters");
+        }
+    }
+
+    // MySQL and H2 both name the violated index in the driver message
+    static boolean isPhoneConflict(DataIntegrityViolationException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation && violation.getConstraintName() != null
+                    && violation.getConstraintName().toLowerCase(Locale.ROOT).contains(Contact.PHONE_CONSTRAINT)) {
+                return true;
+            }
+            if (cause.getCause() == null && cause.getMessage() != null
+                    && cause.getMessage().toLowerCase(Locale.ROOT).contains(Contact.PHONE_CONSTRAINT)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private CursorPage<ContactDTO> toCursorPage(Slice<ContactDTO> slice) {
+        List<ContactDTO> contacts = slice.getContent();
+        String nextCursor = null;
+        if (slice.hasNext() && !contacts.isEmpty()) {
+            ContactDTO last = contacts.get(contacts.size() - 1);
+            nextCursor = SeekCursor.encode(last.getCreatedAt(), last.getId());
+        }
+        return new CursorPage<>(contacts, nextCursor);
+    }
+
+    // Package-private for the JMH benchmarks; also feeds the search index
+    ContactDTO toContactDTO(Contact contact) {
+        return new ContactDTO(
+                contact.getId(),
+                contact.getUser() != null ? contact.getUser().getId() : null, // Map userId
+                contact.getName(),
+                contact.getPhone(),
+                contact.getEmail(),
+                contact.getAddress(),
+                contact.getCreatedAt(),
+                contact.getUpdatedAt());
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,135 @@
+package com.recky.demo.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import com.recky.demo.dto.ContactDTO;
+import com.recky.demo.dto.ContactSuggestionDTO;
+
+/**
+ * Immutable typeahead snapshot of one user's contacts: sorted key arrays searched by binary
+ * search, so a lookup costs O(log n + k) however many contacts the user has.
+ *
+ * Suggestions come from three tiers, in order:
+ * 1. contacts whose full name starts with the prefix
+ * 2. contacts with a later word of the name starting with it ("gar" finds "Maria Garcia")
+ * 3. for digit prefixes, contacts whose phone digits start with it
+ * Within a tier, entries are in key order: names alphabetically, phones by digits.
+ */
+class ContactSuggestions {
+
+    // Keys and the index of the contact each belongs to, sorted by key
+    private record Tier(String[] keys, int[] owners) {
+    }
+
+    private record Entry(String key, int owner) {
+    }
+
+    private final ContactSuggestionDTO[] contacts;
+    private final Tier names;
+    private final Tier laterWords;
+    private final Tier phones;
+
+    private ContactSuggestions(ContactSuggestionDTO[] contacts, Tier names, Tier laterWords, Tier phones) {
+        this.contacts = contacts;
+        this.names = names;
+        this.laterWords = laterWords;
+        this.phones = phones;
+    }
+
+    static ContactSuggestions of(Collection<ContactDTO> source) {
+        ContactSuggestionDTO[] contacts = new ContactSuggestionDTO[source.size()];
+        List<Entry> names = new ArrayList<>(source.size());
+        List<Entry> laterWords = new ArrayList<>();
+        List<Entry> phones = new ArrayList<>(source.size());
+
+        int owner = 0;
+        for (ContactDTO contact : source) {
+            contacts[owner] = new ContactSuggestionDTO(contact.getId(), contact.getName(), contact.getPhone());
+            List<String> words = ContactSearchPartition.words(contact.getName());
+            if (!words.isEmpty()) {
+                names.add(new Entry(String.join(" ", words), owner));
+                for (int i = 1; i < words.size(); i++) {
+                    laterWords.add(new Entry(String.join(" ", words.subList(i, words.size())), owner));
+                }
+            }
+            String digits = ContactSearchPartition.digits(contact.getPhone());
+            if (!digits.isEmpty()) {
+                phones.add(new Entry(digits, owner));
+            }
+            owner++;
+        }
+        return new ContactSuggestions(contacts, tier(names), tier(laterWords), tier(phones));
+    }
+
+    List<ContactSuggestionDTO> suggest(String prefix, int limit) {
+        List<ContactSuggestionDTO> results = new ArrayList<>(limit);
+        if (prefix == null || prefix.isBlank() || limit <= 0) {
+            return results;
+        }
+
+        Set<Integer> seen = new HashSet<>();
+        if (ContactSearchPartition.isPhoneLike(prefix)) {
+            collect(phones, ContactSearchPartition.digits(prefix), limit, seen, results);
+        } else {
+            String normalized = String.join(" ", ContactSearchPartition.words(prefix));
+            // Keep a trailing space: "maria " should not also match "mariam"
+            if (!normalized.isEmpty() && Character.isWhitespace(prefix.charAt(prefix.length() - 1))) {
+                normalized += " ";
+            }
+            collect(names, normalized, limit, seen, results);
+            collect(laterWords, normalized, limit, seen, results);
+        }
+        return results;
+    }
+
+    int size() {
+        return contacts.length;
+    }
+
+    private void collect(Tier tier, String prefix, int limit, Set<Integer> seen, List<ContactSuggestionDTO> results) {
+        if (prefix.isEmpty()) {
+            return;
+        }
+        for (int i = lowerBound(tier.keys(), prefix); i < tier.keys().length && results.size() < limit; i++) {
+            if (!tier.keys()[i].startsWith(prefix)) {
+                return;
+            }
+            if (seen.add(tier.owners()[i])) {
+                results.add(contacts[tier.owners()[i]]);
+            }
+        }
+    }
+
+    // First index whose key is >= prefix
+    private static int lowerBound(String[] keys, String prefix) {
+        int low = 0;
+        int high = keys.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (keys[mid].compareTo(prefix) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static Tier tier(List<Entry> entries) {
+        Entry[] sorted = entries.toArray(new Entry[0]);
+        Arrays.sort(sorted, Comparator.comparing(Entry::key));
+        String[] keys = new String[sorted.length];
+        int[] owners = new int[sorted.length];
+        for (int i = 0; i < sorted.length; i++) {
+            keys[i] = sorted[i].key();
+            owners[i] = sorted[i].owner();
+        }
+        return new Tier(keys, owners);
+    }
+}
@@ -0,0 +1,172 @@
+package com.recky.demo.service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.recky.demo.dao.ActivityLogRepository;
+import com.recky.demo.dao.ContactRepository;
+import com.recky.demo.dto.ActivityLogDTO;
+import com.recky.demo.dto.ContactDTO;
+import com.recky.demo.model.ActivityLog;
+import com.recky.demo.model.Contact;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Streaming exports of contacts and activity logs.
+ *
+ * Rows come from a JPA Stream with a fixed fetch size and are written to the output as they
+ * arrive, as NDJSON or CSV. Each entity is detached once written, and the persistence context
+ * is cleared every CLEAR_INTERVAL rows. Memory use therefore stays flat no matter how many
+ * rows are exported.
+ */
+@Service
+public class DataExportService {
+
+    public enum Format {
+        NDJSON, CSV;
+
+        public static Format fromParam(String format) {
+            return format == null ? NDJSON : valueOf(format.trim().toUpperCase(Locale.ROOT));
+        }
+    }
+
+    // Matches the fetch size of the streaming repository queries
+    static final int CLEAR_INTERVAL = 1000;
+
+    private static final List<String> CONTACT_COLUMNS = List.of("id", "userId", "name", "phone", "email", "address",
+            "createdAt", "updatedAt");
+
+    private static final List<String> ACTIVITY_LOG_COLUMNS = List.of("id", "userId", "action", "timestamp",
+            "details");
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final ContactRepository contactRepository;
+    private final ActivityLogRepository activityLogRepository;
+    private final ObjectWriter jsonWriter;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public DataExportService(ContactRepository contactRepository,
+            ActivityLogRepository activityLogRepository,
+            ObjectMapper objectMapper,
+            PlatformTransactionManager transactionManager) {
+        this.contactRepository = contactRepository;
+        this.activityLogRepository = activityLogRepository;
+        this.jsonWriter = objectMapper.writer();
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    public static MediaType mediaType(Format format) {
+        return format == Format.CSV ? MediaType.parseMediaType("text/csv") : MediaType.APPLICATION_NDJSON;
+    }
+
+    public long exportContactsByUserId(String userId, Format format, OutputStream out) throws IOException {
+        return export(() -> contactRepository.streamByUserId(userId), DataExportService::toContactDTO,
+                CONTACT_COLUMNS, DataExportService::contactFields, format, out);
+    }
+
+    public long exportAllContacts(Format format, OutputStream out) throws IOException {
+        return export(contactRepository::streamAll, DataExportService::toContactDTO,
+                CONTACT_COLUMNS, DataExportService::contactFields, format, out);
+    }
+
+    public long exportLogsByUserId(String userId, Format format, OutputStream out) throws IOException {
+        return export(() -> activityLogRepository.streamByUserId(userId), DataExportService::toActivityLogDTO,
+                ACTIVITY_LOG_COLUMNS, DataExportService::activityLogFields, format, out);
+    }
+
+    private <E, D> long export(Supplier<Stream<E>> query, Function<E, D> toDTO, List<String> columns,
+            Function<D, List<Object>> csvFields, Format format, OutputStream out) throws IOException {
+        BufferedOutputStream buffered = new BufferedOutputStream(out);
+        if (format == Format.CSV) {
+            writeCsvRow(buffered, columns);
+        }
+
+        try {
+            Long rows = readOnlyTransaction.execute(status -> {
+                long count = 0;
+                try (Stream<E> stream = query.get()) {
+                    for (E entity : (Iterable<E>) stream::iterator) {
+                        D dto = toDTO.apply(entity);
+                        if (format == Format.CSV) {
+                            writeCsvRow(buffered, csvFields.apply(dto));
+                        } else {
+                            buffered.write(jsonWriter.writeValueAsBytes(dto));
+                            buffered.write('\n');
+                        }
+
+                        // Keep the persistence context from growing with the export
+                        entityManager.detach(entity);
+                        if (++count % CLEAR_INTERVAL == 0) {
+                            entityManager.clear();
+                        }
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return count;
+            });
+            buffered.flush();
+            return rows != null ? rows : 0;
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static void writeCsvRow(OutputStream out, List<?> fields) throws IOException {
+        String row = fields.stream().map(DataExportService::csvField).collect(Collectors.joining(","));
+        out.write(row.getBytes(StandardCharsets.UTF_8));
+        out.write('\n');
+    }
+
+    private static String csvField(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (text.contains(",") || text.contains("\"") || text.contains("\n") || text.contains("\r")) {
+            return "\"" + text.replace("\"", "\"\"") + "\"";
+        }
+        return text;
+    }
+
+    private static ContactDTO toContactDTO(Contact contact) {
+        return new ContactDTO(contact.getId(), contact.getUser().getId(), contact.getName(), contact.getPhone(),
+                contact.getEmail(), contact.getAddress(), contact.getCreatedAt(), contact.getUpdatedAt());
+    }
+
+    private static ActivityLogDTO toActivityLogDTO(ActivityLog log) {
+        return new ActivityLogDTO(log.getId(), log.getUser().getId(), log.getAction().name(), log.getTimestamp(),
+                log.getDetails());
+    }
+
+    private static List<Object> contactFields(ContactDTO contact) {
+        return Arrays.asList(contact.getId(), contact.getUserId(), contact.getName(), contact.getPhone(),
+                contact.getEmail(), contact.getAddress(), contact.getCreatedAt(), contact.getUpdatedAt());
+    }
+
+    private static List<Object> activityLogFields(ActivityLogDTO log) {
+        return Arrays.asList(log.getId(), log.getUserId(), log.getAction(), log.getTimestamp(), log.getDetails());
+    }
+}
@@ -0,0 +1,175 @@
+package com.recky.demo.service;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.recky.demo.model.User;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Two-level cache for user lookups.
+ *
+ * Level one is a per-request memo, so repeated lookups within one request (controller,
+ * ActivityLogService, admin checks) resolve once. Level two is a bounded, TTL-based
+ * cache shared across requests, keyed by id with username/email indexes onto the id.
+ *
+ * Cached users are detached snapshots without contacts. Every get returns a fresh copy,
+ * so callers can't mutate shared state, but the copies must not be passed to saveUser.
+ */
+@Component
+public class UserCache {
+
+    private static final String MEMO_ATTRIBUTE = UserCache.class.getName() + ".memo";
+
+    private final Cache<String, User> usersById;
+    private final Cache<String, String> idsByUsername;
+    private final Cache<String, String> idsByEmail;
+    private final Counter memoHits;
+
+    public UserCache(MeterRegistry meterRegistry,
+            @Value("${user-cache.maximum-size:10000}") long maximumSize,
+            @Value("${user-cache.ttl-seconds:300}") long ttlSeconds) {
+        this.usersById = newCache(maximumSize, ttlSeconds);
+        this.idsByUsername = newCache(maximumSize, ttlSeconds);
+        this.idsByEmail = newCache(maximumSize, ttlSeconds);
+
+        CaffeineCacheMetrics.monitor(meterRegistry, usersById, "users.byId");
+        CaffeineCacheMetrics.monitor(meterRegistry, idsByUsername, "users.byUsername");
+        CaffeineCacheMetrics.monitor(meterRegistry, idsByEmail, "users.byEmail");
+        this.memoHits = Counter.builder("users.request_memo.hits")
+                .description("User lookups answered by the per-request memo")
+                .register(meterRegistry);
+    }
+
+    private static <V> Cache<String, V> newCache(long maximumSize, long ttlSeconds) {
+        return Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+    }
+
+    public Optional<User> getById(String id, Supplier<Optional<User>> loader) {
+        return memoized("id:" + id, () -> {
+            User cached = usersById.getIfPresent(id);
+            if (cached != null) {
+                return Optional.of(cached);
+            }
+            Optional<User> loaded = loader.get();
+            loaded.ifPresent(this::put);
+            return loaded.map(UserCache::copyOf);
+        });
+    }
+
+    public Optional<User> getByUsername(String username, Supplier<Optional<User>> loader) {
+        return memoized("username:" + username, () -> getByIndex(idsByUsername, username, loader));
+    }
+
+    public Optional<User> getByEmail(String email, Supplier<Optional<User>> loader) {
+        return memoized("email:" + email, () -> getByIndex(idsByEmail, email, loader));
+    }
+
+    // True when the user is in the shared cache; never touches the database
+    public boolean containsId(String id) {
+        return id != null && usersById.getIfPresent(id) != null;
+    }
+
+    // Drop a user from both levels; called whenever the user is saved or deleted
+    public void evict(String id) {
+        if (id != null) {
+            User cached = usersById.getIfPresent(id);
+            if (cached != null) {
+                idsByUsername.invalidate(cached.getUsername());
+                idsByEmail.invalidate(cached.getEmail());
+            }
+            usersById.invalidate(id);
+        }
+        // Index entries for a changed username/email may point at this id, so the memo is cleared wholesale
+        Map<String, Optional<User>> memo = currentMemo();
+        if (memo != null) {
+            memo.clear();
+        }
+    }
+
+    private Optional<User> getByIndex(Cache<String, String> index, String key, Supplier<Optional<User>> loader) {
+        String id = index.getIfPresent(key);
+        if (id != null) {
+            User cached = usersById.getIfPresent(id);
+            if (cached != null) {
+                return Optional.of(cached);
+            }
+        }
+        Optional<User> loaded = loader.get();
+        loaded.ifPresent(this::put);
+        return loaded.map(UserCache::copyOf);
+    }
+
+    private void put(User user) {
+        User snapshot = copyOf(user);
+        usersById.put(snapshot.getId(), snapshot);
+        if (snapshot.getUsername() != null) {
+            idsByUsername.put(snapshot.getUsername(), snapshot.getId());
+        }
+        if (snapshot.getEmail() != null) {
+            idsByEmail.put(snapshot.getEmail(), snapshot.getId());
+        }
+    }
+
+    // Resolve through the request memo when a request is active; always hand back a private copy
+    private Optional<User> memoized(String key, Supplier<Optional<User>> lookup) {
+        Map<String, Optional<User>> memo = currentMemo();
+        if (memo == null) {
+            return lookup.get().map(UserCache::copyOf);
+        }
+        Optional<User> memoized = memo.get(key);
+        if (memoized != null) {
+            memoHits.increment();
+        } else {
+            memoized = lookup.get();
+            memo.put(key, memoized);
+        }
+        return memoized.map(UserCache::copyOf);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Optional<User>> currentMemo() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return null;
+        }
+        Map<String, Optional<User>> memo = (Map<String, Optional<User>>) attributes.getAttribute(MEMO_ATTRIBUTE,
+                RequestAttributes.SCOPE_REQUEST);
+        if (memo == null) {
+            memo = new HashMap<>();
+            attributes.setAttribute(MEMO_ATTRIBUTE, memo, RequestAttributes.SCOPE_REQUEST);
+        }
+        return memo;
+    }
+
+    private static User copyOf(User user) {
+        User copy = new User();
+        copy.setId(user.getId());
+        copy.setUsername(user.getUsername());
+        copy.setEmail(user.getEmail());
+        copy.setRole(user.getRole());
+        copy.setStatus(user.getStatus());
+        copy.setCreatedAt(user.getCreatedAt());
+        copy.setUpdatedAt(user.getUpdatedAt());
+        copy.setDeactivatedAt(user.getDeactivatedAt());
+        copy.setDeactivatedBy(user.getDeactivatedBy());
+        return copy;
+    }
+}
@@ -2,32 +2,62 @@ package com.recky.demo.service;
 
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 
+import com.recky.demo.dao.ContactRepository;
 import com.recky.demo.dao.UserRepository;
+import com.recky.demo.dto.UserContactCount;
+import com.recky.demo.dto.UserDTO;
 import com.recky.demo.dto.UserStatsDTO;
 import com.recky.demo.exception.UserNotFoundException;
 import com.recky.demo.model.User;
+import com.recky.demo.util.CursorPage;
+import com.recky.demo.util.SeekCursor;
 
 @Service
 public class UserService {
 
     private static final Logger logger = LoggerFactory.getLogger(UserService.class);
 
+    // How writeWithUserReference makes sure the referenced user exists
+    public enum ExistenceCheck {
+        // Skip the SELECT when the id is in the user cache, otherwise look the user up once
+        CACHED,
+        // Never look the user up; a missing user surfaces as a foreign key violation on insert
+        FOREIGN_KEY
+    }
+
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private ContactRepository contactRepository;
+
+    @Autowired
+    private UserCache userCache;
+
+    @Value("${user-reference.existence-check:CACHED}")
+    private ExistenceCheck existenceCheck = ExistenceCheck.CACHED;
+
     // Create or Update a user
     public User saveUser(User user) {
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        userCache.evict(saved.getId());
+        return saved;
     }
 
     // Find a user by ID
@@ -53,6 +83,39 @@ public class UserService {
     // Delete a user
     public void deleteUser(String id) {
         userRepository.deleteById(id);
+        userCache.evict(id);
+    }
+
+    // Cached, read-only lookups for hot paths (activity logging, role checks).
+    // The returned users are detached snapshots without contacts and must not be saved.
+    public Optional<User> getCachedUserById(String id) {
+        return userCache.getById(id, () -> userRepository.findById(id));
+    }
+
+    public Optional<User> getCachedUserByUsername(String username) {
+        return userCache.getByUsername(username, () -> userRepository.findByUsername(username));
+    }
+
+    public Optional<User> getCachedUserByEmail(String email) {
+        return userCache.getByEmail(email, () -> userRepository.findByEmail(email));
+    }
+
+    public User getCachedUserByIdOrThrow(String userId) {
+        return getCachedUserById(userId)
+                .orElseThrow(() -> {
+                    logger.error("User with ID {} not found", userId);
+                    return new UserNotFoundException("User with ID " + userId + " not found");
+                });
+    }
+
+    // Contact count per user id for a batch of users, without initializing their contacts collections
+    public Map<String, Long> getContactCounts(List<User> users) {
+        if (users.isEmpty()) {
+            return Map.of();
+        }
+        List<String> userIds = users.stream().map(User::getId).collect(Collectors.toList());
+        return contactRepository.countByUserIds(userIds).stream()
+                .collect(Collectors.toMap(UserContactCount::getUserId, UserContactCount::getContactCount));
     }
 
     // Get a paginated list of users
@@ -60,9 +123,40 @@ public class UserService {
         return userRepository.findAll(PageRequest.of(page, size));
     }
 
+    // Get all users with a given role
+    public List<User> getUsersByRole(User.Role role) {
+        return userRepository.findByRole(role);
+    }
+
+    // Get a paginated list of users with a given role
+    public Page<User> getUsersByRolePage(User.Role role, int page, int size) {
+        return userRepository.findByRole(role, PageRequest.of(page, size));
+    }
+
+    // Read-only listings projected straight into UserDTOs, contact counts included
+    public List<UserDTO> getAllUserDTOs() {
+        return userRepository.findAllDTOs();
+    }
+
+    public Page<UserDTO> getUserDTOsPage(int page, int size) {
+        return getUserDTOsPage(PageRequest.of(page, size));
+    }
+
+    public Page<UserDTO> getUserDTOsPage(Pageable pageable) {
+        return userRepository.findAllDTOs(pageable);
+    }
+
+    public List<UserDTO> getUserDTOsByRole(User.Role role) {
+        return userRepository.findDTOsByRole(role);
+    }
+
+    public Page<UserDTO> getUserDTOsByRolePage(User.Role role, int page, int size) {
+        return userRepository.findDTOsByRole(role, PageRequest.of(page, size));
+    }
+
     // Find a user by ID or throw an exception if not found
     public User getUserByIdOrThrow(String userId) {
-        logger.info("Searching for user with ID: {}", userId);
+        logger.debug("Searching for user with ID: {}", userId);
 
         return userRepository.findById(userId)
                 .orElseThrow(() -> {
@@ -71,6 +165,34 @@ public class UserService {
                 });
     }
 
+    // Run a write that only needs the user's foreign key (activity logs, new contacts).
+    // The user is passed as an uninitialized reference, so the write is a single INSERT.
+    public <T> T writeWithUserReference(String userId, Function<User, T> write) {
+        if (existenceCheck == ExistenceCheck.CACHED && !userCache.containsId(userId)) {
+            getCachedUserByIdOrThrow(userId);
+        }
+
+        try {
+            return write.apply(userRepository.getReferenceById(userId));
+        } catch (RuntimeException e) {
+            // Translate an FK violation into a missing user; the extra lookup only runs on failure
+            if (isIntegrityViolation(e) && !userRepository.existsById(userId)) {
+                logger.error("User with ID {} not found", userId);
+                throw new UserNotFoundException("User with ID " + userId + " not found");
+            }
+            throw e;
+        }
+    }
+
+    private static boolean isIntegrityViolation(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof DataIntegrityViolationException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     //some after end
     public Page<User> getUsersByUserIdPaginated(String userId, Pageable pageable) {
         return userRepository.findById(userId, pageable);
@@ -79,6 +201,23 @@ public class UserService {
     public Page<User> getAllPageUsers(Pageable pageable) {
         return userRepository.findAll(pageable);
     }
+
+    // Keyset-paginated users, newest first; cursor is null for the first slice
+    public CursorPage<User> getUsersSeek(String cursor, int size) {
+        SeekCursor position = SeekCursor.decode(cursor);
+        Pageable limit = PageRequest.of(0, size);
+        Slice<User> slice = position == null
+                ? userRepository.findAllByOrderByCreatedAtDescIdDesc(limit)
+                : userRepository.findAllAfterCursor(position.timestamp(), position.id(), limit);
+
+        List<User> users = slice.getContent();
+        String nextCursor = null;
+        if (slice.hasNext() && !users.isEmpty()) {
+            User last = users.get(users.size() - 1);
+            nextCursor = SeekCursor.encode(last.getCreatedAt(), last.getId());
+        }
+        return new CursorPage<>(users, nextCursor);
+    }
    
 
     public UserStatsDTO getUserStatistics() {
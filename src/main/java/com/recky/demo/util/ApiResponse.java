@@ -1,5 +1,7 @@
 package com.recky.demo.util;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 public class ApiResponse<T> {
     private int statusCode; // HTTP status code
     private String status; // "success" or "error"
@@ -8,6 +10,8 @@ public class ApiResponse<T> {
     private Integer totalPages;  // Added total pages
     private Integer currentPage; // Added current page
     private Integer totalRecords; // Added total records (optional)
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String nextCursor; // Cursor for the next slice (keyset pagination only)
 
     // Constructor for non-paginated response
     public ApiResponse(int statusCode, String status, String message, T data) {
@@ -31,6 +35,15 @@ public class ApiResponse<T> {
         this.totalRecords = totalRecords;
     }
 
+    // Constructor for cursor (keyset) paginated response; no totals since no count query is run
+    public ApiResponse(int statusCode, String status, String message, T data, String nextCursor) {
+        this.statusCode = statusCode;
+        this.status = status;
+        this.message = message;
+        this.data = data;
+        this.nextCursor = nextCursor;
+    }
+
     // Getters and Setters
     public int getStatusCode() {
         return statusCode;
@@ -87,4 +100,12 @@ public class ApiResponse<T> {
     public void setTotalRecords(Integer totalRecords) {
         this.totalRecords = totalRecords;
     }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
 }
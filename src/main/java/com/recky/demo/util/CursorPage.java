@@ -0,0 +1,16 @@
+package com.recky.demo.util;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// One slice of a keyset-paginated listing; nextCursor is null on the last slice
+public record CursorPage<T>(List<T> content, String nextCursor) {
+
+    // Largest slice the seek endpoints return; they answer 400 outside 1..MAX_SIZE
+    public static final int MAX_SIZE = 100;
+
+    public <R> CursorPage<R> map(Function<? super T, ? extends R> mapper) {
+        return new CursorPage<>(content.stream().map(mapper).collect(Collectors.toList()), nextCursor);
+    }
+}
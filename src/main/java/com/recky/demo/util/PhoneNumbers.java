@@ -0,0 +1,63 @@
+package com.recky.demo.util;
+
+/**
+ * E.164-style canonical form of a phone number: "+", country code, national number, digits only.
+ *
+ * "+1 555-0100", "001 555 0100", "(555) 0100" and "5550100" all become "+15550100" with a
+ * default country code of 1. Numbers written without an international prefix get the default
+ * country code, after dropping the national trunk prefix ("0", or "1" in the North American
+ * plan). This is a normalization for duplicate detection, not validation: the number of digits
+ * is not checked against any numbering plan.
+ */
+public final class PhoneNumbers {
+
+    // "+" and up to 15 digits, plus room for a default country code added to an over-long number
+    public static final int MAX_CANONICAL_LENGTH = 20;
+
+    // Matches the contacts.phone column
+    public static final int MAX_PHONE_LENGTH = 15;
+
+    private static final int NANP_NUMBER_LENGTH = 10;
+
+    private PhoneNumbers() {
+    }
+
+    // Null when the text has no digits at all
+    public static String canonicalize(String phone, String defaultCountryCode) {
+        if (phone == null) {
+            return null;
+        }
+        String trimmed = phone.strip();
+        String digits = digits(trimmed);
+        if (digits.isEmpty()) {
+            return null;
+        }
+
+        if (trimmed.startsWith("+")) {
+            return "+" + digits;
+        }
+        if (digits.startsWith("00")) {
+            return "+" + digits.substring(2);
+        }
+        if ("1".equals(defaultCountryCode)) {
+            // North American numbers are often written with the country code but no "+"
+            if (digits.length() == NANP_NUMBER_LENGTH + 1 && digits.startsWith("1")) {
+                return "+" + digits;
+            }
+        } else if (digits.startsWith("0")) {
+            digits = digits.substring(1);
+        }
+        return "+" + defaultCountryCode + digits;
+    }
+
+    private static String digits(String text) {
+        StringBuilder digits = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits.append(c);
+            }
+        }
+        return digits.toString();
+    }
+}
@@ -0,0 +1,78 @@
+package com.recky.demo.util;
+
+/**
+ * Where the current request's time goes: database statements, the audit insert
+ * (ActivityLogService.logActivity) and response serialization. Whatever is left over is the
+ * handler's own work, including entity-to-DTO mapping.
+ *
+ * Held in a thread local between RequestTimingInterceptor's preHandle and afterCompletion.
+ * Phases do not nest. Time spent inside a phase belongs to the outermost one, so the
+ * statements an audit insert runs count as audit time, not database time. Outside a timed
+ * request every call here is a no-op.
+ */
+public final class RequestTiming {
+
+    public enum Phase {
+        DB, AUDIT, SERIALIZATION
+    }
+
+    private static final ThreadLocal<RequestTiming> CURRENT = new ThreadLocal<>();
+
+    private final long startNanos = System.nanoTime();
+    private final long[] phaseNanos = new long[Phase.values().length];
+    private Phase activePhase;
+    private long activeSinceNanos;
+
+    private RequestTiming() {
+    }
+
+    public static RequestTiming start() {
+        RequestTiming timing = new RequestTiming();
+        CURRENT.set(timing);
+        return timing;
+    }
+
+    public static RequestTiming current() {
+        return CURRENT.get();
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    // Returns true if this call opened the phase; only then should the caller exit it
+    public static boolean enter(Phase phase) {
+        RequestTiming timing = CURRENT.get();
+        if (timing == null || timing.activePhase != null) {
+            return false;
+        }
+        timing.activePhase = phase;
+        timing.activeSinceNanos = System.nanoTime();
+        return true;
+    }
+
+    public static void exit(Phase phase) {
+        RequestTiming timing = CURRENT.get();
+        if (timing != null && timing.activePhase == phase) {
+            timing.phaseNanos[phase.ordinal()] += System.nanoTime() - timing.activeSinceNanos;
+            timing.activePhase = null;
+        }
+    }
+
+    public long elapsedNanos() {
+        return System.nanoTime() - startNanos;
+    }
+
+    public long phaseNanos(Phase phase) {
+        return phaseNanos[phase.ordinal()];
+    }
+
+    // Elapsed time not attributed to any phase
+    public long otherNanos() {
+        long other = elapsedNanos();
+        for (long nanos : phaseNanos) {
+            other -= nanos;
+        }
+        return Math.max(0, other);
+    }
+}
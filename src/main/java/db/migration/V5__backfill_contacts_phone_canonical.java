@@ -0,0 +1,88 @@
+package db.migration;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import com.recky.demo.util.PhoneNumbers;
+
+/**
+ * Fills contacts.phone_canonical (added by V3) for rows written before the application set it.
+ *
+ * Walks the contacts in id order, one batch at a time. The first contact of a user to have a
+ * canonical phone keeps it. A later contact of the same user with the same canonical phone is a
+ * duplicate the old raw-string check let through: it is marked with "#" and its own id instead
+ * of being left NULL, so it is neither deleted nor a hole in the unique index, and logged for
+ * clean-up. Canonical phones always start with "+", so a marker never matches a phone being
+ * checked; saving a marked contact again fails on the index until its phone is changed.
+ *
+ * The default country code comes from the default-country-code Flyway placeholder, which
+ * application.properties sets from contacts.phone.default-country-code.
+ */
+public class V5__backfill_contacts_phone_canonical extends BaseJavaMigration {
+
+    private record PendingRow(long id, String userId, String phone) {
+    }
+
+    private static final Logger logger = LoggerFactory.getLogger(V5__backfill_contacts_phone_canonical.class);
+
+    private static final int BATCH_SIZE = 1000;
+    private static final String DUPLICATE_MARKER = "#";
+
+    private static final String SELECT_SQL = "SELECT id, user_id, phone FROM contacts "
+            + "WHERE id > ? AND phone_canonical IS NULL ORDER BY id LIMIT ?";
+    private static final String TAKEN_SQL = "SELECT COUNT(*) FROM contacts WHERE user_id = ? AND phone_canonical = ?";
+    private static final String UPDATE_SQL = "UPDATE contacts SET phone_canonical = ? WHERE id = ?";
+
+    @Override
+    public void migrate(Context context) {
+        String defaultCountryCode = context.getConfiguration().getPlaceholders()
+                .getOrDefault("default-country-code", "1");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(new SingleConnectionDataSource(context.getConnection(), true));
+
+        long lastId = 0;
+        long filled = 0;
+        long marked = 0;
+        List<PendingRow> rows;
+        do {
+            rows = jdbcTemplate.query(SELECT_SQL,
+                    (rs, rowNum) -> new PendingRow(rs.getLong("id"), rs.getString("user_id"), rs.getString("phone")),
+                    lastId, BATCH_SIZE);
+            // Canonical phones claimed earlier in this batch, not yet visible to TAKEN_SQL
+            Set<String> claimed = new HashSet<>();
+            List<Object[]> updates = new ArrayList<>(rows.size());
+            for (PendingRow row : rows) {
+                lastId = row.id();
+                String canonical = PhoneNumbers.canonicalize(row.phone(), defaultCountryCode);
+                if (canonical == null) {
+                    // No digits at all: nothing to dedupe on
+                    continue;
+                }
+                if (!claimed.add(row.userId() + " " + canonical)
+                        || jdbcTemplate.queryForObject(TAKEN_SQL, Long.class, row.userId(), canonical) > 0) {
+                    logger.warn("Contact {} has the same canonical phone {} as an earlier contact of user {}; marked {}",
+                            row.id(), canonical, row.userId(), DUPLICATE_MARKER + row.id());
+                    canonical = DUPLICATE_MARKER + row.id();
+                    marked++;
+                } else {
+                    filled++;
+                }
+                updates.add(new Object[] { canonical, row.id() });
+            }
+            jdbcTemplate.batchUpdate(UPDATE_SQL, updates);
+        } while (rows.size() == BATCH_SIZE);
+
+        if (filled > 0 || marked > 0) {
+            logger.info("Backfilled phone_canonical for {} contacts ({} duplicates marked)",
+                    filled, marked);
+        }
+    }
+}
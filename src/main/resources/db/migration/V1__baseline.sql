@@ -1,6 +1,5 @@
--- DROP TABLE IF EXISTS activity_logs;
--- DROP TABLE IF EXISTS contacts;
--- DROP TABLE IF EXISTS users;
+-- Schema as originally created from schema.sql. Databases that already have it are baselined
+-- at this version (spring.flyway.baseline-on-migrate) and start from V2.
 
 CREATE TABLE users (
     id VARCHAR(255) NOT NULL PRIMARY KEY,
@@ -34,5 +33,3 @@ CREATE TABLE activity_logs (
     details TEXT DEFAULT NULL,
     FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
 );
-
-
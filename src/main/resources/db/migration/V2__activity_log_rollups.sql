@@ -0,0 +1,11 @@
+-- Pre-aggregated activity log counts (ActivityLogRollups). IF NOT EXISTS, as some databases
+-- created this table by hand from schema.sql before migrations existed.
+
+CREATE TABLE IF NOT EXISTS activity_log_rollups (
+    granularity VARCHAR(8) NOT NULL,
+    bucket_start TIMESTAMP NOT NULL,
+    user_id VARCHAR(255) NOT NULL,
+    action VARCHAR(16) NOT NULL,
+    log_count BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (granularity, bucket_start, user_id, action)
+);
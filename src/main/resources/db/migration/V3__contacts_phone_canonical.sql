@@ -0,0 +1,6 @@
+-- E.164-style form of contacts.phone (PhoneNumbers), set by the application on every write and
+-- unique per user. Existing rows are filled by the Java migration V5__backfill_contacts_phone_canonical.
+
+ALTER TABLE contacts ADD COLUMN phone_canonical VARCHAR(20) DEFAULT NULL;
+
+ALTER TABLE contacts ADD CONSTRAINT uk_contacts_user_phone UNIQUE (user_id, phone_canonical);
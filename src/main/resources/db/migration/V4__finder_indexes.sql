@@ -0,0 +1,20 @@
+-- Indexes behind the repository finders. Keyset pagination seeks on (created_at, id) or
+-- (timestamp, id) newest first, so those columns follow the equality columns, descending.
+-- QueryPlanVerifier checks every repository query against these at startup.
+
+-- ContactRepository: per-user listings, date ranges and cursors
+CREATE INDEX idx_contacts_user_created ON contacts (user_id, created_at DESC, id DESC);
+-- ContactRepository: admin cursor listing across all users
+CREATE INDEX idx_contacts_created ON contacts (created_at DESC, id DESC);
+-- ContactRepository: findByPhone, existsByPhone, findByEmail
+CREATE INDEX idx_contacts_phone ON contacts (phone);
+CREATE INDEX idx_contacts_email ON contacts (email);
+
+-- ActivityLogRepository: per-user listings, cursors and time-windowed counts
+CREATE INDEX idx_activity_logs_user_time ON activity_logs (user_id, timestamp DESC, id DESC);
+-- ActivityLogRepository: findByUserIdAndAction, countByActionForUser
+CREATE INDEX idx_activity_logs_user_action ON activity_logs (user_id, action);
+
+-- UserRepository: role filters and counts, and the cursor listing
+CREATE INDEX idx_users_role ON users (role);
+CREATE INDEX idx_users_created ON users (created_at DESC, id DESC);
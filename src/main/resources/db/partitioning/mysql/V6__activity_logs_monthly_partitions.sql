@@ -0,0 +1,31 @@
+-- Monthly range partitions for activity_logs, so ActivityLogArchiver can drop a month past
+-- retention in one step. MySQL only, and opt-in: this location runs only when it is added to
+-- spring.flyway.locations (see application.properties). Without it the archiver deletes rows.
+--
+-- A partitioned table cannot have foreign keys, and every unique key must contain the
+-- partitioning column. So the user_id foreign key is dropped (its index stays) and the primary
+-- key becomes (id, timestamp). Without the foreign key:
+--   - deleting a user no longer cascades to their activity logs;
+--   - user-reference.existence-check=FOREIGN_KEY no longer rejects logs for unknown users, so
+--     keep it at CACHED;
+--   - write-behind batches no longer fail on an unknown userId.
+-- This rebuilds the table once. Shared migrations are numbered past this version; enabling it
+-- after a later one has been applied needs spring.flyway.out-of-order=true.
+
+ALTER TABLE activity_logs DROP FOREIGN KEY activity_logs_ibfk_1;
+
+ALTER TABLE activity_logs
+    MODIFY timestamp TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    DROP PRIMARY KEY,
+    ADD PRIMARY KEY (id, timestamp);
+
+-- Everything before the month the migration runs in starts in p_history, which is archived as
+-- one range; everything after in p_future. ActivityLogArchiver splits monthly partitions off
+-- p_future ahead of time. Bounds are in the session time zone.
+SET @partition_ddl = CONCAT(
+    'ALTER TABLE activity_logs PARTITION BY RANGE (UNIX_TIMESTAMP(timestamp)) (',
+    'PARTITION p_history VALUES LESS THAN (UNIX_TIMESTAMP(''', DATE_FORMAT(CURRENT_DATE, '%Y-%m-01'), ''')), ',
+    'PARTITION p_future VALUES LESS THAN MAXVALUE)');
+PREPARE partition_activity_logs FROM @partition_ddl;
+EXECUTE partition_activity_logs;
+DEALLOCATE PREPARE partition_activity_logs;
@@ -1,9 +1,12 @@
 package com.recky.demo;
 
 import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.context.SpringBootTest;
 
+// Flyway migrates at startup, so the context needs a database: an embedded one stands in for MySQL
 @SpringBootTest
+@AutoConfigureTestDatabase
 class DemoApplicationTests {
 
 	@Test
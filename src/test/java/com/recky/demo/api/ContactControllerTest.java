@@ -4,6 +4,7 @@ import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Function;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import org.junit.jupiter.api.BeforeEach;
@@ -13,6 +14,7 @@ import static org.mockito.ArgumentMatchers.eq;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import org.mockito.MockitoAnnotations;
 import org.springframework.data.domain.Page;
@@ -22,12 +24,16 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
+import com.recky.demo.dto.ContactDTO;
+import com.recky.demo.exception.DuplicatePhoneException;
+import com.recky.demo.exception.InvalidPhoneException;
 import com.recky.demo.model.Contact;
 import com.recky.demo.model.User;
 import com.recky.demo.service.ActivityLogService;
 import com.recky.demo.service.ContactService;
 import com.recky.demo.service.UserService;
 import com.recky.demo.util.ApiResponse;
+import com.recky.demo.util.CursorPage;
 
 class ContactControllerTest {
 
@@ -122,8 +128,8 @@ class ContactControllerTest {
         inputContact.setPhone("1234567890");
         inputContact.setEmail("test@example.com");
 
-        when(userService.getUserByIdOrThrow(userId)).thenReturn(testUser);
-        when(contactService.existsByPhoneAndUserId(inputContact.getPhone(), userId)).thenReturn(false);
+        when(userService.writeWithUserReference(eq(userId), any()))
+                .thenAnswer(invocation -> invocation.<Function<User, Contact>>getArgument(1).apply(testUser));
         when(contactService.saveContact(any(Contact.class))).thenReturn(testContact);
 
         ResponseEntity<ApiResponse<Contact>> response = contactController.createContact(inputContact, userId);
@@ -133,6 +139,40 @@ class ContactControllerTest {
         assertEquals("Contact created successfully", response.getBody().getMessage());
     }
 
+    @Test
+    void testCreateContact_DuplicatePhone() {
+        System.out.println("\n=== Testing Create Contact Duplicate Phone ===");
+        Contact inputContact = new Contact();
+        inputContact.setPhone("+1 123-456-7890");
+
+        when(userService.writeWithUserReference(eq(userId), any()))
+                .thenAnswer(invocation -> invocation.<Function<User, Contact>>getArgument(1).apply(testUser));
+        when(contactService.saveContact(any(Contact.class)))
+                .thenThrow(new DuplicatePhoneException("You already have a contact with this phone number", null));
+
+        ResponseEntity<ApiResponse<Contact>> response = contactController.createContact(inputContact, userId);
+
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+        assertEquals("You already have a contact with this phone number", response.getBody().getMessage());
+    }
+
+    @Test
+    void testCreateContact_InvalidPhone() {
+        System.out.println("\n=== Testing Create Contact Invalid Phone ===");
+        Contact inputContact = new Contact();
+        inputContact.setPhone("+1 (555) 010-0000 ext 12");
+
+        when(userService.writeWithUserReference(eq(userId), any()))
+                .thenAnswer(invocation -> invocation.<Function<User, Contact>>getArgument(1).apply(testUser));
+        when(contactService.saveContact(any(Contact.class)))
+                .thenThrow(new InvalidPhoneException("Phone is longer than 15 characters"));
+
+        ResponseEntity<ApiResponse<Contact>> response = contactController.createContact(inputContact, userId);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals("Phone is longer than 15 characters", response.getBody().getMessage());
+    }
+
     @Test
     void testUpdateContact_Success() {
         System.out.println("\n=== Testing Update Contact Success ===");
@@ -142,7 +182,6 @@ class ContactControllerTest {
         updateContact.setEmail("updated@example.com");
 
         when(contactService.findById(contactId)).thenReturn(Optional.of(testContact));
-        when(contactService.existsByPhoneAndIdNot(updateContact.getPhone(), contactId)).thenReturn(false);
         when(contactService.saveContact(any(Contact.class))).thenReturn(updateContact);
 
         ResponseEntity<ApiResponse<Contact>> response = contactController.updateContact(contactId, updateContact,
@@ -255,4 +294,32 @@ class ContactControllerTest {
         assertEquals("success", response.getBody().getStatus());
         assertEquals("Paginated contacts fetched successfully", response.getBody().getMessage());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testGetContactsSeek_ReturnsDTOs() {
+        System.out.println("\n=== Testing Get Contacts Seek Success ===");
+        ContactDTO contact = new ContactDTO(1L, userId, "Test Contact", "1234567890", "test@example.com", null,
+                LocalDateTime.now(), LocalDateTime.now());
+        when(contactService.getContactsByUserIdSeek(userId, null, 10))
+                .thenReturn(new CursorPage<>(List.of(contact), "next"));
+
+        ResponseEntity<ApiResponse<List<ContactDTO>>> response = contactController.getContactsSeek(userId, null, 10);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(List.of(contact), response.getBody().getData());
+    }
+
+    @Test
+    void testGetContactsSeek_InvalidSize() {
+        System.out.println("\n=== Testing Get Contacts Seek Invalid Size ===");
+        for (int size : new int[] { 0, -1, CursorPage.MAX_SIZE + 1 }) {
+            ResponseEntity<ApiResponse<List<ContactDTO>>> response = contactController.getContactsSeek(userId, null,
+                    size);
+
+            assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+            assertEquals("size must be between 1 and " + CursorPage.MAX_SIZE,
+                    response.getBody().getMessage());
+        }
+        verifyNoInteractions(contactService);
+    }
+}
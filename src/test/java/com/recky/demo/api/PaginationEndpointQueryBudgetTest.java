@@ -0,0 +1,174 @@
+package com.recky.demo.api;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.recky.demo.config.ExpectedQueries;
+import com.recky.demo.config.QueryCountConfig;
+import com.recky.demo.config.QueryCountExtension;
+import com.recky.demo.dto.ActivityLogDTO;
+import com.recky.demo.dto.ContactDTO;
+import com.recky.demo.dto.UserDTO;
+import com.recky.demo.model.ActivityLog;
+import com.recky.demo.model.Contact;
+import com.recky.demo.model.User;
+import com.recky.demo.service.UserService;
+import com.recky.demo.util.ApiResponse;
+
+import jakarta.persistence.EntityManager;
+
+// SQL budgets of the list and seek endpoints, including the audit insert and rendering the body as JSON
+@SpringBootTest
+@AutoConfigureTestDatabase
+@Import(QueryCountConfig.class)
+@Transactional
+public class PaginationEndpointQueryBudgetTest {
+
+    private static final int ROWS = 15;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ContactController contactController;
+
+    @Autowired
+    private UserController userController;
+
+    @Autowired
+    private ActivityLogController activityLogController;
+
+    private final String userId = "budget-endpoint-user";
+    private final String adminId = "budget-endpoint-admin";
+
+    @BeforeEach
+    void setUp() {
+        System.out.println("\n=== Setting up users, contacts and activity logs ===");
+        User user = new User();
+        user.setId(userId);
+        user.setUsername("budgetendpointuser");
+        user.setEmail("budget-endpoint@example.com");
+        entityManager.persist(user);
+
+        User admin = new User();
+        admin.setId(adminId);
+        admin.setUsername("budgetendpointadmin");
+        admin.setEmail("budget-endpoint-admin@example.com");
+        admin.setRole(User.Role.ADMIN);
+        entityManager.persist(admin);
+
+        for (int i = 0; i < ROWS; i++) {
+            Contact contact = new Contact();
+            contact.setName("Budget Contact " + i);
+            contact.setPhone("555200" + i);
+            contact.setUser(user);
+            entityManager.persist(contact);
+
+            entityManager.persist(new ActivityLog(user, ActivityLog.Action.GET, "budget " + i));
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        // Audit writes skip the user lookup once the id is cached, as they do for an active user
+        userService.getCachedUserByIdOrThrow(userId);
+        userService.getCachedUserByIdOrThrow(adminId);
+    }
+
+    // Serializing inside the test body charges any lazy load made while rendering to the budget
+    private <T> T render(ResponseEntity<ApiResponse<T>> response) throws Exception {
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        objectMapper.writeValueAsString(response.getBody());
+        return response.getBody().getData();
+    }
+
+    // The page's contacts share one eagerly loaded owner
+    @Test
+    @ExpectedQueries(max = 4)
+    void getPaginatedContacts_PageOwnerCountAndAudit() throws Exception {
+        System.out.println("\n=== Testing the statement budget of GET /api/contacts/user/{userId}/paginated ===");
+        Page<Contact> contacts = render(contactController.getPaginatedContacts(userId, PageRequest.of(0, 10)));
+        assertEquals(10, contacts.getNumberOfElements());
+    }
+
+    @Test
+    @ExpectedQueries(max = 2)
+    void getContactsSeek_SliceAndAudit() throws Exception {
+        System.out.println("\n=== Testing the statement budget of GET /api/contacts/user/{userId}/seek ===");
+        ResponseEntity<ApiResponse<List<ContactDTO>>> first = contactController.getContactsSeek(userId, null, 10);
+        render(first);
+        QueryCountExtension.reset();
+
+        List<ContactDTO> next = render(contactController.getContactsSeek(userId, first.getBody().getNextCursor(), 10));
+        assertEquals(ROWS - 10, next.size());
+    }
+
+    @Test
+    @ExpectedQueries(max = 3)
+    void getAdminPaginatedContacts_PageCountAndAudit() throws Exception {
+        System.out.println("\n=== Testing the statement budget of GET /api/contacts/get-all-contacts/{userId}/paginated ===");
+        Page<ContactDTO> contacts = render(
+                contactController.getAdminPaginatedContacts(adminId, PageRequest.of(0, 10)));
+        assertEquals(10, contacts.getNumberOfElements());
+    }
+
+    @Test
+    @ExpectedQueries(max = 2)
+    void getAdminContactsSeek_SliceAndAudit() throws Exception {
+        System.out.println("\n=== Testing the statement budget of GET /api/contacts/get-all-contacts/{userId}/seek ===");
+        List<ContactDTO> contacts = render(contactController.getAdminContactsSeek(adminId, null, 10));
+        assertEquals(10, contacts.size());
+    }
+
+    @Test
+    @ExpectedQueries(max = 2)
+    void getPageUsers_PageAndCount() throws Exception {
+        System.out.println("\n=== Testing the statement budget of GET /api/users/get-pageUsers ===");
+        List<UserDTO> users = render(userController.getAllUsers(0, 10));
+        assertTrue(users.stream().anyMatch(dto -> dto.getId().equals(userId)));
+    }
+
+    @Test
+    @ExpectedQueries(max = 2)
+    void getSeekUsers_SliceAndOneContactCount() throws Exception {
+        System.out.println("\n=== Testing the statement budget of GET /api/users/get-seekUsers ===");
+        List<UserDTO> users = render(userController.getUsersSeek(null, 10));
+        assertEquals(ROWS, users.stream().filter(dto -> dto.getId().equals(userId))
+                .mapToLong(UserDTO::getContactCount).sum());
+    }
+
+    @Test
+    @ExpectedQueries(max = 3)
+    void getUserLogsPaginated_PageCountAndAudit() throws Exception {
+        System.out.println("\n=== Testing the statement budget of GET /api/activity-logs/{userId}/logs ===");
+        Page<ActivityLogDTO> logs = render(activityLogController.getUserLogsPaginated(userId, PageRequest.of(0, 10)));
+        assertEquals(ROWS, logs.getTotalElements());
+    }
+
+    @Test
+    @ExpectedQueries(max = 2)
+    void getUserLogsSeek_SliceAndAudit() throws Exception {
+        System.out.println("\n=== Testing the statement budget of GET /api/activity-logs/{userId}/logs/seek ===");
+        List<ActivityLogDTO> logs = render(activityLogController.getUserLogsSeek(userId, null, 10));
+        assertEquals(10, logs.size());
+    }
+}
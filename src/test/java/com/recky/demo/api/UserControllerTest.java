@@ -13,6 +13,7 @@ import org.mockito.Mock;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import org.mockito.MockitoAnnotations;
 import org.springframework.data.domain.Page;
@@ -25,6 +26,7 @@ import com.recky.demo.dto.UserDTO;
 import com.recky.demo.model.User;
 import com.recky.demo.service.UserService;
 import com.recky.demo.util.ApiResponse;
+import com.recky.demo.util.CursorPage;
 
 class UserControllerTest {
 
@@ -165,9 +167,9 @@ class UserControllerTest {
                 // Arrange
                 System.out.println("\n=== Testing Get Users By Role Success ===");
                 String role = "USER";
-                List<User> users = Arrays.asList(testUser);
+                List<UserDTO> users = Arrays.asList(toDTO(testUser));
 
-                when(userService.getAllUsers()).thenReturn(users);
+                when(userService.getUserDTOsByRole(User.Role.USER)).thenReturn(users);
 
                 // Act
                 ResponseEntity<ApiResponse<List<UserDTO>>> response = userController.getUsersByRole(role);
@@ -183,9 +185,9 @@ class UserControllerTest {
         void testGetAllUsers_Success() {
                 // Arrange
                 System.out.println("\n=== Testing Get All Users Success ===");
-                List<User> users = Arrays.asList(testUser);
+                List<UserDTO> users = Arrays.asList(toDTO(testUser));
 
-                when(userService.getAllUsers()).thenReturn(users);
+                when(userService.getAllUserDTOs()).thenReturn(users);
 
                 // Act
                 ResponseEntity<ApiResponse<List<UserDTO>>> response = userController.getAllUsers();
@@ -221,10 +223,10 @@ class UserControllerTest {
                 System.out.println("\n=== Testing Get Page Users Success ===");
                 int page = 0;
                 int size = 10;
-                List<User> users = Arrays.asList(testUser);
-                Page<User> userPage = new PageImpl<>(users, PageRequest.of(page, size), users.size());
+                List<UserDTO> users = Arrays.asList(toDTO(testUser));
+                Page<UserDTO> userPage = new PageImpl<>(users, PageRequest.of(page, size), users.size());
 
-                when(userService.getUsersPage(page, size)).thenReturn(userPage);
+                when(userService.getUserDTOsPage(page, size)).thenReturn(userPage);
 
                 // Act
                 ResponseEntity<ApiResponse<List<UserDTO>>> response = userController.getAllUsers(page, size);
@@ -243,10 +245,10 @@ class UserControllerTest {
                 String role = "USER";
                 int page = 0;
                 int size = 10;
-                List<User> users = Arrays.asList(testUser);
-                Page<User> userPage = new PageImpl<>(users, PageRequest.of(page, size), users.size());
+                List<UserDTO> users = Arrays.asList(toDTO(testUser));
+                Page<UserDTO> userPage = new PageImpl<>(users, PageRequest.of(page, size), users.size());
 
-                when(userService.getUsersPage(page, size)).thenReturn(userPage);
+                when(userService.getUserDTOsByRolePage(User.Role.USER, page, size)).thenReturn(userPage);
 
                 // Act
                 ResponseEntity<ApiResponse<List<UserDTO>>> response = userController.getUsersByRole(role, page, size);
@@ -257,4 +259,60 @@ class UserControllerTest {
                 assertEquals("Users retrieved successfully", response.getBody().getMessage());
                 assertEquals(1, response.getBody().getData().size());
         }
-}
\ No newline at end of file
+
+        @Test
+        void testGetPageUsersByRole_UsesDatabasePageMetadata() {
+                // Arrange
+                System.out.println("\n=== Testing Get Page Users By Role Metadata ===");
+                testUser.setRole(User.Role.ADMIN);
+                List<UserDTO> users = Arrays.asList(toDTO(testUser));
+                Page<UserDTO> userPage = new PageImpl<>(users, PageRequest.of(1, 1), 3);
+
+                when(userService.getUserDTOsByRolePage(User.Role.ADMIN, 1, 1)).thenReturn(userPage);
+
+                // Act
+                ResponseEntity<ApiResponse<List<UserDTO>>> response = userController.getUsersByRole("admin", 1, 1);
+
+                // Assert
+                assertEquals(HttpStatus.OK, response.getStatusCode());
+                assertEquals(1, response.getBody().getData().size());
+                assertEquals(3, response.getBody().getTotalPages());
+                assertEquals(1, response.getBody().getCurrentPage());
+                assertEquals(3, response.getBody().getTotalRecords());
+        }
+
+        @Test
+        void testGetPageUsersByRole_UnknownRoleReturnsEmptyPage() {
+                // Arrange
+                System.out.println("\n=== Testing Get Page Users By Unknown Role ===");
+
+                // Act
+                ResponseEntity<ApiResponse<List<UserDTO>>> response = userController.getUsersByRole("superuser", 0,
+                                10);
+
+                // Assert
+                assertEquals(HttpStatus.OK, response.getStatusCode());
+                assertEquals(0, response.getBody().getData().size());
+                assertEquals(0, response.getBody().getTotalRecords());
+        }
+
+        @Test
+        void testGetUsersSeek_InvalidSize() {
+                System.out.println("\n=== Testing Get Users Seek Invalid Size ===");
+                for (int size : new int[] { 0, CursorPage.MAX_SIZE + 1 }) {
+                        ResponseEntity<ApiResponse<List<UserDTO>>> response = userController.getUsersSeek(null, size);
+
+                        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+                        assertEquals("size must be between 1 and " + CursorPage.MAX_SIZE,
+                                        response.getBody().getMessage());
+                }
+                verifyNoInteractions(userService);
+        }
+
+        // What the repository's DTO projection returns for a user
+        private static UserDTO toDTO(User user) {
+                return new UserDTO(user.getId(), user.getUsername(), user.getEmail(), user.getRole(),
+                                user.getStatus(), user.getCreatedAt(), user.getUpdatedAt(), user.getDeactivatedAt(),
+                                user.getDeactivatedBy(), 0L);
+        }
+}
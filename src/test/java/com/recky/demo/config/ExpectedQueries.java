@@ -0,0 +1,22 @@
+package com.recky.demo.config;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import org.junit.jupiter.api.extension.ExtendWith;
+
+/**
+ * SQL budget for a test method. Statements executed by the test body (not @BeforeEach) are
+ * counted through the proxy installed by {@link QueryCountConfig}; the test fails when it
+ * runs more than {@code max}, listing each statement with the application frame that issued it.
+ * Setup should flush and clear the persistence context so its writes aren't charged to the test;
+ * data arranged inside the test body can be excluded with {@link QueryCountExtension#reset()}.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@ExtendWith(QueryCountExtension.class)
+public @interface ExpectedQueries {
+    int max();
+}
@@ -0,0 +1,108 @@
+package com.recky.demo.config;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.mock.env.MockEnvironment;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class HikariPoolAutoSizerTest {
+
+    private HikariDataSource hikari;
+    private HikariPoolMXBean pool;
+    private SimpleMeterRegistry meterRegistry;
+    private HikariPoolAutoSizer sizer;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        System.out.println("\n=== Setting up adaptive pool sizer ===");
+        hikari = mock(HikariDataSource.class);
+        pool = mock(HikariPoolMXBean.class);
+        DataSource dataSource = mock(DataSource.class);
+        when(dataSource.unwrap(HikariDataSource.class)).thenReturn(hikari);
+        when(hikari.getHikariPoolMXBean()).thenReturn(pool);
+        when(hikari.getMaximumPoolSize()).thenReturn(20);
+        when(hikari.getMinimumIdle()).thenReturn(10);
+
+        meterRegistry = new SimpleMeterRegistry();
+        // min 10, max 30, step 5, grow when anyone waits, shrink after 2 quiet samples
+        sizer = new HikariPoolAutoSizer(dataSource, meterRegistry, 10, 30, 5, 0, 2);
+    }
+
+    @Test
+    void pendingThreads_GrowThePoolUpToTheBound() {
+        System.out.println("\n=== Testing pool growth under pending-acquire pressure ===");
+        when(pool.getThreadsAwaitingConnection()).thenReturn(7);
+        sizer.adjust();
+        verify(hikari).setMaximumPoolSize(25);
+
+        when(hikari.getMaximumPoolSize()).thenReturn(28);
+        sizer.adjust();
+        verify(hikari).setMaximumPoolSize(30);
+        assertEquals(2.0, meterRegistry.get("hikaricp.pool.resized").tag("direction", "grow").counter().count());
+    }
+
+    @Test
+    void sustainedIdle_ShrinksThePoolAfterQuietSamples() {
+        System.out.println("\n=== Testing pool shrink after sustained idle ===");
+        when(pool.getThreadsAwaitingConnection()).thenReturn(0);
+        when(pool.getIdleConnections()).thenReturn(12);
+
+        sizer.adjust();
+        verify(hikari, never()).setMaximumPoolSize(15);
+
+        sizer.adjust();
+        verify(hikari).setMaximumPoolSize(15);
+        assertEquals(1.0, meterRegistry.get("hikaricp.pool.resized").tag("direction", "shrink").counter().count());
+    }
+
+    @Test
+    void poolSize_FollowsLittlesLawWithinBounds() {
+        System.out.println("\n=== Testing measured pool sizing ===");
+        // 400 req/s x 25ms = 10 busy connections, +50% headroom
+        assertEquals(15, ConnectionPoolConfig.poolSize(400, 25, 0.5, 5, 60));
+        assertEquals(5, ConnectionPoolConfig.poolSize(10, 5, 0.5, 5, 60), "Never below the minimum");
+        assertEquals(60, ConnectionPoolConfig.poolSize(5000, 50, 0.5, 5, 60), "Never above the maximum");
+    }
+
+    @Test
+    void virtualThreadMode_FixesThePoolAndShortensTheTimeout() {
+        System.out.println("\n=== Testing virtual-thread pool settings ===");
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("datasource.pool.virtual-threads.size", "80")
+                .withProperty("datasource.pool.virtual-threads.connection-timeout-ms", "3000")
+                .withProperty("datasource.pool.max-size", "50");
+        try (HikariDataSource dataSource = new HikariDataSource()) {
+            ConnectionPoolConfig.virtualThreadPoolSettings(environment).postProcessBeforeInitialization(dataSource, "dataSource");
+            assertEquals(50, dataSource.getMaximumPoolSize(), "Clamped to datasource.pool.max-size");
+            assertEquals(50, dataSource.getMinimumIdle());
+            assertEquals(3000, dataSource.getConnectionTimeout());
+        }
+    }
+
+    @Test
+    void virtualThreadMode_LeavesSizeToMeasuredSizing() {
+        System.out.println("\n=== Testing virtual-thread pool settings under measured sizing ===");
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("datasource.pool.sizing.peak-throughput", "400")
+                .withProperty("datasource.pool.sizing.usage-ms", "25");
+        try (HikariDataSource dataSource = new HikariDataSource()) {
+            BeanPostProcessor measured = ConnectionPoolConfig.hikariPoolSizer(environment);
+            measured.postProcessBeforeInitialization(dataSource, "dataSource");
+            ConnectionPoolConfig.virtualThreadPoolSettings(environment).postProcessBeforeInitialization(dataSource, "dataSource");
+            assertEquals(15, dataSource.getMaximumPoolSize());
+            assertEquals(3000, dataSource.getConnectionTimeout());
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.recky.demo.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+import ch.qos.logback.core.status.Status;
+
+public class LogSamplingTurboFilterTest {
+
+    private LoggerContext loggerContext;
+    private LogSamplingTurboFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        loggerContext = new LoggerContext();
+        filter = new LogSamplingTurboFilter();
+        filter.setContext(loggerContext);
+        filter.addSample("com.recky.demo.api=INFO:10");
+        filter.addSample("com.recky.demo.api.UserController=DEBUG:2");
+        filter.start();
+    }
+
+    @Test
+    void infoEvents_KeepOneInN() {
+        System.out.println("\n=== Testing per-logger sampling ===");
+        Logger logger = loggerContext.getLogger("com.recky.demo.api.ContactController");
+        int kept = 0;
+        for (int i = 0; i < 100; i++) {
+            if (filter.decide(null, logger, Level.INFO, "event {}", null, null) == FilterReply.NEUTRAL) {
+                kept++;
+            }
+        }
+        assertEquals(10, kept);
+    }
+
+    @Test
+    void disabledEvents_DoNotUseUpTheSample() {
+        System.out.println("\n=== Testing disabled DEBUG calls between sampled INFO calls ===");
+        Logger logger = loggerContext.getLogger("com.recky.demo.api.ContactController");
+        logger.setLevel(Level.INFO);
+        int kept = 0;
+        for (int i = 0; i < 100; i++) {
+            // Nine disabled DEBUG calls per INFO call would otherwise land every INFO call on a dropped count
+            for (int d = 0; d < 9; d++) {
+                filter.decide(null, logger, Level.DEBUG, "debug {}", null, null);
+            }
+            if (filter.decide(null, logger, Level.INFO, "event {}", null, null) == FilterReply.NEUTRAL) {
+                kept++;
+            }
+        }
+        assertEquals(10, kept);
+    }
+
+    @Test
+    void warnEventsAndLevelChecks_AreNeverSampled() {
+        System.out.println("\n=== Testing sampling leaves WARN and level checks alone ===");
+        Logger logger = loggerContext.getLogger("com.recky.demo.api.ContactController");
+        for (int i = 0; i < 5; i++) {
+            assertEquals(FilterReply.NEUTRAL, filter.decide(null, logger, Level.WARN, "warn", null, null));
+            assertEquals(FilterReply.NEUTRAL, filter.decide(null, logger, Level.INFO, null, null, null));
+        }
+    }
+
+    @Test
+    void mostSpecificPrefix_Wins() {
+        System.out.println("\n=== Testing most specific sampling rule wins ===");
+        Logger logger = loggerContext.getLogger("com.recky.demo.api.UserController");
+        assertEquals(FilterReply.NEUTRAL, filter.decide(null, logger, Level.INFO, "a", null, null),
+                "INFO is above the DEBUG rule for this logger");
+        assertEquals(FilterReply.NEUTRAL, filter.decide(null, logger, Level.DEBUG, "a", null, null));
+        assertEquals(FilterReply.DENY, filter.decide(null, logger, Level.DEBUG, "b", null, null));
+    }
+
+    @Test
+    void malformedSamples_AreReportedAndSkipped() {
+        System.out.println("\n=== Testing malformed sampling rules ===");
+        LogSamplingTurboFilter malformed = new LogSamplingTurboFilter();
+        malformed.setContext(loggerContext);
+        malformed.addSample("com.recky.demo.api=INFO:ten");
+        malformed.addSample("com.recky.demo.api=INFO:0");
+        malformed.addSample("com.recky.demo.api");
+        malformed.start();
+
+        assertEquals(3, loggerContext.getStatusManager().getCopyOfStatusList().stream()
+                .filter(status -> status.getLevel() == Status.ERROR).count());
+        Logger logger = loggerContext.getLogger("com.recky.demo.api.ContactController");
+        for (int i = 0; i < 5; i++) {
+            assertEquals(FilterReply.NEUTRAL, malformed.decide(null, logger, Level.INFO, "event", null, null));
+        }
+    }
+}
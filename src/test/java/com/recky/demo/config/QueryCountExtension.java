@@ -0,0 +1,93 @@
+package com.recky.demo.config;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.BeforeTestExecutionCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+// Records statements while an @ExpectedQueries test body runs and enforces its budget
+public class QueryCountExtension implements BeforeTestExecutionCallback, AfterTestExecutionCallback {
+
+    record RecordedQuery(String sql, String callSite) {
+    }
+
+    private static final List<RecordedQuery> queries = Collections.synchronizedList(new ArrayList<>());
+    private static volatile boolean recording;
+
+    // Registered on the proxied DataSource by QueryCountConfig
+    static final QueryExecutionListener LISTENER = new QueryExecutionListener() {
+        @Override
+        public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        }
+
+        @Override
+        public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+            if (!recording) {
+                return;
+            }
+            String callSite = callSite();
+            for (QueryInfo queryInfo : queryInfoList) {
+                queries.add(new RecordedQuery(queryInfo.getQuery(), callSite));
+            }
+        }
+    };
+
+    // Discard statements recorded so far, e.g. after arranging data inside the test body
+    public static void reset() {
+        queries.clear();
+    }
+
+    @Override
+    public void beforeTestExecution(ExtensionContext context) {
+        queries.clear();
+        recording = true;
+    }
+
+    @Override
+    public void afterTestExecution(ExtensionContext context) {
+        recording = false;
+        ExpectedQueries expected = context.getRequiredTestMethod().getAnnotation(ExpectedQueries.class);
+        List<RecordedQuery> executed;
+        synchronized (queries) {
+            executed = List.copyOf(queries);
+        }
+
+        System.out.println("Statements executed: " + executed.size() + " (budget " + expected.max() + ")");
+        if (executed.size() > expected.max()) {
+            StringBuilder message = new StringBuilder()
+                    .append("Expected at most ").append(expected.max()).append(" statements but ")
+                    .append(executed.size()).append(" were executed:");
+            for (int i = 0; i < executed.size(); i++) {
+                RecordedQuery query = executed.get(i);
+                message.append("\n  ").append(i + 1).append(". ").append(query.sql())
+                        .append("\n     at ").append(query.callSite());
+            }
+            throw new AssertionError(message.toString());
+        }
+    }
+
+    // First application frame outside this test support code, e.g. the service method that triggered a lazy load
+    private static String callSite() {
+        StackTraceElement fallback = null;
+        for (StackTraceElement frame : new Throwable().getStackTrace()) {
+            String className = frame.getClassName();
+            if (!className.startsWith("com.recky.demo.") || className.startsWith("com.recky.demo.config.")) {
+                continue;
+            }
+            if (!className.endsWith("Test")) {
+                return frame.toString();
+            }
+            if (fallback == null) {
+                fallback = frame;
+            }
+        }
+        return fallback != null ? fallback.toString() : "unknown";
+    }
+}
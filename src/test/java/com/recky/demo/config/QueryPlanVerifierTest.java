@@ -0,0 +1,102 @@
+package com.recky.demo.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.recky.demo.config.QueryPlanVerifier.QueryPlan;
+import com.recky.demo.config.QueryPlanVerifier.Report;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:queryplans;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "db.query-plans.verify-on-startup=true"
+})
+@Import({ DataSourceProxyConfig.class, QueryPlanConfig.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class QueryPlanVerifierTest {
+
+    // Every statement that reaches the database
+    static final List<String> executed = new CopyOnWriteArrayList<>();
+
+    @TestConfiguration
+    static class ExecutedStatements {
+
+        @Bean
+        static QueryExecutionListener executedStatementsListener() {
+            return new QueryExecutionListener() {
+                @Override
+                public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+                }
+
+                @Override
+                public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+                    queryInfoList.forEach(queryInfo -> executed.add(queryInfo.getQuery()));
+                }
+            };
+        }
+    }
+
+    @Autowired
+    private QueryPlanVerifier queryPlanVerifier;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void migrationsIndexEveryRepositoryQuery() {
+        System.out.println("\n=== Testing repository query plans against the migrated schema ===");
+        executed.clear();
+        Report report = queryPlanVerifier.verify();
+
+        report.unexpectedScans().forEach(plan -> System.out.println("Unexpected scan: " + plan));
+        assertEquals(List.of(), report.unexpectedScans(), "Every query outside @ExpectedFullScan should use an index");
+        assertEquals(List.of(), report.skippedMethods());
+        assertTrue(report.plans().stream().anyMatch(plan -> plan.method().equals("ContactRepository.findByEmail(String)")));
+        assertTrue(report.plans().stream().anyMatch(plan -> plan.method().equals("ContactRepository.streamAll()")));
+
+        System.out.println("Only the EXPLAINs should have reached the database...");
+        assertEquals(List.of(), executed.stream()
+                .filter(sql -> !sql.toLowerCase(Locale.ROOT).startsWith("explain"))
+                .toList());
+        assertEquals(report.plans().size(), executed.size());
+    }
+
+    @Test
+    void missingIndexIsReported() {
+        System.out.println("\n=== Testing that a missing index shows up as a full scan ===");
+        jdbcTemplate.execute("DROP INDEX idx_contacts_email");
+        try {
+            List<QueryPlan> scans = queryPlanVerifier.verify().unexpectedScans();
+            assertFalse(scans.isEmpty());
+            assertTrue(scans.stream().allMatch(plan -> plan.method().startsWith("ContactRepository.findByEmail")
+                    && plan.scannedTables().equals(List.of("contacts"))), scans.toString());
+        } finally {
+            jdbcTemplate.execute("CREATE INDEX idx_contacts_email ON contacts (email)");
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.recky.demo.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class RequestConcurrencyLimitFilterTest {
+
+    @Test
+    void requestOverTheLimit_IsRejectedWith503() throws Exception {
+        System.out.println("\n=== Testing request concurrency limit ===");
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        RequestConcurrencyLimitFilter filter = new RequestConcurrencyLimitFilter(1, 10, meterRegistry);
+        MockHttpServletResponse innerResponse = new MockHttpServletResponse();
+
+        // The outer request holds the only permit while a second request arrives
+        MockHttpServletResponse outerResponse = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/users/get-users"), outerResponse,
+                (request, response) -> filter.doFilter(new MockHttpServletRequest("GET", "/api/users/get-users"),
+                        innerResponse, (innerRequest, ignored) -> {
+                        }));
+
+        assertEquals(200, outerResponse.getStatus());
+        assertEquals(503, innerResponse.getStatus(), "Second concurrent request should be turned away");
+        assertEquals("1", innerResponse.getHeader("Retry-After"));
+        assertEquals(1.0, meterRegistry.get("http.server.requests.rejected").counter().count());
+        assertEquals(0.0, meterRegistry.get("http.server.requests.in_flight").gauge().value(),
+                "Permit should be released after the request completes");
+    }
+
+    @Test
+    void asyncRequest_HoldsPermitUntilAsyncCompletes() throws Exception {
+        System.out.println("\n=== Testing concurrency limit with an async request ===");
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        RequestConcurrencyLimitFilter filter = new RequestConcurrencyLimitFilter(1, 10, meterRegistry);
+        MockHttpServletRequest asyncRequest = new MockHttpServletRequest("GET", "/api/contacts/user/u1/export");
+        asyncRequest.setAsyncSupported(true);
+
+        // Like a StreamingResponseBody handler: the chain returns while the body is still being written
+        filter.doFilter(asyncRequest, new MockHttpServletResponse(), (request, response) -> request.startAsync());
+        assertEquals(1.0, meterRegistry.get("http.server.requests.in_flight").gauge().value(),
+                "Permit should stay taken while the async request runs");
+
+        MockHttpServletResponse rejectedResponse = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/users/get-users"), rejectedResponse,
+                (request, response) -> {
+                });
+        assertEquals(503, rejectedResponse.getStatus());
+
+        asyncRequest.getAsyncContext().complete();
+        assertEquals(0.0, meterRegistry.get("http.server.requests.in_flight").gauge().value(),
+                "Permit should be released when the async request completes");
+    }
+}
@@ -0,0 +1,69 @@
+package com.recky.demo.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import com.recky.demo.util.RequestTiming;
+import com.recky.demo.util.RequestTiming.Phase;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class RequestTimingInterceptorTest {
+
+    @Test
+    void request_IsBrokenDownByPhaseAndRoute() throws Exception {
+        System.out.println("\n=== Testing per-request timing breakdown ===");
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        RequestTimingInterceptor interceptor = new RequestTimingInterceptor(meterRegistry);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/users/42");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/users/{id}");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        interceptor.preHandle(request, response, null);
+        timed(Phase.DB, 5);
+        // Statements issued by the audit insert belong to the audit phase
+        assertTrue(RequestTiming.enter(Phase.AUDIT));
+        assertFalse(RequestTiming.enter(Phase.DB));
+        Thread.sleep(5);
+        RequestTiming.exit(Phase.DB);
+        RequestTiming.exit(Phase.AUDIT);
+        interceptor.afterCompletion(request, response, null, null);
+
+        assertNull(RequestTiming.current(), "Timing must not leak to the next request on this thread");
+        assertTrue(phaseMillis(meterRegistry, "db") >= 5);
+        assertTrue(phaseMillis(meterRegistry, "audit") >= 5);
+        assertEquals(0.0, phaseMillis(meterRegistry, "serialization"));
+        assertEquals(1, meterRegistry.get("http.server.requests.breakdown").tag("phase", "app").timer().count());
+    }
+
+    @Test
+    void phasesOutsideARequest_AreIgnored() {
+        System.out.println("\n=== Testing timing calls outside a request ===");
+        assertFalse(RequestTiming.enter(Phase.AUDIT));
+        RequestTiming.exit(Phase.AUDIT);
+        assertNull(RequestTiming.current());
+    }
+
+    private static void timed(Phase phase, long millis) throws InterruptedException {
+        assertTrue(RequestTiming.enter(phase));
+        Thread.sleep(millis);
+        RequestTiming.exit(phase);
+    }
+
+    private static double phaseMillis(SimpleMeterRegistry meterRegistry, String phase) {
+        return meterRegistry.get("http.server.requests.breakdown")
+                .tag("uri", "/api/users/{id}")
+                .tag("phase", phase)
+                .timer()
+                .totalTime(TimeUnit.MILLISECONDS);
+    }
+}
@@ -0,0 +1,67 @@
+package com.recky.demo.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.Method;
+import java.sql.PreparedStatement;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+
+public class SlowQueryLogTest {
+
+    @Test
+    void fastStatements_AreNotCaptured() {
+        System.out.println("\n=== Testing statements under the threshold are ignored ===");
+        SlowQueryLog log = new SlowQueryLog(100, 10);
+        log.afterQuery(execution(99), List.of(new QueryInfo("select 1")));
+        assertTrue(log.snapshot().isEmpty());
+        assertEquals(0, log.getCapturedCount());
+    }
+
+    @Test
+    void slowStatements_KeepParameterShapesNotValues() throws Exception {
+        System.out.println("\n=== Testing slow statements record parameter shapes ===");
+        SlowQueryLog log = new SlowQueryLog(100, 10);
+        QueryInfo query = new QueryInfo("select * from users where email = ? and id > ?");
+        Method setString = PreparedStatement.class.getMethod("setString", int.class, String.class);
+        Method setLong = PreparedStatement.class.getMethod("setLong", int.class, long.class);
+        query.getParametersList().add(List.of(
+                new ParameterSetOperation(setLong, new Object[] { 2, 42L }),
+                new ParameterSetOperation(setString, new Object[] { 1, "alice@example.com" })));
+
+        log.afterQuery(execution(250), List.of(query));
+
+        SlowQueryLog.SlowQuery captured = log.snapshot().get(0);
+        assertEquals(250, captured.durationMs());
+        assertEquals(List.of("String(17)", "Long"), captured.parameterShapes());
+        assertTrue(captured.handler() != null);
+    }
+
+    @Test
+    void buffer_KeepsOnlyTheMostRecentEntries() {
+        System.out.println("\n=== Testing ring buffer wraps ===");
+        SlowQueryLog log = new SlowQueryLog(0, 3);
+        for (int i = 0; i < 5; i++) {
+            log.afterQuery(execution(i), List.of(new QueryInfo("select " + i)));
+        }
+        assertEquals(5, log.getCapturedCount());
+        List<String> kept = log.snapshot().stream().map(SlowQueryLog.SlowQuery::sql).sorted().toList();
+        assertEquals(List.of("select 2", "select 3", "select 4"), kept);
+
+        log.clear();
+        assertTrue(log.snapshot().isEmpty());
+    }
+
+    private static ExecutionInfo execution(long elapsedMs) {
+        ExecutionInfo info = new ExecutionInfo();
+        info.setElapsedTime(elapsedMs);
+        info.setSuccess(true);
+        return info;
+    }
+}
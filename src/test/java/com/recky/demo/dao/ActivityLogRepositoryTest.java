@@ -0,0 +1,135 @@
+package com.recky.demo.dao;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.hibernate.Hibernate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import com.recky.demo.config.ExpectedQueries;
+import com.recky.demo.config.QueryCountConfig;
+import com.recky.demo.dto.ActivityLogActionCount;
+import com.recky.demo.dto.ActivityLogDTO;
+import com.recky.demo.dto.ActivityLogStatsDTO;
+import com.recky.demo.model.ActivityLog;
+import com.recky.demo.model.User;
+
+@DataJpaTest
+@Import(QueryCountConfig.class)
+public class ActivityLogRepositoryTest {
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ActivityLogRepository activityLogRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User testUser;
+    private User otherUser;
+
+    @BeforeEach
+    void setUp() {
+        System.out.println("\n=== Setting up test users and activity logs ===");
+        testUser = new User();
+        testUser.setId("log-user");
+        testUser.setUsername("loguser");
+        testUser.setEmail("log@example.com");
+        testUser = entityManager.persist(testUser);
+
+        otherUser = new User();
+        otherUser.setId("other-user");
+        otherUser.setUsername("otheruser");
+        otherUser.setEmail("other@example.com");
+        otherUser = entityManager.persist(otherUser);
+
+        entityManager.persist(new ActivityLog(testUser, ActivityLog.Action.GET, "get 1"));
+        entityManager.persist(new ActivityLog(testUser, ActivityLog.Action.GET, "get 2"));
+        entityManager.persist(new ActivityLog(testUser, ActivityLog.Action.LOGIN, "login"));
+        entityManager.persist(new ActivityLog(testUser, ActivityLog.Action.LOGOUT, "logout"));
+        entityManager.persist(new ActivityLog(otherUser, ActivityLog.Action.CREATE, "create"));
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void whenCountByActionForUser_thenGroupsInDatabase() {
+        System.out.println("\n=== Testing countByActionForUser ===");
+        List<ActivityLogActionCount> counts = activityLogRepository.countByActionForUser(testUser.getId(), null,
+                null);
+        ActivityLogStatsDTO stats = ActivityLogStatsDTO.fromCounts(counts);
+
+        assertEquals(2, stats.getGetCount(), "GET count should be 2");
+        assertEquals(1, stats.getLoginCount(), "LOGIN count should be 1");
+        assertEquals(1, stats.getLogoutCount(), "LOGOUT count should be 1");
+        assertEquals(0, stats.getCreateCount(), "Other user's logs should not be counted");
+        assertEquals(4, stats.getTotalLogs(), "Total should include every action");
+    }
+
+    @Test
+    void whenCountByAction_thenCountsAllUsers() {
+        System.out.println("\n=== Testing countByAction ===");
+        ActivityLogStatsDTO stats = ActivityLogStatsDTO.fromCounts(activityLogRepository.countByAction(null, null));
+
+        assertEquals(1, stats.getCreateCount(), "CREATE count should be 1");
+        assertEquals(5, stats.getTotalLogs(), "Total should cover all users");
+    }
+
+    @Test
+    void whenCountByActionWithTimeWindow_thenExcludesOutsideRows() {
+        System.out.println("\n=== Testing countByAction with a time window ===");
+        LocalDateTime future = LocalDateTime.now().plusDays(1);
+
+        assertEquals(0, ActivityLogStatsDTO.fromCounts(activityLogRepository.countByAction(future, null))
+                .getTotalLogs(), "No logs should be after tomorrow");
+        assertEquals(5, ActivityLogStatsDTO.fromCounts(activityLogRepository.countByAction(null, future))
+                .getTotalLogs(), "All logs should be before tomorrow");
+    }
+
+    @Test
+    void whenSavingWithUserReference_thenUserIsNotLoaded() {
+        System.out.println("\n=== Testing activity log insert through a user reference ===");
+        entityManager.clear();
+
+        User reference = userRepository.getReferenceById(testUser.getId());
+        ActivityLog saved = activityLogRepository.save(new ActivityLog(reference, ActivityLog.Action.GET, "ref"));
+        entityManager.flush();
+
+        assertFalse(Hibernate.isInitialized(reference), "Only the FK should be written, without a user SELECT");
+        assertEquals(testUser.getId(), saved.getUser().getId());
+        assertEquals(5, activityLogRepository.countByActionForUser(testUser.getId(), null, null).stream()
+                .mapToLong(ActivityLogActionCount::getCount).sum());
+    }
+
+    @Test
+    @ExpectedQueries(max = 2)
+    void whenFindByUserId_thenUserIsLoadedOnce() {
+        System.out.println("\n=== Testing findByUserId statement budget ===");
+        List<ActivityLog> logs = activityLogRepository.findByUserId(testUser.getId());
+
+        // ActivityLog.user is eager: one SELECT for the logs plus one for their (shared) user, not one per log
+        assertEquals(4, logs.size());
+        assertEquals(1, logs.stream().map(ActivityLog::getUser).distinct().count());
+    }
+
+    @Test
+    @ExpectedQueries(max = 1)
+    void whenFindDTOsByUserId_thenUsersTableIsNotQueried() {
+        System.out.println("\n=== Testing activity log DTO projection ===");
+        List<ActivityLogDTO> logs = activityLogRepository.findDTOsByUserId(testUser.getId());
+
+        assertEquals(4, logs.size());
+        assertTrue(logs.stream().allMatch(log -> testUser.getId().equals(log.getUserId())),
+                "userId should be read from the user_id column");
+        assertTrue(logs.stream().anyMatch(log -> "LOGIN".equals(log.getAction())));
+    }
+}
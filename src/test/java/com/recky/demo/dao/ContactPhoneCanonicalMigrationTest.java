@@ -0,0 +1,79 @@
+package com.recky.demo.dao;
+
+import java.sql.Connection;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import org.flywaydb.core.api.configuration.Configuration;
+import org.flywaydb.core.api.migration.Context;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import db.migration.V5__backfill_contacts_phone_canonical;
+
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class ContactPhoneCanonicalMigrationTest {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        System.out.println("\n=== Resetting contacts written before phone_canonical ===");
+        jdbcTemplate.update("DELETE FROM contacts");
+        jdbcTemplate.update("DELETE FROM users");
+        for (String userId : List.of("user-a", "user-b")) {
+            jdbcTemplate.update("INSERT INTO users (id, username, email) VALUES (?, ?, ?)", userId, userId,
+                    userId + "@example.com");
+        }
+    }
+
+    private long insertContact(String userId, String phone) {
+        jdbcTemplate.update("INSERT INTO contacts (user_id, name, phone) VALUES (?, ?, ?)", userId, "Contact", phone);
+        return jdbcTemplate.queryForObject("SELECT MAX(id) FROM contacts", Long.class);
+    }
+
+    private String canonicalOf(long id) {
+        return jdbcTemplate.queryForObject("SELECT phone_canonical FROM contacts WHERE id = ?", String.class, id);
+    }
+
+    @Test
+    void migrate_FillsCanonicalPhonesAndMarksDuplicates() throws Exception {
+        System.out.println("\n=== Testing the phone_canonical backfill migration ===");
+        long first = insertContact("user-a", "+1 555-0100");
+        long duplicate = insertContact("user-a", "(555) 0100");
+        long otherUser = insertContact("user-b", "555 0100");
+        long noDigits = insertContact("user-a", "unknown");
+        long national = insertContact("user-a", "030 1234567");
+
+        try (Connection connection = dataSource.getConnection()) {
+            Configuration configuration = mock(Configuration.class);
+            when(configuration.getPlaceholders()).thenReturn(Map.of("default-country-code", "1"));
+            Context context = mock(Context.class);
+            when(context.getConfiguration()).thenReturn(configuration);
+            when(context.getConnection()).thenReturn(connection);
+            new V5__backfill_contacts_phone_canonical().migrate(context);
+        }
+
+        assertEquals("+15550100", canonicalOf(first));
+        assertEquals("#" + duplicate, canonicalOf(duplicate), "A later duplicate is marked, not left NULL");
+        assertEquals("+15550100", canonicalOf(otherUser), "Duplicates are only checked within a user");
+        assertNull(canonicalOf(noDigits));
+        assertEquals("+10301234567", canonicalOf(national));
+    }
+}
@@ -1,24 +1,38 @@
 package com.recky.demo.dao;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.hibernate.Hibernate;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
-
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+
+import com.recky.demo.config.ExpectedQueries;
+import com.recky.demo.config.QueryCountConfig;
+import com.recky.demo.config.QueryCountExtension;
+import com.recky.demo.dto.ContactDTO;
+import com.recky.demo.dto.UserContactCount;
+import com.recky.demo.dto.UserDTO;
 import com.recky.demo.model.Contact;
 import com.recky.demo.model.User;
 
 @DataJpaTest
+@Import(QueryCountConfig.class)
 public class ContactRepositoryTest {
     @Autowired
     private TestEntityManager entityManager;
@@ -26,6 +40,9 @@ public class ContactRepositoryTest {
     @Autowired
     private ContactRepository contactRepository;
 
+    @Autowired
+    private UserRepository userRepository;
+
     private Contact testContact;
     private User testUser;
     private String userId = "some-random-id";
@@ -186,4 +203,108 @@ public class ContactRepositoryTest {
         assertEquals(testContact.getName(), found.get().getName(), "Contact name should match");
         System.out.println("Test completed successfully - Contact found by userId and id");
     }
+
+    @Test
+    void whenSeekByCursor_thenWalkAllContactsWithoutGaps() {
+        System.out.println("\n=== Testing keyset pagination by (createdAt, id) ===");
+        LocalDateTime sameInstant = LocalDateTime.now().withNano(0);
+        for (int i = 0; i < 5; i++) {
+            Contact contact = new Contact();
+            contact.setName("Seek Contact " + i);
+            contact.setPhone("55500" + i);
+            contact.setUser(testUser);
+            contact = entityManager.persist(contact);
+            entityManager.flush();
+            // Give some rows identical timestamps so the id tie-breaker is exercised
+            entityManager.getEntityManager()
+                    .createQuery("UPDATE Contact c SET c.createdAt = :createdAt WHERE c.id = :id")
+                    .setParameter("createdAt", i < 3 ? sameInstant : sameInstant.plusSeconds(i))
+                    .setParameter("id", contact.getId())
+                    .executeUpdate();
+        }
+        entityManager.clear();
+
+        List<Long> seen = new ArrayList<>();
+        Slice<ContactDTO> slice = contactRepository.findDTOsByUserIdOrderByCreatedAtDescIdDesc(testUser.getId(),
+                PageRequest.of(0, 2));
+        while (true) {
+            slice.getContent().forEach(contact -> seen.add(contact.getId()));
+            if (!slice.hasNext()) {
+                break;
+            }
+            ContactDTO last = slice.getContent().get(slice.getContent().size() - 1);
+            slice = contactRepository.findDTOsByUserIdAfterCursor(testUser.getId(), last.getCreatedAt(), last.getId(),
+                    PageRequest.of(0, 2));
+        }
+
+        System.out.println("Verifying every contact was returned exactly once...");
+        assertEquals(5, seen.size(), "All contacts should be returned");
+        assertEquals(5, seen.stream().distinct().count(), "No contact should be returned twice");
+    }
+
+    @Test
+    @ExpectedQueries(max = 2)
+    void whenCountByUserIds_thenOneStatementForThePage() {
+        System.out.println("\n=== Testing batched contact counts for a page of users ===");
+        User otherUser = new User();
+        otherUser.setId("count-user");
+        otherUser.setUsername("countuser");
+        otherUser.setEmail("count@example.com");
+        otherUser = entityManager.persist(otherUser);
+
+        entityManager.persist(testContact);
+        for (int i = 0; i < 3; i++) {
+            Contact contact = new Contact();
+            contact.setName("Counted " + i);
+            contact.setPhone("555000" + i);
+            contact.setUser(otherUser);
+            entityManager.persist(contact);
+        }
+        entityManager.flush();
+        entityManager.clear();
+        QueryCountExtension.reset();
+
+        List<User> users = userRepository.findAll();
+        Map<String, Long> counts = contactRepository
+                .countByUserIds(users.stream().map(User::getId).collect(Collectors.toList()))
+                .stream()
+                .collect(Collectors.toMap(UserContactCount::getUserId, UserContactCount::getContactCount));
+
+        assertEquals(1L, counts.get(userId));
+        assertEquals(3L, counts.get("count-user"));
+        assertFalse(users.stream().anyMatch(user -> Hibernate.isInitialized(user.getContacts())),
+                "Contacts collections should stay uninitialized");
+    }
+
+    @Test
+    @ExpectedQueries(max = 1)
+    void whenFindAllUserDTOs_thenCountsComeFromTheSameStatement() {
+        System.out.println("\n=== Testing user DTO projection with contact counts ===");
+        User otherUser = new User();
+        otherUser.setId("projected-user");
+        otherUser.setUsername("projecteduser");
+        otherUser.setEmail("projected@example.com");
+        otherUser = entityManager.persist(otherUser);
+
+        entityManager.persist(testContact);
+        for (int i = 0; i < 2; i++) {
+            Contact contact = new Contact();
+            contact.setName("Projected " + i);
+            contact.setPhone("555100" + i);
+            contact.setUser(otherUser);
+            entityManager.persist(contact);
+        }
+        entityManager.flush();
+        entityManager.clear();
+        QueryCountExtension.reset();
+
+        Page<UserDTO> page = userRepository.findAllDTOs(PageRequest.of(0, 10, Sort.by("username")));
+
+        assertEquals(2, page.getContent().size());
+        assertEquals("projecteduser", page.getContent().get(0).getUsername(), "Sort should apply to the projection");
+        assertEquals(2, page.getContent().get(0).getContactCount());
+        assertEquals(1, page.getContent().get(1).getContactCount());
+        assertEquals("USER", page.getContent().get(1).getRole());
+        assertEquals("ACTIVE", page.getContent().get(1).getStatus());
+    }
 }
@@ -12,6 +12,8 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 
 import com.recky.demo.model.User;
 
@@ -146,4 +148,27 @@ public class UserRepositoryTest {
         assertFalse(found.isPresent(), "No user should be found with non-existent ID");
         System.out.println("Test completed successfully - No user found as expected");
     }
+
+    @Test
+    void whenFindByRolePaged_thenFilterAndCountInDatabase() {
+        System.out.println("\n=== Testing findByRole with pagination ===");
+        for (int i = 0; i < 5; i++) {
+            User user = new User();
+            user.setId(UUID.randomUUID().toString());
+            user.setUsername("user" + i);
+            user.setEmail("user" + i + "@example.com");
+            user.setRole(i < 3 ? User.Role.ADMIN : User.Role.USER);
+            entityManager.persist(user);
+        }
+        entityManager.flush();
+
+        Page<User> firstPage = userRepository.findByRole(User.Role.ADMIN, PageRequest.of(0, 2));
+        Page<User> secondPage = userRepository.findByRole(User.Role.ADMIN, PageRequest.of(1, 2));
+
+        assertEquals(2, firstPage.getContent().size(), "First page should be full");
+        assertEquals(1, secondPage.getContent().size(), "Second page should hold the remaining admin");
+        assertEquals(3, firstPage.getTotalElements(), "Total should count only admins");
+        assertEquals(2, firstPage.getTotalPages(), "Page count should be based on admins only");
+        assertTrue(secondPage.getContent().stream().allMatch(user -> user.getRole() == User.Role.ADMIN));
+    }
 }
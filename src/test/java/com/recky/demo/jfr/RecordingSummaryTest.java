@@ -0,0 +1,76 @@
+package com.recky.demo.jfr;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+public class RecordingSummaryTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void nestedEvents_AreAttributedToTheirEndpoint() throws Exception {
+        System.out.println("\n=== Testing JFR recording summary by endpoint ===");
+        Path file = tempDir.resolve("recky.jfr");
+        try (Recording recording = new Recording()) {
+            for (String name : List.of("com.recky.demo.ApiRequest", "com.recky.demo.RepositoryCall",
+                    "com.recky.demo.AuditWrite")) {
+                recording.enable(name).withThreshold(Duration.ZERO);
+            }
+            recording.start();
+
+            ApiRequestEvent request = new ApiRequestEvent();
+            request.begin();
+            repositoryCall("findDTOsByUserId", 3);
+            AuditWriteEvent audit = new AuditWriteEvent();
+            audit.action = "LOGIN";
+            audit.outcome = AuditWriteEvent.SAVED;
+            audit.commit();
+            request.method = "GET";
+            request.endpoint = "/api/activity-logs/user/{userId}";
+            request.status = 200;
+            request.commit();
+
+            // Outside any request, e.g. a scheduled job
+            repositoryCall("findAll", 5);
+
+            recording.stop();
+            recording.dump(file);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+        Map<String, RecordingSummary.EndpointStats> byEndpoint = RecordingSummary.summarize(events);
+
+        RecordingSummary.EndpointStats endpoint = byEndpoint.get("GET /api/activity-logs/user/{userId}");
+        assertEquals(1, endpoint.requests.size());
+        assertEquals(1, endpoint.repositoryCalls);
+        assertEquals(3, endpoint.rows);
+        assertEquals(1, endpoint.audits);
+        assertEquals(5, byEndpoint.get(RecordingSummary.NO_REQUEST).rows);
+
+        String report = RecordingSummary.format(byEndpoint, RecordingSummary.repositoryMethods(events));
+        assertTrue(report.contains("ActivityLogRepository.findDTOsByUserId"));
+    }
+
+    private static void repositoryCall(String method, int rows) {
+        RepositoryCallEvent event = new RepositoryCallEvent();
+        event.begin();
+        event.repository = "ActivityLogRepository";
+        event.method = method;
+        event.rows = rows;
+        event.success = true;
+        event.commit();
+    }
+}
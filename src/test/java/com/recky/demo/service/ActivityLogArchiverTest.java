@@ -0,0 +1,213 @@
+package com.recky.demo.service;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.recky.demo.dao.ActivityLogRepository;
+import com.recky.demo.dto.ActivityLogDTO;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:retention;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password="
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class ActivityLogArchiverTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 10, 18, 12, 0);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ActivityLogRepository activityLogRepository;
+
+    @TempDir
+    Path archiveDir;
+
+    private ActivityLogArchive archive;
+    private ActivityLogArchiver archiver;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        System.out.println("\n=== Resetting activity logs and the archive ===");
+        jdbcTemplate.update("DELETE FROM activity_logs");
+        jdbcTemplate.update("DELETE FROM users");
+        for (String userId : List.of("user-a", "user-b")) {
+            jdbcTemplate.update("INSERT INTO users (id, username, email) VALUES (?, ?, ?)", userId, userId,
+                    userId + "@example.com");
+        }
+        archive = new ActivityLogArchive(archiveDir.toString());
+        archive.load();
+        // A delete batch of 2 ids, so each month is removed over several statements
+        archiver = new ActivityLogArchiver(jdbcTemplate, archive, 180, 3, 2);
+    }
+
+    private void insertLog(String userId, String action, LocalDateTime timestamp, String details) {
+        jdbcTemplate.update("INSERT INTO activity_logs (user_id, action, timestamp, details) VALUES (?, ?, ?, ?)",
+                userId, action, Timestamp.valueOf(timestamp), details);
+    }
+
+    @Test
+    void archiveExpired_MovesOldMonthsOutAndPagesReadThrough() throws Exception {
+        System.out.println("\n=== Testing archival of expired months and read-through paging ===");
+        LocalDateTime january = LocalDateTime.of(2025, 1, 10, 9, 0);
+        LocalDateTime february = LocalDateTime.of(2025, 2, 3, 9, 0);
+        for (int i = 0; i < 5; i++) {
+            insertLog("user-a", "GET", january.plusHours(i), "january " + i);
+        }
+        for (int i = 0; i < 3; i++) {
+            insertLog("user-a", "UPDATE", february.plusMinutes(i), i == 0 ? null : "february " + i);
+        }
+        insertLog("user-b", "LOGIN", january, "other user");
+        insertLog("user-a", "GET", NOW.minusDays(2), "recent 0");
+        insertLog("user-a", "CREATE", NOW.minusDays(1), "recent 1");
+
+        assertEquals(9, archiver.archiveExpired(NOW));
+        assertEquals(2, activityLogRepository.count(), "Only logs within retention stay in the table");
+        assertTrue(Files.exists(archive.segmentPath("p202501")));
+        assertTrue(Files.exists(archive.segmentPath("p202502")));
+        assertEquals(LocalDateTime.of(2025, 2, 4, 0, 0), archive.getArchivedBefore());
+
+        System.out.println("Running again should find nothing left to archive...");
+        assertEquals(0, archiver.archiveExpired(NOW));
+
+        System.out.println("Segments should read back the same after a restart...");
+        ActivityLogArchive reloaded = new ActivityLogArchive(archiveDir.toString());
+        reloaded.load();
+        assertEquals(8, reloaded.countByUserId("user-a"));
+        assertEquals(1, reloaded.countByUserId("user-b"));
+        List<ActivityLogDTO> newestArchived = reloaded.findByUserId("user-a", 0, 4);
+        assertEquals(List.of("february 2", "february 1"),
+                newestArchived.subList(0, 2).stream().map(ActivityLogDTO::getDetails).toList());
+        assertNull(newestArchived.get(2).getDetails());
+        assertEquals("UPDATE", newestArchived.get(2).getAction());
+        assertEquals(february, newestArchived.get(2).getTimestamp());
+        assertEquals("january 4", newestArchived.get(3).getDetails());
+
+        System.out.println("Paging a user's logs should continue from the table into the archive...");
+        ActivityLogService service = new ActivityLogService(activityLogRepository, null);
+        ReflectionTestUtils.setField(service, "archive", reloaded);
+        List<String> details = new ArrayList<>();
+        for (int page = 0; page < 3; page++) {
+            Page<ActivityLogDTO> logs = service.getPaginatedLogsByUserId("user-a", PageRequest.of(page, 4));
+            assertEquals(10, logs.getTotalElements());
+            assertEquals(3, logs.getTotalPages());
+            logs.forEach(log -> details.add(log.getDetails()));
+        }
+        assertEquals(List.of("recent 1", "recent 0", "february 2", "february 1"), details.subList(0, 4));
+        assertEquals(List.of("january 1", "january 0"), details.subList(8, 10));
+        assertEquals(10, details.size());
+    }
+
+    @Test
+    void archiveExpired_MergesLateLogsBeforeRemovingThem() throws Exception {
+        System.out.println("\n=== Testing logs that reach an already archived month ===");
+        LocalDateTime january = LocalDateTime.of(2025, 1, 10, 9, 0);
+        for (int i = 0; i < 3; i++) {
+            insertLog("user-a", "GET", january.plusHours(i * 2), "january " + i);
+        }
+        assertEquals(3, archiver.archiveExpired(NOW));
+
+        System.out.println("A replayed log of January arrives after the month was archived...");
+        insertLog("user-a", "UPDATE", january.plusHours(1), "late");
+        insertLog("user-b", "LOGIN", january, "late other user");
+        assertEquals(2, archiver.archiveExpired(NOW), "Late logs are archived, then removed");
+        assertEquals(0, activityLogRepository.count());
+        assertTrue(Files.exists(archive.segmentPath("p202501")),
+                "The previous generation stays until restart, for readers still paging through it");
+
+        ActivityLogArchive reloaded = new ActivityLogArchive(archiveDir.toString());
+        reloaded.load();
+        assertFalse(Files.exists(archive.segmentPath("p202501")));
+        assertEquals(1, reloaded.getSegments().size());
+        assertEquals(List.of("january 2", "january 1", "late", "january 0"),
+                reloaded.findByUserId("user-a", 0, 10).stream().map(ActivityLogDTO::getDetails).toList());
+        assertEquals(1, reloaded.countByUserId("user-b"));
+    }
+
+    @Test
+    void archiveExpired_KeepsRowsItHasNotArchived() throws Exception {
+        System.out.println("\n=== Testing a run that resumes after its segment was written ===");
+        LocalDateTime january = LocalDateTime.of(2025, 1, 10, 9, 0);
+        insertLog("user-a", "GET", january, "january 0");
+        insertLog("user-a", "GET", january.plusHours(1), "january 1");
+
+        System.out.println("A segment holding only the first log is left behind...");
+        long firstId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM activity_logs", Long.class);
+        try (ActivityLogSegment.Writer writer = ActivityLogSegment.create(archive.segmentPath("p202501"))) {
+            writer.append(new ActivityLogDTO(firstId, "user-a", "GET", january, "january 0"));
+            archive.add(writer.finish());
+        }
+
+        assertEquals(2, archiver.archiveExpired(NOW));
+        assertEquals(0, activityLogRepository.count());
+        assertEquals(List.of("january 1", "january 0"),
+                archive.findByUserId("user-a", 0, 10).stream().map(ActivityLogDTO::getDetails).toList(),
+                "Each log is archived exactly once");
+    }
+
+    @Test
+    void getPaginatedLogsByUserId_SortsUnsortedPagesNewestFirstWithoutArchive() {
+        System.out.println("\n=== Testing the default order of unsorted pages with nothing archived ===");
+        insertLog("user-a", "GET", NOW.minusDays(1), "newer");
+        insertLog("user-a", "GET", NOW.minusDays(3), "oldest");
+        insertLog("user-a", "GET", NOW.minusDays(2), "middle");
+
+        ActivityLogService service = new ActivityLogService(activityLogRepository, null);
+        ReflectionTestUtils.setField(service, "archive", archive);
+        Page<ActivityLogDTO> logs = service.getPaginatedLogsByUserId("user-a", PageRequest.of(0, 10));
+        assertEquals(List.of("newer", "middle", "oldest"), logs.map(ActivityLogDTO::getDetails).getContent());
+    }
+
+    @Test
+    void segment_SkipsWholeBlocksWhenPaging() throws Exception {
+        System.out.println("\n=== Testing segment blocks and offsets ===");
+        int rows = ActivityLogSegment.MAX_BLOCK_ROWS + 10;
+        LocalDateTime start = LocalDateTime.of(2025, 3, 1, 0, 0, 0, 123_456_000);
+        try (ActivityLogSegment.Writer writer = ActivityLogSegment.create(archive.segmentPath("p202503"))) {
+            for (int i = 0; i < rows; i++) {
+                writer.append(new ActivityLogDTO((long) i + 1, "user-a", "GET", start.plusSeconds(i), "log " + i));
+            }
+            writer.append(new ActivityLogDTO((long) rows + 1, "user-b", "LOGOUT", start, null));
+            archive.add(writer.finish());
+        }
+
+        ActivityLogSegment segment = ActivityLogSegment.open(archive.segmentPath("p202503"));
+        assertEquals(2, segment.blocksFor("user-a").size(), "A user's rows are split into blocks of bounded size");
+        assertEquals(rows, segment.countFor("user-a"));
+        assertEquals(start, segment.getMinTimestamp(), "Timestamps keep sub-second precision");
+
+        // The newest 10 rows fill the second block; offset 12 lands two rows into the first
+        List<ActivityLogDTO> page = archive.findByUserId("user-a", 12, 3);
+        assertEquals(List.of("log " + (rows - 13), "log " + (rows - 14), "log " + (rows - 15)),
+                page.stream().map(ActivityLogDTO::getDetails).toList());
+        assertEquals(List.of(), archive.findByUserId("user-a", rows, 5));
+        assertEquals("LOGOUT", archive.findByUserId("user-b", 0, 5).get(0).getAction());
+    }
+}
@@ -0,0 +1,177 @@
+package com.recky.demo.service;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.recky.demo.dao.ActivityLogRepository;
+import com.recky.demo.dao.ActivityLogRollupRepository;
+import com.recky.demo.dao.UserRepository;
+import com.recky.demo.dto.ActivityLogStatsDTO;
+import com.recky.demo.model.ActivityLog;
+import com.recky.demo.model.ActivityLogRollup;
+import com.recky.demo.model.User;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:rollups;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "activity-log.rollups.enabled=true"
+})
+@Import(ActivityLogRollups.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class ActivityLogRollupsTest {
+
+    @Autowired
+    private ActivityLogRollups rollups;
+
+    @Autowired
+    private ActivityLogRollupRepository rollupRepository;
+
+    @Autowired
+    private ActivityLogRepository activityLogRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        System.out.println("\n=== Clearing activity logs and rollups ===");
+        activityLogRepository.deleteAll();
+        userRepository.deleteAll();
+        // A cutoff past today clears every counter and rollup
+        rollups.reconcile(LocalDate.now().plusDays(1).atStartOfDay());
+    }
+
+    @Test
+    void flush_UpsertsHourAndDayTiers() {
+        System.out.println("\n=== Testing rollup flush ===");
+        LocalDateTime now = LocalDateTime.now();
+        rollups.record("user-a", ActivityLog.Action.GET, now);
+        rollups.record("user-a", ActivityLog.Action.GET, now);
+        rollups.record("user-a", ActivityLog.Action.LOGIN, now);
+        rollups.record("user-b", ActivityLog.Action.CREATE, now);
+
+        System.out.println("Stats before flush should include in-memory counts...");
+        ActivityLogStatsDTO beforeFlush = rollups.getUserStats("user-a", null, null);
+        assertEquals(2, beforeFlush.getGetCount());
+        assertEquals(3, beforeFlush.getTotalLogs());
+
+        rollups.flush();
+        rollups.record("user-a", ActivityLog.Action.GET, now);
+        rollups.flush();
+
+        ActivityLogStatsDTO userStats = rollups.getUserStats("user-a", null, null);
+        assertEquals(3, userStats.getGetCount(), "Upserts should accumulate across flushes");
+        assertEquals(1, userStats.getLoginCount());
+        assertEquals(4, userStats.getTotalLogs());
+
+        ActivityLogStatsDTO windowStats = rollups.getUserStats("user-a", now.minusHours(1), now.plusHours(1));
+        assertEquals(4, windowStats.getTotalLogs(), "HOUR tier should agree with DAY tier");
+
+        assertEquals(5, rollups.getAllStats(null, null).getTotalLogs());
+        assertEquals(2 * 3, rollupRepository.count(), "Three hourly and three daily rollup rows expected");
+    }
+
+    @Test
+    void getUserStats_CountsEveryHourTheWindowTouches() {
+        System.out.println("\n=== Testing rollup stats windows ===");
+        LocalDateTime hour = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS).minusHours(3);
+        rollups.record("user-a", ActivityLog.Action.GET, hour.plusMinutes(5));
+        rollups.record("user-a", ActivityLog.Action.GET, hour.plusHours(1).plusMinutes(50));
+        rollups.record("user-a", ActivityLog.Action.GET, hour.plusHours(2).plusMinutes(5));
+
+        for (boolean flushed : new boolean[] { false, true }) {
+            if (flushed) {
+                System.out.println("The same windows answered from the HOUR tier...");
+                rollups.flush();
+            }
+            assertEquals(2, rollups.getUserStats("user-a", hour.plusMinutes(30), hour.plusHours(1).plusMinutes(10))
+                    .getTotalLogs(), "Partial first and last hours both count in full");
+            assertEquals(1, rollups.getUserStats("user-a", hour.plusHours(1), hour.plusHours(2)).getTotalLogs(),
+                    "An end on the hour excludes that hour");
+            assertEquals(3, rollups.getUserStats("user-a", hour, null).getTotalLogs());
+            assertEquals(1, rollups.getUserStats("user-a", null, hour.plusMinutes(1)).getTotalLogs());
+        }
+    }
+
+    @Test
+    void reconcile_RebuildsFromRawLogs() {
+        System.out.println("\n=== Testing rollup reconcile ===");
+        User user = new User();
+        user.setId("rollup-user");
+        user.setUsername("rollupuser");
+        user.setEmail("rollup@example.com");
+        userRepository.save(user);
+        LocalDateTime yesterday = LocalDate.now().minusDays(1).atTime(10, 15);
+        insertLog(ActivityLog.Action.GET, yesterday);
+        insertLog(ActivityLog.Action.UPDATE, yesterday);
+
+        System.out.println("Writing a drifted rollup row...");
+        rollupRepository.save(new ActivityLogRollup(ActivityLogRollup.Granularity.DAY,
+                yesterday.toLocalDate().atStartOfDay(), "rollup-user", ActivityLog.Action.GET, 99));
+
+        System.out.println("A log of today is written and counted in memory, not yet flushed...");
+        LocalDateTime now = LocalDateTime.now();
+        insertLog(ActivityLog.Action.LOGIN, now);
+        rollups.record("rollup-user", ActivityLog.Action.LOGIN, now);
+
+        rollups.reconcile();
+
+        ActivityLogStatsDTO stats = rollups.getUserStats("rollup-user", null, null);
+        assertEquals(1, stats.getGetCount(), "Drifted rollups should be replaced by counts from activity_logs");
+        assertEquals(1, stats.getUpdateCount());
+        assertEquals(1, stats.getLoginCount(), "Today's log is counted once, from memory");
+        assertEquals(3, stats.getTotalLogs());
+
+        rollups.flush();
+        assertEquals(3, rollups.getUserStats("rollup-user", null, null).getTotalLogs());
+    }
+
+    @Test
+    void backfillIfEmpty_CountsExistingLogsIncludingToday() {
+        System.out.println("\n=== Testing rollup backfill on first enable ===");
+        User user = new User();
+        user.setId("rollup-user");
+        user.setUsername("rollupuser");
+        user.setEmail("rollup@example.com");
+        userRepository.save(user);
+        insertLog(ActivityLog.Action.GET, LocalDate.now().minusDays(1).atTime(10, 15));
+        insertLog(ActivityLog.Action.UPDATE, LocalDateTime.now());
+
+        rollups.backfillIfEmpty();
+        ActivityLogStatsDTO stats = rollups.getUserStats("rollup-user", null, null);
+        assertEquals(1, stats.getGetCount());
+        assertEquals(1, stats.getUpdateCount(), "Today's logs are backfilled too");
+        assertEquals(1, rollups.getAllStats(LocalDate.now().atStartOfDay(), null).getTotalLogs(),
+                "The HOUR tier has today's log");
+
+        System.out.println("Later starts leave existing rollups alone...");
+        rollups.backfillIfEmpty();
+        assertEquals(2, rollups.getUserStats("rollup-user", null, null).getTotalLogs());
+    }
+
+    private void insertLog(ActivityLog.Action action, LocalDateTime timestamp) {
+        jdbcTemplate.update("INSERT INTO activity_logs (user_id, action, timestamp, details) VALUES (?, ?, ?, ?)",
+                "rollup-user", action.name(), Timestamp.valueOf(timestamp), action.name().toLowerCase());
+    }
+}
@@ -0,0 +1,131 @@
+package com.recky.demo.service;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.recky.demo.model.ActivityLog;
+import com.recky.demo.service.ActivityLogWriteBehind.OverflowPolicy;
+import com.recky.demo.service.ActivityLogWriteBehind.PendingActivityLog;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+public class ActivityLogWriteBehindTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @TempDir
+    Path tempDir;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    private ActivityLogWriteBehind newWriteBehind(int capacity, OverflowPolicy policy) {
+        return new ActivityLogWriteBehind(jdbcTemplate, objectMapper, new SimpleMeterRegistry(),
+                capacity, 100, 50, policy, tempDir.resolve("spill.ndjson").toString());
+    }
+
+    private PendingActivityLog entry(String details) {
+        return new PendingActivityLog("user-1", ActivityLog.Action.GET, LocalDateTime.now(), details);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void stop_FlushesQueuedEntriesAsOneBatch() {
+        System.out.println("\n=== Testing Write-Behind Flush On Shutdown ===");
+        ActivityLogWriteBehind writeBehind = newWriteBehind(10, OverflowPolicy.BLOCK);
+
+        writeBehind.enqueue(entry("first"));
+        writeBehind.enqueue(entry("second"));
+        writeBehind.enqueue(entry("third"));
+        assertEquals(3, writeBehind.getQueueDepth());
+
+        writeBehind.stop();
+
+        ArgumentCaptor<List<PendingActivityLog>> batch = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(anyString(), batch.capture(), eq(3),
+                any(ParameterizedPreparedStatementSetter.class));
+        assertEquals(3, batch.getValue().size());
+        assertEquals(0, writeBehind.getQueueDepth());
+    }
+
+    @Test
+    void enqueue_DropOldestKeepsNewestEntries() {
+        System.out.println("\n=== Testing Drop-Oldest Overflow Policy ===");
+        ActivityLogWriteBehind writeBehind = newWriteBehind(2, OverflowPolicy.DROP_OLDEST);
+
+        writeBehind.enqueue(entry("first"));
+        writeBehind.enqueue(entry("second"));
+        writeBehind.enqueue(entry("third"));
+
+        assertEquals(2, writeBehind.getQueueDepth());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void enqueue_SpillToDiskWritesOverflowAndReplaysOnStop() throws Exception {
+        System.out.println("\n=== Testing Spill-To-Disk Overflow Policy ===");
+        ActivityLogWriteBehind writeBehind = newWriteBehind(1, OverflowPolicy.SPILL_TO_DISK);
+        Path spillFile = tempDir.resolve("spill.ndjson");
+
+        writeBehind.enqueue(entry("queued"));
+        writeBehind.enqueue(entry("spilled"));
+
+        assertEquals(1, writeBehind.getQueueDepth());
+        assertTrue(Files.exists(spillFile));
+        assertEquals(1, Files.readAllLines(spillFile).size());
+
+        writeBehind.stop();
+
+        ArgumentCaptor<List<PendingActivityLog>> batch = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, times(2)).batchUpdate(anyString(), batch.capture(), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class));
+        assertEquals("spilled", batch.getAllValues().get(1).get(0).details());
+        assertFalse(Files.exists(spillFile));
+        verify(jdbcTemplate, never()).update(anyString(), any(Object[].class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void stop_ReplaysLeftoverReplayFileBeforeRotatingSpillFile() throws Exception {
+        System.out.println("\n=== Testing Spill Replay With A Leftover Replay File ===");
+        ActivityLogWriteBehind writeBehind = newWriteBehind(1, OverflowPolicy.SPILL_TO_DISK);
+        Path replayFile = tempDir.resolve("spill.ndjson.replay");
+        Files.writeString(replayFile, objectMapper.writeValueAsString(entry("left over")) + "\n");
+
+        writeBehind.enqueue(entry("queued"));
+        writeBehind.enqueue(entry("spilled"));
+        writeBehind.stop();
+
+        ArgumentCaptor<List<PendingActivityLog>> batch = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, times(3)).batchUpdate(anyString(), batch.capture(), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class));
+        assertEquals(List.of("queued", "left over", "spilled"),
+                batch.getAllValues().stream().map(entries -> entries.get(0).details()).toList());
+        assertFalse(Files.exists(replayFile));
+        assertFalse(Files.exists(tempDir.resolve("spill.ndjson")));
+    }
+}
@@ -0,0 +1,168 @@
+package com.recky.demo.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.recky.demo.dao.ContactRepository;
+import com.recky.demo.dao.UserRepository;
+import com.recky.demo.dto.ContactImportResult;
+import com.recky.demo.model.Contact;
+import com.recky.demo.model.User;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:contactimport;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "contacts.import.batch-size=2"
+})
+@Import({ ContactImportService.class, JacksonAutoConfiguration.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class ContactImportServiceTest {
+
+    @Autowired
+    private ContactImportService contactImportService;
+
+    @Autowired
+    private ContactRepository contactRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @MockBean
+    private ActivityLogService activityLogService;
+
+    private User testUser;
+
+    @BeforeEach
+    void setUp() {
+        System.out.println("\n=== Setting up import user with one existing contact ===");
+        contactRepository.deleteAll();
+        userRepository.deleteAll();
+
+        testUser = new User();
+        testUser.setId("import-user");
+        testUser.setUsername("importuser");
+        testUser.setEmail("import@example.com");
+        testUser = userRepository.save(testUser);
+
+        Contact existing = new Contact();
+        existing.setName("Existing");
+        existing.setPhone("1111111111");
+        existing.setUser(testUser);
+        contactRepository.save(existing);
+    }
+
+    private String runImport(ContactImportService.Format format, String body, ContactImportResult[] result)
+            throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        result[0] = contactImportService.importContacts(testUser.getId(), format,
+                new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void importCsv_InsertsInBatchesAndSkipsDuplicates() throws Exception {
+        System.out.println("\n=== Testing CSV import ===");
+        String csv = "name,phone,email\n"
+                + "Alice,2222222222,alice@example.com\n"
+                + "\"Smith, Bob\",3333333333,\n"
+                + "Carol,4444444444,carol@example.com\n"
+                + "Existing again,1111111111,\n"
+                + "Alice twice,2222222222,\n"
+                + ",5555555555,\n";
+        ContactImportResult[] result = new ContactImportResult[1];
+        String response = runImport(ContactImportService.Format.CSV, csv, result);
+
+        assertEquals(3, result[0].getImported());
+        assertEquals(2, result[0].getDuplicates());
+        assertEquals(1, result[0].getFailed());
+        assertEquals(4, contactRepository.findPhonesByUserId(testUser.getId()).size());
+        assertTrue(contactRepository.findByPhone("3333333333").get(0).getName().equals("Smith, Bob"));
+
+        List<String> lines = response.lines().toList();
+        assertEquals(4, lines.size(), "Three rejected rows and a summary line expected");
+        assertTrue(lines.get(0).contains("\"line\":5") && lines.get(0).contains("DUPLICATE"));
+        assertTrue(lines.get(2).contains("\"line\":7") && lines.get(2).contains("Name is required"));
+        assertTrue(lines.get(3).contains("\"imported\":3"));
+
+        verify(activityLogService).logActivity(eq(testUser.getId()), eq("CREATE"), contains("Imported 3 contacts"));
+    }
+
+    @Test
+    void importNdjson_ReportsUnparseableRows() throws Exception {
+        System.out.println("\n=== Testing NDJSON import ===");
+        String ndjson = "{\"name\":\"Dave\",\"phone\":\"6666666666\"}\n"
+                + "not json\n"
+                + "{\"name\":\"Erin\",\"phone\":\"7777777777\",\"address\":\"Main St\"}\n";
+        ContactImportResult[] result = new ContactImportResult[1];
+        String response = runImport(ContactImportService.Format.NDJSON, ndjson, result);
+
+        assertEquals(2, result[0].getImported());
+        assertEquals(1, result[0].getFailed());
+        assertTrue(response.lines().findFirst().get().contains("\"line\":2"));
+    }
+
+    @Test
+    void importCsv_DedupesOnCanonicalPhone() throws Exception {
+        System.out.println("\n=== Testing import dedupe on canonical phones ===");
+        String csv = "name,phone\n"
+                + "Existing formatted,+1 111 111 1111\n"
+                + "Frank,888-888-8888\n"
+                + "Frank again,1 888 888 8888\n";
+        ContactImportResult[] result = new ContactImportResult[1];
+        runImport(ContactImportService.Format.CSV, csv, result);
+
+        assertEquals(1, result[0].getImported());
+        assertEquals(2, result[0].getDuplicates());
+        assertEquals("+18888888888", contactRepository.findByPhone("888-888-8888").get(0).getPhoneCanonical());
+    }
+
+    @Test
+    void saveDuplicatePhone_IsRejectedByUniqueIndex() {
+        System.out.println("\n=== Testing unique (user_id, phone_canonical) index ===");
+        assertEquals("+11111111111", contactRepository.findByPhone("1111111111").get(0).getPhoneCanonical());
+
+        Contact duplicate = new Contact();
+        duplicate.setName("Duplicate");
+        duplicate.setPhone("+1 111.111.1111");
+        duplicate.setUser(testUser);
+        DataIntegrityViolationException e = assertThrows(DataIntegrityViolationException.class,
+                () -> contactRepository.saveAndFlush(duplicate));
+        assertTrue(ContactService.isPhoneConflict(e), "Violation should be recognized as a phone conflict");
+
+        // Updates are canonicalized too
+        Contact existing = contactRepository.findByPhone("1111111111").get(0);
+        existing.setPhone("(999) 999-9999");
+        assertEquals("+19999999999", contactRepository.saveAndFlush(existing).getPhoneCanonical());
+    }
+
+    @Test
+    void parseCsvLine_HandlesQuotes() {
+        System.out.println("\n=== Testing CSV line parsing ===");
+        assertEquals(List.of("a", "b, \"c\"", ""), ContactImportService.parseCsvLine("a,\"b, \"\"c\"\"\","));
+    }
+}
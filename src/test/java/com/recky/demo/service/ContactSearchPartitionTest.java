@@ -0,0 +1,77 @@
+package com.recky.demo.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.recky.demo.dto.ContactDTO;
+
+public class ContactSearchPartitionTest {
+
+    private ContactSearchPartition partition;
+
+    @BeforeEach
+    void setUp() {
+        partition = ContactSearchPartition.of(List.of(
+                contact(1L, "José Álvarez", "+1 (555) 123-4567", "jose@example.com", "12 Main Street"),
+                contact(2L, "Maria Main", "555-987-6543", "maria@work.org", "7 Oak Avenue"),
+                contact(3L, "Michael Smith", "0207 946 0018", null, "Main Road, London")));
+    }
+
+    @Test
+    void prefixAndAccentInsensitiveMatches() {
+        System.out.println("\n=== Testing prefix and accent-insensitive search ===");
+        assertEquals(List.of(1L), ids(partition.search("jos alv", 10)));
+        assertEquals(List.of(1L), ids(partition.search("JOSE", 10)));
+    }
+
+    @Test
+    void typosWithinOneEdit_StillMatch() {
+        System.out.println("\n=== Testing fuzzy search ===");
+        assertEquals(List.of(3L), ids(partition.search("micheal", 10)));
+        assertTrue(partition.search("xyzzy", 10).isEmpty());
+    }
+
+    @Test
+    void phoneDigits_MatchAnyFormattingAndTrailingDigits() {
+        System.out.println("\n=== Testing phone digit search ===");
+        assertEquals(List.of(1L), ids(partition.search("555 123 4567", 10)));
+        assertEquals(List.of(1L), ids(partition.search("4567", 10)));
+        assertEquals(List.of(3L), ids(partition.search("9460018", 10)));
+    }
+
+    @Test
+    void nameMatches_RankAboveAddressMatches() {
+        System.out.println("\n=== Testing ranking by field ===");
+        List<Long> ranked = ids(partition.search("main", 10));
+        assertEquals(3, ranked.size());
+        assertEquals(2L, ranked.get(0), "Name match should outrank address matches");
+    }
+
+    @Test
+    void updatesAndDeletes_AreAppliedIncrementally() {
+        System.out.println("\n=== Testing incremental index updates ===");
+        partition.put(contact(2L, "Maria Lopez", "555-987-6543", "maria@work.org", "7 Oak Avenue"));
+        assertEquals(List.of(2L), ids(partition.search("lopez", 10)));
+        assertFalse(ids(partition.search("main", 10)).contains(2L), "Old name must no longer match");
+
+        partition.remove(1L);
+        assertTrue(partition.search("jose", 10).isEmpty());
+        assertEquals(2, partition.size());
+    }
+
+    private static List<Long> ids(List<ContactDTO> contacts) {
+        return contacts.stream().map(ContactDTO::getId).toList();
+    }
+
+    private static ContactDTO contact(Long id, String name, String phone, String email, String address) {
+        LocalDateTime now = LocalDateTime.now();
+        return new ContactDTO(id, "user-1", name, phone, email, address, now, now);
+    }
+}
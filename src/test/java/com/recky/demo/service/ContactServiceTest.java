@@ -9,6 +9,7 @@ import java.util.UUID;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -18,6 +19,7 @@ import static org.mockito.ArgumentMatchers.eq;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -27,6 +29,7 @@ import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 
 import com.recky.demo.dao.ContactRepository;
+import com.recky.demo.exception.InvalidPhoneException;
 import com.recky.demo.model.Contact;
 import com.recky.demo.model.User;
 
@@ -86,6 +89,19 @@ public class ContactServiceTest {
         System.out.println("Contact saved successfully with name: " + savedContact.getName());
     }
 
+    @Test
+    void saveContact_RejectsPhoneLongerThanColumn() {
+        System.out.println("\n=== Testing Contact Save With An Over-Long Phone ===");
+        testContact.setPhone("+1 (555) 010-0000 ext 12");
+
+        InvalidPhoneException e = assertThrows(InvalidPhoneException.class,
+                () -> contactService.saveContact(testContact));
+
+        assertEquals("Phone is longer than 15 characters", e.getMessage());
+        verify(contactRepository, never()).save(any(Contact.class));
+        System.out.println("Over-long phone rejected before the insert");
+    }
+
     @Test
     void getContactById_Found() {
         System.out.println("\n=== Testing Get Contact By ID (Found) ===");
@@ -145,7 +161,7 @@ public class ContactServiceTest {
         when(contactRepository.findByUserIdAndId(userId, contactId)).thenReturn(Optional.of(testContact));
         doNothing().when(contactRepository).delete(any(Contact.class)); // Mock delete to do nothing
 
-        doNothing().when(activityLogService).logActivity(eq(userId), eq("DELETE"), any()); // Mock activity log service
+        when(activityLogService.logActivity(eq(userId), eq("DELETE"), any())).thenReturn(null); // Mock activity log service
         // Act: Call the service method
         contactService.deleteContact(contactId, userId);
 
@@ -234,23 +250,6 @@ public class ContactServiceTest {
         System.out.println("Successfully retrieved contacts by email");
     }
 
-    @Test
-    void existsByPhoneAndUserId_Success() {
-        System.out.println("\n=== Testing Exists By Phone And User ID ===");
-        String phone = "1234567890";
-        String userId = "some-random-id";
-
-        System.out.println("Configuring mock repository to return true for existence check");
-        when(contactRepository.existsByPhoneAndUserId(phone, userId)).thenReturn(true);
-
-        System.out.println("Checking existence of contact with phone and user ID...");
-        boolean exists = contactService.existsByPhoneAndUserId(phone, userId);
-
-        System.out.println("Verifying existence check...");
-        assertTrue(exists, "Contact should exist with given phone and user ID");
-        System.out.println("Existence verified successfully");
-    }
-
     @Test
     void existsByIdAndUserId_Success() {
         System.out.println("\n=== Testing Exists By ID And User ID ===");
@@ -0,0 +1,56 @@
+package com.recky.demo.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.recky.demo.dto.ContactDTO;
+import com.recky.demo.dto.ContactSuggestionDTO;
+
+public class ContactSuggestionsTest {
+
+    private final ContactSearchPartition partition = ContactSearchPartition.of(List.of(
+            contact(1L, "Maria Garcia", "+1 555 123 4567"),
+            contact(2L, "Mariam Okafor", "555 987 6543"),
+            contact(3L, "Ángel María Ruiz", "020 7946 0018"),
+            contact(4L, "Bob Marley", "555 000 1111")));
+
+    @Test
+    void fullNamePrefixes_ComeBeforeLaterWordMatches() {
+        System.out.println("\n=== Testing typeahead ordering ===");
+        assertEquals(List.of(1L, 2L, 3L, 4L), ids(partition.suggest("mar", 10)));
+        assertEquals(List.of(1L, 2L), ids(partition.suggest("mar", 2)));
+        assertEquals(List.of(1L, 3L), ids(partition.suggest("maria ", 10)), "Trailing space ends the word");
+        assertEquals(List.of(3L), ids(partition.suggest("angel m", 10)));
+    }
+
+    @Test
+    void digitPrefixes_MatchPhones() {
+        System.out.println("\n=== Testing typeahead on phone digits ===");
+        assertEquals(List.of(4L, 2L), ids(partition.suggest("555", 10)), "Phones in digit order");
+        assertEquals(List.of(1L), ids(partition.suggest("+1 555", 10)));
+        assertTrue(partition.suggest("", 10).isEmpty());
+    }
+
+    @Test
+    void writes_AreVisibleToTheNextSuggestion() {
+        System.out.println("\n=== Testing typeahead stays consistent with writes ===");
+        assertEquals(List.of(4L), ids(partition.suggest("bob", 10)));
+        partition.put(contact(5L, "Bobby Tables", "555 222 3333"));
+        partition.remove(4L);
+        assertEquals(List.of(5L), ids(partition.suggest("bob", 10)));
+    }
+
+    private static List<Long> ids(List<ContactSuggestionDTO> suggestions) {
+        return suggestions.stream().map(ContactSuggestionDTO::getId).toList();
+    }
+
+    private static ContactDTO contact(Long id, String name, String phone) {
+        LocalDateTime now = LocalDateTime.now();
+        return new ContactDTO(id, "user-1", name, phone, null, null, now, now);
+    }
+}
@@ -0,0 +1,152 @@
+package com.recky.demo.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.recky.demo.config.ExpectedQueries;
+import com.recky.demo.config.QueryCountConfig;
+import com.recky.demo.config.QueryCountExtension;
+import com.recky.demo.dto.ActivityLogDTO;
+import com.recky.demo.dto.ContactDTO;
+import com.recky.demo.dto.UserDTO;
+import com.recky.demo.model.ActivityLog;
+import com.recky.demo.model.Contact;
+import com.recky.demo.model.User;
+import com.recky.demo.util.CursorPage;
+
+import jakarta.persistence.EntityManager;
+
+// SQL budgets of the list and seek service paths, so a lazy load per row shows up as a failure
+@SpringBootTest
+@AutoConfigureTestDatabase
+@Import(QueryCountConfig.class)
+@Transactional
+public class PaginationQueryBudgetTest {
+
+    private static final int ROWS = 15;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private ContactService contactService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ActivityLogService activityLogService;
+
+    private final String userId = "budget-service-user";
+
+    @BeforeEach
+    void setUp() {
+        System.out.println("\n=== Setting up users, contacts and activity logs ===");
+        User user = new User();
+        user.setId(userId);
+        user.setUsername("budgetserviceuser");
+        user.setEmail("budget-service@example.com");
+        entityManager.persist(user);
+        for (int i = 0; i < ROWS; i++) {
+            User other = new User();
+            other.setId("budget-service-other-" + i);
+            other.setUsername("budgetserviceother" + i);
+            other.setEmail("budget-service-other" + i + "@example.com");
+            entityManager.persist(other);
+
+            Contact contact = new Contact();
+            contact.setName("Budget Contact " + i);
+            contact.setPhone("555100" + i);
+            contact.setUser(user);
+            entityManager.persist(contact);
+
+            entityManager.persist(new ActivityLog(user, ActivityLog.Action.GET, "budget " + i));
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    // Contact.user is an eager @ManyToOne: every row of the page shares one owner, loaded once
+    @Test
+    @ExpectedQueries(max = 3)
+    void getContactsByUserIdPaginated_PageOwnerAndCount() {
+        System.out.println("\n=== Testing the statement budget of a page of contacts ===");
+        Page<Contact> contacts = contactService.getContactsByUserIdPaginated(userId, PageRequest.of(0, 10));
+        assertEquals(10, contacts.getNumberOfElements());
+        assertEquals(ROWS, contacts.getTotalElements());
+    }
+
+    @Test
+    @ExpectedQueries(max = 1)
+    void getContactsByUserIdSeek_OneStatementPerSlice() {
+        System.out.println("\n=== Testing the statement budget of contact seek slices ===");
+        CursorPage<ContactDTO> first = contactService.getContactsByUserIdSeek(userId, null, 10);
+        assertNotNull(first.nextCursor());
+        QueryCountExtension.reset();
+
+        CursorPage<ContactDTO> next = contactService.getContactsByUserIdSeek(userId, first.nextCursor(), 10);
+        assertEquals(ROWS - 10, next.content().size());
+    }
+
+    @Test
+    @ExpectedQueries(max = 2)
+    void getAllContacts_PageAndCount() {
+        System.out.println("\n=== Testing the statement budget of the admin contact page ===");
+        Page<ContactDTO> contacts = contactService.getAllContactsPaginated(PageRequest.of(0, 10));
+        assertEquals(10, contacts.getNumberOfElements());
+    }
+
+    @Test
+    @ExpectedQueries(max = 1)
+    void getAllContactsSeek_OneStatementPerSlice() {
+        System.out.println("\n=== Testing the statement budget of admin contact seek slices ===");
+        CursorPage<ContactDTO> contacts = contactService.getAllContactsSeek(null, 10);
+        assertEquals(10, contacts.content().size());
+    }
+
+    @Test
+    @ExpectedQueries(max = 2)
+    void getUsersSeek_SliceAndOneContactCount() {
+        System.out.println("\n=== Testing the statement budget of user seek slices with contact counts ===");
+        CursorPage<User> users = userService.getUsersSeek(null, 10);
+        userService.getContactCounts(users.content());
+        assertEquals(10, users.content().size());
+    }
+
+    @Test
+    @ExpectedQueries(max = 2)
+    void getUserDTOsPage_PageAndCount() {
+        System.out.println("\n=== Testing the statement budget of a page of users ===");
+        Page<UserDTO> users = userService.getUserDTOsPage(0, 10);
+        assertEquals(10, users.getNumberOfElements());
+    }
+
+    @Test
+    @ExpectedQueries(max = 2)
+    void getPaginatedLogsByUserId_PageAndCount() {
+        System.out.println("\n=== Testing the statement budget of a page of activity logs ===");
+        Page<ActivityLogDTO> logs = activityLogService.getPaginatedLogsByUserId(userId, PageRequest.of(0, 10));
+        assertEquals(ROWS, logs.getTotalElements());
+    }
+
+    @Test
+    @ExpectedQueries(max = 1)
+    void getLogsByUserIdSeek_OneStatementPerSlice() {
+        System.out.println("\n=== Testing the statement budget of activity log seek slices ===");
+        CursorPage<ActivityLogDTO> first = activityLogService.getLogsByUserIdSeek(userId, null, 10);
+        assertNotNull(first.nextCursor());
+        QueryCountExtension.reset();
+
+        CursorPage<ActivityLogDTO> next = activityLogService.getLogsByUserIdSeek(userId, first.nextCursor(), 10);
+        assertEquals(ROWS - 10, next.content().size());
+    }
+}
@@ -0,0 +1,103 @@
+package com.recky.demo.service;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import com.recky.demo.model.User;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class UserCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private UserCache userCache;
+    private User testUser;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        System.out.println("\n=== Initializing User Cache ===");
+        meterRegistry = new SimpleMeterRegistry();
+        userCache = new UserCache(meterRegistry, 100, 60);
+        testUser = new User();
+        testUser.setId("cached-user");
+        testUser.setUsername("cacheduser");
+        testUser.setEmail("cached@example.com");
+        testUser.setRole(User.Role.ADMIN);
+        loads = new AtomicInteger();
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    private Supplier<Optional<User>> loader() {
+        return () -> {
+            loads.incrementAndGet();
+            return Optional.of(testUser);
+        };
+    }
+
+    @Test
+    void getById_LoadsOnceAndReturnsCopies() {
+        System.out.println("\n=== Testing Shared Cache Hits ===");
+        User first = userCache.getById("cached-user", loader()).get();
+        User second = userCache.getById("cached-user", loader()).get();
+
+        assertEquals(1, loads.get(), "Second lookup should be served from the cache");
+        assertEquals("cacheduser", second.getUsername());
+        assertEquals(User.Role.ADMIN, second.getRole());
+        assertNotSame(first, second, "Callers should never share an instance");
+        assertNull(second.getContacts(), "Cached snapshots carry no contacts");
+    }
+
+    @Test
+    void getByUsernameAndEmail_ResolveThroughIdIndex() {
+        System.out.println("\n=== Testing Username/Email Indexes ===");
+        userCache.getById("cached-user", loader());
+
+        assertEquals("cached-user", userCache.getByUsername("cacheduser", loader()).get().getId());
+        assertEquals("cached-user", userCache.getByEmail("cached@example.com", loader()).get().getId());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void evict_DropsUserAndIndexes() {
+        System.out.println("\n=== Testing Eviction ===");
+        userCache.getByUsername("cacheduser", loader());
+        userCache.evict("cached-user");
+
+        userCache.getById("cached-user", loader());
+        userCache.getByUsername("cacheduser", loader());
+        assertEquals(2, loads.get(), "Only the first lookup after eviction should reload");
+    }
+
+    @Test
+    void getById_MemoizesWithinRequest() {
+        System.out.println("\n=== Testing Request Memo ===");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+
+        Supplier<Optional<User>> missing = () -> {
+            loads.incrementAndGet();
+            return Optional.empty();
+        };
+        assertTrue(userCache.getById("missing-user", missing).isEmpty());
+        assertTrue(userCache.getById("missing-user", missing).isEmpty());
+
+        assertEquals(1, loads.get(), "Misses are memoized for the rest of the request");
+        assertEquals(1.0, meterRegistry.get("users.request_memo.hits").counter().count());
+    }
+}
@@ -17,9 +17,11 @@ import static org.mockito.ArgumentMatchers.any;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
@@ -34,6 +36,9 @@ public class UserServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private UserCache userCache;
+
     @InjectMocks
     private UserService userService;
 
@@ -150,6 +155,32 @@ public class UserServiceTest {
         System.out.println("User deletion operation completed successfully");
     }
 
+    @Test
+    void writeWithUserReference_SkipsLookupForCachedUser() {
+        System.out.println("\n=== Testing Write With Cached User Reference ===");
+        String userId = testUser.getId();
+        when(userCache.containsId(userId)).thenReturn(true);
+        when(userRepository.getReferenceById(userId)).thenReturn(testUser);
+
+        String written = userService.writeWithUserReference(userId, User::getId);
+
+        assertEquals(userId, written);
+        verify(userRepository, never()).findById(userId);
+    }
+
+    @Test
+    void writeWithUserReference_TranslatesForeignKeyViolation() {
+        System.out.println("\n=== Testing Write With Missing User Reference ===");
+        String userId = "missing-user";
+        when(userCache.containsId(userId)).thenReturn(true);
+        when(userRepository.getReferenceById(userId)).thenReturn(new User());
+        when(userRepository.existsById(userId)).thenReturn(false);
+
+        assertThrows(UserNotFoundException.class, () -> userService.writeWithUserReference(userId, user -> {
+            throw new RuntimeException("Failed to save", new DataIntegrityViolationException("fk_user"));
+        }));
+    }
+
     @Test
     void getUsersPage_Success() {
         System.out.println("\n=== Testing Get Users Page ===");
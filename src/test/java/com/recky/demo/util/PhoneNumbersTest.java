@@ -0,0 +1,34 @@
+package com.recky.demo.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import org.junit.jupiter.api.Test;
+
+class PhoneNumbersTest {
+
+    @Test
+    void canonicalize_NorthAmericanDefault() {
+        System.out.println("\n=== Testing phone canonicalization with country code 1 ===");
+        assertEquals("+15550100", PhoneNumbers.canonicalize("+1 555-0100", "1"));
+        assertEquals("+15550100", PhoneNumbers.canonicalize("5550100", "1"));
+        assertEquals("+15550100", PhoneNumbers.canonicalize("001 555 0100", "1"));
+        assertEquals("+12125550100", PhoneNumbers.canonicalize("(212) 555-0100", "1"));
+        assertEquals("+12125550100", PhoneNumbers.canonicalize("1-212-555-0100", "1"));
+        assertEquals("+442079460000", PhoneNumbers.canonicalize("+44 20 7946 0000", "1"));
+    }
+
+    @Test
+    void canonicalize_DropsTrunkPrefixForOtherCountries() {
+        System.out.println("\n=== Testing phone canonicalization with country code 44 ===");
+        assertEquals("+442079460000", PhoneNumbers.canonicalize("020 7946 0000", "44"));
+        assertEquals("+442079460000", PhoneNumbers.canonicalize("0044 20 7946 0000", "44"));
+        assertEquals("+15550100", PhoneNumbers.canonicalize("+1 555 0100", "44"));
+    }
+
+    @Test
+    void canonicalize_NoDigits() {
+        System.out.println("\n=== Testing phone canonicalization without digits ===");
+        assertNull(PhoneNumbers.canonicalize(null, "1"));
+        assertNull(PhoneNumbers.canonicalize(" - ", "1"));
+    }
+}